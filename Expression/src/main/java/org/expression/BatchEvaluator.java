@@ -0,0 +1,259 @@
+package org.expression;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс для пакетного вычисления выражения над столбцами значений переменных.
+ * Вместо вызова {@link ExpressionEvaluator#evaluate} для каждой строки каждая операция дерева
+ * применяется сразу ко всему блоку строк, поэтому диспетчеризация по узлам выполняется один раз на блок,
+ * а аллокаций при вычислении нет.
+ *
+ * Если JVM запущена с {@code --add-modules jdk.incubator.vector}, операции выполняются на SIMD-регистрах
+ * через JDK Vector API, иначе — скалярными циклами. Векторный путь можно отключить системным свойством
+ * {@code expression.vector=false}.
+ *
+ * Экземпляр хранит буферы промежуточных результатов и не является потокобезопасным.
+ */
+public class BatchEvaluator {
+
+    private static final int BLOCK_SIZE = 1024;  // Количество строк, обрабатываемых за один проход по операциям
+    private static final BatchKernel DEFAULT_KERNEL = selectKernel();
+
+    private final VariableSchema schema;
+    private final BatchKernel kernel;
+    private final double[][] buffers;            // Столбцы констант и промежуточных результатов размером в блок
+    private final OperationNode.Operation[] operations;  // Операция шага или null для шага-функции
+    private final FunctionNode.Function[] functions;     // Функция шага или null для шага-операции
+    private final int[] lefts;                   // Ссылка на левый операнд (первый аргумент) шага
+    private final int[] rights;                  // Ссылка на правый операнд (второй аргумент) шага
+    private final int[] thirds;                  // Ссылка на третий аргумент шага
+    private final int[] targets;                 // Ссылка на результат шага
+    private final int result;                    // Ссылка на значение корня выражения
+
+    /**
+     * Конструктор пакетного вычислителя для выражения, привязанного к схеме переменных.
+     *
+     * @param expression Привязанное выражение; столбцы передаются в порядке слотов его схемы.
+     */
+    public BatchEvaluator(BoundExpression expression) {
+        this(expression, DEFAULT_KERNEL);
+    }
+
+    /**
+     * Конструктор пакетного вычислителя с явно заданным ядром вычислений.
+     *
+     * @param expression Привязанное выражение.
+     * @param kernel Ядро, выполняющее поэлементные операции.
+     */
+    BatchEvaluator(BoundExpression expression, BatchKernel kernel) {
+        this.schema = expression.getSchema();
+        this.kernel = kernel;
+
+        // Ссылка на операнд: неотрицательная — номер столбца-переменной, отрицательная — буфер (-1 - индекс)
+        Planner planner = new Planner();
+        this.result = planner.plan(expression.getRoot());
+        this.buffers = planner.buffers.toArray(new double[0][]);
+        int steps = planner.operations.size();
+        this.operations = planner.operations.toArray(new OperationNode.Operation[0]);
+        this.functions = planner.functions.toArray(new FunctionNode.Function[0]);
+        this.lefts = new int[steps];
+        this.rights = new int[steps];
+        this.thirds = new int[steps];
+        this.targets = new int[steps];
+        for (int i = 0; i < steps; i++) {
+            lefts[i] = planner.lefts.get(i);
+            rights[i] = planner.rights.get(i);
+            thirds[i] = planner.thirds.get(i);
+            targets[i] = planner.targets.get(i);
+        }
+    }
+
+    /**
+     * Проверяет, используется ли векторное ядро (JDK Vector API).
+     *
+     * @return {@code true}, если операции выполняются на SIMD-регистрах.
+     */
+    public boolean isVectorized() {
+        return kernel instanceof VectorBatchKernel;
+    }
+
+    /**
+     * Вычисляет выражение для всех строк, заданных столбцами переменных.
+     *
+     * @param columns Столбцы значений переменных в порядке слотов схемы.
+     * @param out Массив для результатов; его длина задаёт количество строк.
+     * @throws ArithmeticException Если хотя бы в одной строке происходит деление на ноль.
+     * @throws IllegalArgumentException Если столбцов меньше, чем переменных, или они короче результата.
+     */
+    public void evaluate(double[][] columns, double[] out) {
+        evaluate(columns, out, out.length);
+    }
+
+    /**
+     * Вычисляет выражение для первых {@code rows} строк, заданных столбцами переменных.
+     *
+     * @param columns Столбцы значений переменных в порядке слотов схемы.
+     * @param out Массив для результатов.
+     * @param rows Количество строк.
+     * @throws ArithmeticException Если хотя бы в одной строке происходит деление на ноль.
+     * @throws IllegalArgumentException Если столбцов меньше, чем переменных, или они короче {@code rows}.
+     */
+    public void evaluate(double[][] columns, double[] out, int rows) {
+        if (columns.length < schema.size()) {
+            throw new IllegalArgumentException("Ожидалось столбцов: " + schema.size() + ", передано: " + columns.length);
+        }
+        for (int i = 0; i < schema.size(); i++) {
+            if (columns[i].length < rows) {
+                throw new IllegalArgumentException("Столбец переменной " + schema.getNames().get(i) + " короче " + rows);
+            }
+        }
+        if (out.length < rows) {
+            throw new IllegalArgumentException("Массив результатов короче " + rows);
+        }
+
+        for (int start = 0; start < rows; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, rows - start);
+            for (int step = 0; step < operations.length; step++) {
+                int target = targets[step];
+                boolean last = step == operations.length - 1;
+                if (operations[step] != null) {
+                    kernel.apply(operations[step],
+                            column(lefts[step], columns), offset(lefts[step], start),
+                            column(rights[step], columns), offset(rights[step], start),
+                            last ? out : buffers[-1 - target], last ? start : 0, length);
+                } else {
+                    kernel.apply(functions[step],
+                            column(lefts[step], columns), offset(lefts[step], start),
+                            column(rights[step], columns), offset(rights[step], start),
+                            column(thirds[step], columns), offset(thirds[step], start),
+                            last ? out : buffers[-1 - target], last ? start : 0, length);
+                }
+            }
+            if (operations.length == 0) {
+                System.arraycopy(column(result, columns), offset(result, start), out, start, length);
+            }
+        }
+    }
+
+    /**
+     * Вычисляет выражение для всех строк, заданных столбцами переменных по именам.
+     *
+     * @param columns Карта имён переменных и их столбцов.
+     * @param out Массив для результатов; его длина задаёт количество строк.
+     * @throws RuntimeException Если столбец какой-либо переменной схемы отсутствует.
+     */
+    public void evaluate(Map<String, double[]> columns, double[] out) {
+        double[][] ordered = new double[schema.size()][];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = columns.get(schema.getNames().get(i));
+            if (ordered[i] == null) {
+                throw new RuntimeException("Переменная не определена: " + schema.getNames().get(i));
+            }
+        }
+        evaluate(ordered, out);
+    }
+
+    private double[] column(int reference, double[][] columns) {
+        return reference >= 0 ? columns[reference] : buffers[-1 - reference];
+    }
+
+    private static int offset(int reference, int start) {
+        return reference >= 0 ? start : 0;
+    }
+
+    private static BatchKernel selectKernel() {
+        if (Boolean.parseBoolean(System.getProperty("expression.vector", "true"))) {
+            try {
+                return new VectorBatchKernel();
+            } catch (LinkageError e) {
+                // Модуль jdk.incubator.vector не подключён — используем скалярное ядро
+            }
+        }
+        return new ScalarBatchKernel();
+    }
+
+    /**
+     * Планировщик: раскладывает дерево в последовательность шагов в обратном польском порядке
+     * и распределяет буферы промежуточных результатов, повторно используя освободившиеся.
+     */
+    private static final class Planner {
+        private final List<double[]> buffers = new ArrayList<>();
+        private final Map<Long, Integer> constants = new HashMap<>();
+        private final Deque<Integer> free = new ArrayDeque<>();
+        private final List<OperationNode.Operation> operations = new ArrayList<>();
+        private final List<FunctionNode.Function> functions = new ArrayList<>();
+        private final List<Integer> lefts = new ArrayList<>();
+        private final List<Integer> rights = new ArrayList<>();
+        private final List<Integer> thirds = new ArrayList<>();
+        private final List<Integer> targets = new ArrayList<>();
+
+        private int plan(ExpressionNode node) {
+            if (node instanceof NumberNode number) {
+                return constant(number.getValue());
+            } else if (node instanceof VariableNode variable) {
+                return variable.getSlot();
+            } else if (node instanceof OperationNode operation) {
+                int left = plan(operation.getLeft());
+                int right = plan(operation.getRight());
+                release(left);
+                release(right);
+                return step(operation.getOperation(), null, left, right, left);
+            } else if (node instanceof FunctionNode function) {
+                // Отсутствующие аргументы ссылаются на первый, чтобы ядро всегда получало существующие столбцы
+                int[] arguments = new int[3];
+                for (int i = 0; i < function.getFunction().getArity(); i++) {
+                    arguments[i] = plan(function.getArgument(i));
+                }
+                for (int i = function.getFunction().getArity(); i < arguments.length; i++) {
+                    arguments[i] = arguments[0];
+                }
+                for (int i = 0; i < function.getFunction().getArity(); i++) {
+                    release(arguments[i]);
+                }
+                return step(null, function.getFunction(), arguments[0], arguments[1], arguments[2]);
+            }
+            throw new RuntimeException("Неизвестный тип узла: " + node.getClass().getName());
+        }
+
+        private int step(OperationNode.Operation operation, FunctionNode.Function function,
+                         int first, int second, int third) {
+            int target = temporary();
+            operations.add(operation);
+            functions.add(function);
+            lefts.add(first);
+            rights.add(second);
+            thirds.add(third);
+            targets.add(target);
+            return target;
+        }
+
+        private int constant(double value) {
+            return constants.computeIfAbsent(Double.doubleToRawLongBits(value), bits -> {
+                double[] column = new double[BLOCK_SIZE];
+                Arrays.fill(column, value);
+                buffers.add(column);
+                return -buffers.size();
+            });
+        }
+
+        private int temporary() {
+            if (!free.isEmpty()) {
+                return free.pop();
+            }
+            buffers.add(new double[BLOCK_SIZE]);
+            return -buffers.size();
+        }
+
+        private void release(int reference) {
+            if (reference < 0 && !constants.containsValue(reference) && !free.contains(reference)) {
+                free.push(reference);
+            }
+        }
+    }
+}
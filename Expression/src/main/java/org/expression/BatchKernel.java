@@ -0,0 +1,43 @@
+package org.expression;
+
+/**
+ * Ядро пакетного вычисления: применяет операцию или функцию поэлементно к диапазонам столбцов.
+ * Используется {@link BatchEvaluator}; реализации отличаются только способом выполнения цикла.
+ */
+interface BatchKernel {
+
+    /**
+     * Вычисляет {@code out[outOffset + i] = left[leftOffset + i] (operation) right[rightOffset + i]}
+     * для всех {@code i} от 0 до {@code length}.
+     *
+     * @param operation Операция.
+     * @param left Столбец левого операнда.
+     * @param leftOffset Смещение левого операнда.
+     * @param right Столбец правого операнда.
+     * @param rightOffset Смещение правого операнда.
+     * @param out Столбец результата.
+     * @param outOffset Смещение результата.
+     * @param length Количество элементов.
+     * @throws ArithmeticException Если операция — деление и хотя бы один делитель равен нулю.
+     */
+    void apply(OperationNode.Operation operation, double[] left, int leftOffset, double[] right, int rightOffset,
+               double[] out, int outOffset, int length);
+
+    /**
+     * Вычисляет {@code out[outOffset + i] = function(a[aOffset + i], b[bOffset + i], c[cOffset + i])}
+     * для всех {@code i} от 0 до {@code length}. Столбцы сверх количества аргументов функции передаются, но их значения не используются.
+     *
+     * @param function Функция.
+     * @param a Столбец первого аргумента.
+     * @param aOffset Смещение первого аргумента.
+     * @param b Столбец второго аргумента.
+     * @param bOffset Смещение второго аргумента.
+     * @param c Столбец третьего аргумента.
+     * @param cOffset Смещение третьего аргумента.
+     * @param out Столбец результата.
+     * @param outOffset Смещение результата.
+     * @param length Количество элементов.
+     */
+    void apply(FunctionNode.Function function, double[] a, int aOffset, double[] b, int bOffset,
+               double[] c, int cOffset, double[] out, int outOffset, int length);
+}
@@ -0,0 +1,86 @@
+package org.expression;
+
+import java.util.Map;
+
+/**
+ * Выражение, привязанное к схеме переменных {@link VariableSchema}.
+ * Каждый узел переменной в дереве хранит номер своего слота, поэтому вычисление читает значения
+ * напрямую из массива {@code double[]} без хеширования имён и распаковки {@link Double}.
+ */
+public final class BoundExpression {
+
+    private final VariableSchema schema;
+    private final ExpressionNode root;
+    private volatile CompiledExpression compiled;  // Скомпилированная форма, создаётся при первом обращении
+
+    /**
+     * Конструктор привязанного выражения. Используется {@link VariableSchema#bind(ExpressionNode)}.
+     *
+     * @param schema Схема переменных.
+     * @param root Корень дерева с привязанными узлами переменных.
+     */
+    BoundExpression(VariableSchema schema, ExpressionNode root) {
+        this.schema = schema;
+        this.root = root;
+    }
+
+    /**
+     * Получает схему переменных, к которой привязано выражение.
+     *
+     * @return Схема переменных.
+     */
+    public VariableSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Получает корень привязанного дерева выражения.
+     *
+     * @return Корень дерева.
+     */
+    public ExpressionNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Вычисляет значение выражения по значениям переменных в слотах схемы.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double evaluate(double[] slots) {
+        return root.evaluate(slots);
+    }
+
+    /**
+     * Вычисляет значение выражения по карте переменных. Удобная обёртка над {@link #evaluate(double[])}.
+     *
+     * @param variables Карта переменных и их значений.
+     * @return Результат вычисления выражения.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double evaluate(Map<String, Double> variables) {
+        return root.evaluate(schema.toSlots(variables));
+    }
+
+    /**
+     * Компилирует выражение в байт-код с тем же порядком слотов (см. {@link ExpressionCompiler}).
+     * Компиляция выполняется один раз, повторные вызовы возвращают тот же объект.
+     *
+     * @return Скомпилированное выражение.
+     */
+    public CompiledExpression compile() {
+        CompiledExpression result = compiled;
+        if (result == null) {
+            synchronized (this) {
+                result = compiled;
+                if (result == null) {
+                    result = new ExpressionCompiler(schema).compile(root);
+                    compiled = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,293 @@
+package org.expression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Минимальный генератор class-файла для {@link ExpressionCompiler}.
+ * Строит класс с конструктором по умолчанию и единственным методом вычисления,
+ * тело которого состоит из линейной последовательности инструкций без ветвлений
+ * (поэтому атрибут StackMapTable не требуется).
+ */
+final class BytecodeWriter {
+
+    private static final int CLASS_VERSION = 61;        // Java 17
+    private static final int MAX_CODE_LENGTH = 65535;   // Ограничение JVM на размер метода
+
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ICONST_0 = 0x03;
+    private static final int DALOAD = 0x31;
+    private static final int DLOAD_2 = 0x28;
+    private static final int DSTORE_2 = 0x49;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    static final int DADD = 0x63;
+    static final int DSUB = 0x67;
+    static final int DMUL = 0x6b;
+    static final int DDIV = 0x6f;
+    static final int DNEG = 0x77;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int stack;      // Текущая глубина стека операндов в словах
+    private int maxStack;   // Максимальная глубина стека операндов в словах
+    private int maxLocals = 2;  // this и массив слотов; вспомогательная переменная занимает ещё два слова
+
+    /**
+     * Помещает на стек константу типа double.
+     *
+     * @param value Значение константы.
+     */
+    void pushConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits == 0L) {
+            code.write(DCONST_0);
+        } else if (bits == Double.doubleToRawLongBits(1.0)) {
+            code.write(DCONST_1);
+        } else {
+            writeOpWithIndex(LDC2_W, doubleConstant(value));
+        }
+        push(2);
+    }
+
+    /**
+     * Помещает на стек значение из слота массива, переданного первым аргументом метода.
+     *
+     * @param slot Номер слота.
+     */
+    void pushSlot(int slot) {
+        code.write(ALOAD_1);
+        push(1);
+        if (slot <= 5) {
+            code.write(ICONST_0 + slot);
+        } else if (slot <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(slot);
+        } else if (slot <= Short.MAX_VALUE) {
+            code.write(SIPUSH);
+            code.write(slot >>> 8);
+            code.write(slot);
+        } else {
+            throw new IllegalStateException("Слишком большой номер слота: " + slot);
+        }
+        push(1);
+        code.write(DALOAD);
+        pop(2);
+        push(2);
+    }
+
+    /**
+     * Снимает значение double со стека и сохраняет его во вспомогательную локальную переменную.
+     * Переменная одна на метод, поэтому её значение должно использоваться до следующего сохранения.
+     */
+    void storeTemporary() {
+        code.write(DSTORE_2);
+        pop(2);
+        maxLocals = 4;
+    }
+
+    /**
+     * Помещает на стек значение вспомогательной локальной переменной, сохранённое {@link #storeTemporary()}.
+     */
+    void loadTemporary() {
+        code.write(DLOAD_2);
+        push(2);
+    }
+
+    /**
+     * Записывает инструкцию, которая снимает со стека {@code operands} значений double и кладёт одно.
+     *
+     * @param opcode Код инструкции.
+     * @param operands Количество операндов инструкции.
+     */
+    void operation(int opcode, int operands) {
+        code.write(opcode);
+        pop(2 * operands);
+        push(2);
+    }
+
+    /**
+     * Записывает вызов статического метода, принимающего {@code operands} значений double
+     * и возвращающего double.
+     *
+     * @param owner Внутреннее имя класса-владельца метода.
+     * @param name Имя метода.
+     * @param operands Количество аргументов метода.
+     */
+    void invokeStatic(String owner, String name, int operands) {
+        String descriptor = "(" + "D".repeat(operands) + ")D";
+        writeOpWithIndex(INVOKESTATIC, methodRef(owner, name, descriptor));
+        pop(2 * operands);
+        push(2);
+    }
+
+    /**
+     * Собирает class-файл публичного финального класса, реализующего указанный интерфейс.
+     * Тело метода {@code methodName} — накопленные инструкции, завершённые {@code dreturn}.
+     *
+     * @param className Внутреннее имя генерируемого класса.
+     * @param interfaceName Внутреннее имя реализуемого интерфейса.
+     * @param methodName Имя метода вычисления.
+     * @param methodDescriptor Дескриптор метода вычисления.
+     * @return Байты class-файла.
+     * @throws IllegalStateException Если метод превышает ограничения JVM.
+     */
+    byte[] toClassFile(String className, String interfaceName, String methodName, String methodDescriptor) {
+        code.write(DRETURN);
+        if (code.size() > MAX_CODE_LENGTH || maxStack > 0xFFFF) {
+            throw new IllegalStateException("Выражение слишком велико для компиляции");
+        }
+
+        int thisClass = classRef(className);
+        int superClass = classRef("java/lang/Object");
+        int iface = classRef(interfaceName);
+        int objectInit = methodRef("java/lang/Object", "<init>", "()V");
+        int initName = utf8("<init>");
+        int initDescriptor = utf8("()V");
+        int evalName = utf8(methodName);
+        int evalDescriptor = utf8(methodDescriptor);
+        int codeAttribute = utf8("Code");
+
+        byte[] constructor = {
+                (byte) ALOAD_0,
+                (byte) INVOKESPECIAL, (byte) (objectInit >>> 8), (byte) objectInit,
+                (byte) RETURN
+        };
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            out.writeShort(poolCount);
+            poolOut.flush();
+            pool.writeTo(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020);  // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(iface);
+            out.writeShort(0);  // Поля
+            out.writeShort(2);  // Методы
+            writeMethod(out, initName, initDescriptor, codeAttribute, 1, 1, constructor);
+            writeMethod(out, evalName, evalDescriptor, codeAttribute, maxStack, maxLocals, code.toByteArray());
+            out.writeShort(0);  // Атрибуты класса
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute,
+                                    int maxStack, int maxLocals, byte[] body) throws IOException {
+        out.writeShort(0x0001);  // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + body.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeShort(0);  // Таблица исключений
+        out.writeShort(0);  // Атрибуты кода
+    }
+
+    private void writeOpWithIndex(int opcode, int index) {
+        code.write(opcode);
+        code.write(index >>> 8);
+        code.write(index);
+    }
+
+    private void push(int words) {
+        stack += words;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void pop(int words) {
+        stack -= words;
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(1);
+            out.writeUTF(value);
+        }, 1);
+    }
+
+    private int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, out -> {
+            out.writeByte(7);
+            out.writeShort(name);
+        }, 1);
+    }
+
+    private int methodRef(String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = constant("N" + name + descriptor, out -> {
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        }, 1);
+        return constant("M" + owner + "." + name + descriptor, out -> {
+            out.writeByte(10);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        }, 1);
+    }
+
+    private int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        return constant("D" + bits, out -> {
+            out.writeByte(6);
+            out.writeLong(bits);
+        }, 2);  // Константы double занимают две ячейки пула
+    }
+
+    private int constant(String key, PoolEntry entry, int size) {
+        Integer existing = poolIndex.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int index = poolCount;
+        try {
+            entry.write(poolOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        poolCount += size;
+        if (poolCount > 0xFFFF) {
+            throw new IllegalStateException("Выражение слишком велико для компиляции");
+        }
+        poolIndex.put(key, index);
+        return index;
+    }
+
+    /**
+     * Запись одной константы в пул констант.
+     */
+    private interface PoolEntry {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
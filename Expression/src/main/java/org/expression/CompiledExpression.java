@@ -0,0 +1,18 @@
+package org.expression;
+
+/**
+ * Интерфейс скомпилированного выражения.
+ * Значения переменных передаются массивом слотов, порядок которых задаётся при компиляции
+ * (см. {@link ExpressionCompiler}).
+ */
+public interface CompiledExpression {
+
+    /**
+     * Вычисляет значение выражения для переданных значений переменных.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    double eval(double[] slots);
+}
@@ -0,0 +1,139 @@
+package org.expression;
+
+import java.util.Map;
+
+/**
+ * Потокобезопасный вычислитель одного выражения, разделяемого между потоками.
+ *
+ * Выражение разбирается и привязывается к схеме переменных один раз; значения переменных передаются
+ * в каждый вызов ({@link #evaluate(Map)}, {@link #evaluate(double[])}) или хранятся в контексте потока
+ * ({@link #newContext()}). Сам вычислитель не имеет изменяемого состояния, поэтому один экземпляр
+ * (и одно дерево) обслуживает любое количество потоков без синхронизации, вместо отдельного дерева на поток.
+ *
+ * Контракт:
+ * <ul>
+ *     <li>вычислитель и дерево выражения неизменяемы и могут публиковаться через любое поле;</li>
+ *     <li>карта или массив значений, переданные в вызов, не должны изменяться другими потоками во время вызова;</li>
+ *     <li>{@link Context} принадлежит одному потоку и не синхронизирован.</li>
+ * </ul>
+ */
+public final class ConcurrentExpressionEvaluator {
+
+    private final BoundExpression expression;
+
+    /**
+     * Конструктор вычислителя. Схема переменных составляется из переменных выражения в порядке их появления.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     */
+    public ConcurrentExpressionEvaluator(ExpressionNode node) {
+        this(VariableSchema.from(node).bind(node));
+    }
+
+    /**
+     * Конструктор вычислителя уже привязанного выражения.
+     *
+     * @param expression Привязанное выражение.
+     */
+    public ConcurrentExpressionEvaluator(BoundExpression expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Получает привязанное выражение.
+     *
+     * @return Привязанное выражение.
+     */
+    public BoundExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Получает схему переменных выражения.
+     *
+     * @return Схема переменных.
+     */
+    public VariableSchema getSchema() {
+        return expression.getSchema();
+    }
+
+    /**
+     * Вычисляет выражение по карте переменных, переданной в вызов.
+     *
+     * @param variables Значения переменных.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double evaluate(Map<String, Double> variables) {
+        return expression.evaluate(variables);
+    }
+
+    /**
+     * Вычисляет выражение по значениям переменных в слотах схемы, переданным в вызов.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double evaluate(double[] slots) {
+        return expression.evaluate(slots);
+    }
+
+    /**
+     * Создаёт контекст для одного потока: изменяемый набор значений переменных, который переиспользуется
+     * между вычислениями без выделения памяти. Начальные значения всех переменных — ноль.
+     *
+     * @return Новый контекст.
+     */
+    public Context newContext() {
+        return new Context();
+    }
+
+    /**
+     * Значения переменных одного потока для вычисления общего выражения.
+     * Не является потокобезопасным: каждый поток создаёт свой контекст.
+     */
+    public final class Context {
+
+        private final double[] slots = new double[expression.getSchema().size()];
+
+        private Context() {
+        }
+
+        /**
+         * Устанавливает значение переменной.
+         *
+         * @param name Имя переменной.
+         * @param value Значение.
+         * @return Этот контекст.
+         * @throws RuntimeException Если переменная отсутствует в схеме.
+         */
+        public Context set(String name, double value) {
+            slots[expression.getSchema().slotOf(name)] = value;
+            return this;
+        }
+
+        /**
+         * Устанавливает значение переменной в слоте.
+         *
+         * @param slot Номер слота переменной в схеме.
+         * @param value Значение.
+         * @return Этот контекст.
+         */
+        public Context set(int slot, double value) {
+            slots[slot] = value;
+            return this;
+        }
+
+        /**
+         * Вычисляет выражение по текущим значениям контекста.
+         *
+         * @return Результат вычисления выражения.
+         * @throws ArithmeticException Если происходит деление на ноль.
+         */
+        public double evaluate() {
+            return expression.evaluate(slots);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.expression;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Потоковое вычисление выражения над файлом значений переменных в формате CSV.
+ * Первая строка файла — заголовок с именами переменных через запятую, каждая следующая строка — их значения.
+ *
+ * Файл читается буферизованно блоками по {@link #getChunkRows()} строк; блоки раскладываются по столбцам
+ * и вычисляются пакетно ({@link BatchEvaluator}) в пуле рабочих потоков, пока основной поток читает
+ * следующие блоки. Результаты записываются по одному на строку в исходном порядке строк.
+ * Строки, в которых происходит деление на ноль, получают значение {@code NaN} и учитываются в отчёте.
+ */
+public class CsvExpressionRunner {
+
+    /**
+     * Количество строк в блоке по умолчанию.
+     */
+    public static final int DEFAULT_CHUNK_ROWS = 8192;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ExpressionNode expression;
+    private final int threads;
+    private final int chunkRows;
+
+    /**
+     * Отчёт о выполнении.
+     *
+     * @param rows Количество обработанных строк.
+     * @param errors Количество строк, вычисление которых завершилось ошибкой.
+     * @param elapsedNanos Время выполнения в наносекундах.
+     */
+    public record Report(long rows, long errors, long elapsedNanos) {
+
+        /**
+         * Вычисляет пропускную способность.
+         *
+         * @return Количество строк в секунду.
+         */
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Строк: %d, ошибок: %d, время: %.3f с, скорость: %.0f строк/с",
+                    rows, errors, elapsedNanos / 1e9, rowsPerSecond());
+        }
+    }
+
+    /**
+     * Конструктор с количеством потоков по числу процессоров и размером блока по умолчанию.
+     *
+     * @param expression Корень абстрактного синтаксического дерева выражения.
+     */
+    public CsvExpressionRunner(ExpressionNode expression) {
+        this(expression, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Конструктор с заданным количеством рабочих потоков и размером блока.
+     *
+     * @param expression Корень абстрактного синтаксического дерева выражения.
+     * @param threads Количество рабочих потоков.
+     * @param chunkRows Количество строк в блоке.
+     * @throws IllegalArgumentException Если количество потоков или размер блока меньше 1.
+     */
+    public CsvExpressionRunner(ExpressionNode expression, int threads, int chunkRows) {
+        if (threads < 1 || chunkRows < 1) {
+            throw new IllegalArgumentException("Количество потоков и размер блока должны быть положительными");
+        }
+        this.expression = expression;
+        this.threads = threads;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Получает размер блока.
+     *
+     * @return Количество строк в блоке.
+     */
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Вычисляет выражение для всех строк файла и записывает результаты в файл.
+     *
+     * @param input Путь к входному файлу CSV.
+     * @param output Путь к файлу результатов.
+     * @return Отчёт о выполнении.
+     * @throws IOException Если происходит ошибка ввода-вывода.
+     */
+    public Report run(Path input, Path output) throws IOException {
+        try (Reader reader = openReader(input);
+             Writer writer = new BufferedWriter(
+                     new OutputStreamWriter(Files.newOutputStream(output), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return run(reader, writer);
+        }
+    }
+
+    /**
+     * Вычисляет выражение для всех строк входного потока и записывает результаты.
+     *
+     * @param input Входные данные CSV с заголовком.
+     * @param output Поток для результатов, по одному на строку.
+     * @return Отчёт о выполнении.
+     * @throws IOException Если происходит ошибка ввода-вывода.
+     * @throws RuntimeException Если заголовок отсутствует, переменная выражения не найдена в заголовке
+     * или строка данных имеет неверный формат.
+     */
+    public Report run(Reader input, Writer output) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input, BUFFER_SIZE);
+        String header = reader.readLine();
+        if (header == null) {
+            throw new RuntimeException("Отсутствует заголовок с именами переменных");
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : header.split(",")) {
+            names.add(name.trim());
+        }
+        BoundExpression bound = new VariableSchema(names).bind(expression);
+        ThreadLocal<BatchEvaluator> evaluators = ThreadLocal.withInitial(() -> new BatchEvaluator(bound));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        long rows = 0;
+        long errors = 0;
+        try {
+            int lineNumber = 1;
+            while (true) {
+                Chunk chunk = new Chunk(names.size(), chunkRows);
+                lineNumber = chunk.read(reader, lineNumber);
+                if (chunk.rows == 0) {
+                    break;
+                }
+                pending.add(executor.submit(() -> chunk.evaluate(bound, evaluators.get())));
+                // Не больше двух блоков на поток в работе, чтобы память не зависела от размера файла
+                if (pending.size() >= 2 * threads) {
+                    errors += write(pending.poll(), output);
+                }
+                rows += chunk.rows;
+            }
+            while (!pending.isEmpty()) {
+                errors += write(pending.poll(), output);
+            }
+            output.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Report(rows, errors, System.nanoTime() - start);
+    }
+
+    /**
+     * Открывает файл для чтения в UTF-8 с буфером {@link #BUFFER_SIZE}: {@link Files#newBufferedReader}
+     * создаёт буфер размера по умолчанию (8 КиБ), а {@link #run(Reader, Writer)} использует переданный
+     * {@link BufferedReader} как есть.
+     */
+    private static BufferedReader openReader(Path input) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(input), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    private static int write(Future<Chunk> future, Writer output) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Вычисление прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        for (int i = 0; i < chunk.rows; i++) {
+            output.write(Double.toString(chunk.results[i]));
+            output.write('\n');
+        }
+        return chunk.errors;
+    }
+
+    /**
+     * Точка входа: {@code CsvExpressionRunner <выражение> <входной.csv> [<результаты>] [<потоки>]}.
+     * Без файла результатов значения выводятся на стандартный вывод; отчёт выводится в поток ошибок.
+     *
+     * @param args Аргументы командной строки.
+     * @throws IOException Если происходит ошибка ввода-вывода.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Использование: CsvExpressionRunner <выражение> <входной.csv> [<результаты>] [<потоки>]");
+            return;
+        }
+        ExpressionNode ast = new ExpressionParser(args[0]).parse();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        CsvExpressionRunner runner = new CsvExpressionRunner(ast, threads, DEFAULT_CHUNK_ROWS);
+
+        Report report;
+        if (args.length > 2) {
+            report = runner.run(Path.of(args[1]), Path.of(args[2]));
+        } else {
+            try (Reader reader = openReader(Path.of(args[1]))) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                report = runner.run(reader, writer);
+            }
+        }
+        System.err.println(report);
+    }
+
+    /**
+     * Блок строк, разложенный по столбцам, и результаты его вычисления.
+     */
+    private static final class Chunk {
+        private final double[][] columns;
+        private final double[] results;
+        private int rows;
+        private int errors;
+
+        Chunk(int variables, int capacity) {
+            this.columns = new double[variables][capacity];
+            this.results = new double[capacity];
+        }
+
+        /**
+         * Читает строки до заполнения блока или конца данных; пустые строки пропускаются.
+         *
+         * @return Номер последней прочитанной строки файла.
+         */
+        int read(BufferedReader reader, int lineNumber) throws IOException {
+            String line;
+            while (rows < results.length && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int from = 0;
+                for (int column = 0; column < columns.length; column++) {
+                    int to = line.indexOf(',', from);
+                    if (to < 0) {
+                        to = line.length();
+                    }
+                    if (from > line.length() || (column == columns.length - 1) != (to == line.length())) {
+                        throw new RuntimeException("Ожидалось значений: " + columns.length + " (строка " + lineNumber + ")");
+                    }
+                    try {
+                        columns[column][rows] = Double.parseDouble(line.substring(from, to).trim());
+                    } catch (NumberFormatException e) {
+                        throw new RuntimeException("Неверное число: " + line.substring(from, to).trim()
+                                + " (строка " + lineNumber + ")");
+                    }
+                    from = to + 1;
+                }
+                rows++;
+            }
+            return lineNumber;
+        }
+
+        Chunk evaluate(BoundExpression bound, BatchEvaluator evaluator) {
+            try {
+                evaluator.evaluate(columns, results, rows);
+            } catch (ArithmeticException e) {
+                // В блоке есть деление на ноль: вычисляем построчно, чтобы найти строки с ошибкой
+                double[] slots = new double[columns.length];
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < columns.length; column++) {
+                        slots[column] = columns[column][row];
+                    }
+                    try {
+                        results[row] = bound.evaluate(slots);
+                    } catch (ArithmeticException rowError) {
+                        results[row] = Double.NaN;
+                        errors++;
+                    }
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Профилировщик вычислений для {@link ExpressionEvaluator#setProfiler(EvaluationProfiler)}.
+ *
+ * Собирает:
+ * <ul>
+ *     <li>для каждого узла — количество вычислений и суммарное время вычисления его поддерева в наносекундах,
+ *     что позволяет найти поддерево, ответственное за медленное вычисление;</li>
+ *     <li>количество вычислений, их частоту и гистограмму длительностей с корзинами по степеням двойки;</li>
+ *     <li>количество ошибок: неопределённых переменных и делений на ноль.</li>
+ * </ul>
+ *
+ * Счётчики — {@link LongAdder}, поэтому один профилировщик можно разделять между потоками без блокировок.
+ * Узлы различаются по ссылке: одинаковые поддеревья в разных местах дерева учитываются отдельно.
+ */
+public class EvaluationProfiler {
+
+    /**
+     * Количество корзин гистограммы: корзина {@code i} считает вычисления длительностью
+     * от {@code 2^(i-1)} до {@code 2^i - 1} наносекунд, корзина 0 — вычисления короче наносекунды.
+     */
+    public static final int HISTOGRAM_BUCKETS = 64;
+
+    /**
+     * Счётчики одного узла выражения.
+     */
+    public static final class NodeStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        /**
+         * Получает количество вычислений узла.
+         *
+         * @return Количество вычислений.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Получает суммарное время вычисления поддерева узла, включая время его операндов.
+         *
+         * @return Время в наносекундах.
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+    }
+
+    private final Map<ExpressionNode, NodeStats> nodes = new ConcurrentHashMap<>();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder undefinedVariables = new LongAdder();
+    private final LongAdder divisionsByZero = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Конструктор пустого профилировщика.
+     */
+    public EvaluationProfiler() {
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Вычисляет выражение, обходя дерево и замеряя каждый узел.
+     * Семантика совпадает с {@link ExpressionNode#evaluate(Map)}.
+     *
+     * @param node Корень выражения.
+     * @param variables Значения переменных.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     * @throws RuntimeException Если переменная не определена.
+     */
+    double evaluate(ExpressionNode node, Map<String, Double> variables) {
+        long start = System.nanoTime();
+        try {
+            return walk(node, variables);
+        } catch (ArithmeticException e) {
+            divisionsByZero.increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            evaluations.increment();
+            histogram[Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(elapsed, 0)))]
+                    .increment();
+        }
+    }
+
+    private double walk(ExpressionNode node, Map<String, Double> variables) {
+        long start = System.nanoTime();
+        double value;
+        if (node instanceof OperationNode operation) {
+            double left = walk(operation.getLeft(), variables);
+            double right = walk(operation.getRight(), variables);
+            value = operation.getOperation().apply(left, right);
+        } else if (node instanceof FunctionNode function) {
+            // Отсутствующие аргументы функции заменяются первым
+            int arity = function.getFunction().getArity();
+            double a = walk(function.getArgument(0), variables);
+            double b = arity > 1 ? walk(function.getArgument(1), variables) : a;
+            double c = arity > 2 ? walk(function.getArgument(2), variables) : a;
+            value = function.getFunction().apply(a, b, c);
+        } else if (node instanceof VariableNode variable) {
+            Double variableValue = variables.get(variable.getName());
+            if (variableValue == null) {
+                undefinedVariables.increment();
+                throw new RuntimeException("Переменная не определена: " + variable.getName());
+            }
+            value = variableValue;
+        } else {
+            value = node.evaluate(variables);
+        }
+        NodeStats stats = nodes.computeIfAbsent(node, key -> new NodeStats());
+        stats.count.increment();
+        stats.nanos.add(System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * Получает счётчики узла.
+     *
+     * @param node Узел выражения.
+     * @return Счётчики узла или {@code null}, если узел не вычислялся.
+     */
+    public NodeStats getStats(ExpressionNode node) {
+        return nodes.get(node);
+    }
+
+    /**
+     * Получает счётчики всех вычислявшихся узлов.
+     *
+     * @return Неизменяемое представление карты узлов и их счётчиков.
+     */
+    public Map<ExpressionNode, NodeStats> getNodeStats() {
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    /**
+     * Получает количество вычислений выражений, включая завершившиеся ошибкой.
+     *
+     * @return Количество вычислений.
+     */
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Получает количество вычислений в секунду с момента создания или последнего сброса.
+     *
+     * @return Частота вычислений.
+     */
+    public double getEvaluationRate() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed > 0 ? evaluations.sum() * 1e9 / elapsed : 0;
+    }
+
+    /**
+     * Получает количество ошибок из-за неопределённых переменных.
+     *
+     * @return Количество ошибок.
+     */
+    public long getUndefinedVariableCount() {
+        return undefinedVariables.sum();
+    }
+
+    /**
+     * Получает количество ошибок деления на ноль.
+     *
+     * @return Количество ошибок.
+     */
+    public long getDivisionByZeroCount() {
+        return divisionsByZero.sum();
+    }
+
+    /**
+     * Получает гистограмму длительностей вычислений.
+     *
+     * @return Массив из {@link #HISTOGRAM_BUCKETS} счётчиков; корзина {@code i} — длительности
+     * от {@code 2^(i-1)} до {@code 2^i - 1} наносекунд.
+     */
+    public long[] getLatencyHistogram() {
+        long[] result = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = histogram[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * Сбрасывает все счётчики и начинает отсчёт частоты вычислений заново.
+     * Вычисления, идущие одновременно со сбросом, могут быть учтены частично.
+     */
+    public void reset() {
+        nodes.clear();
+        evaluations.reset();
+        undefinedVariables.reset();
+        divisionsByZero.reset();
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Формирует текстовый отчёт: общие счётчики, непустые корзины гистограммы и самые долгие узлы.
+     *
+     * @return Отчёт.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Вычислений: %d (%.1f в секунду), неопределённых переменных: %d, делений на ноль: %d%n",
+                getEvaluationCount(), getEvaluationRate(), getUndefinedVariableCount(), getDivisionByZeroCount()));
+        report.append("Длительность вычислений:").append(System.lineSeparator());
+        long[] buckets = getLatencyHistogram();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                report.append(String.format("  < %d нс: %d%n", 1L << Math.min(i, 62), buckets[i]));
+            }
+        }
+        List<Map.Entry<ExpressionNode, NodeStats>> entries = new ArrayList<>(nodes.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().getNanos(), a.getValue().getNanos()));
+        report.append("Самые долгие узлы:").append(System.lineSeparator());
+        for (Map.Entry<ExpressionNode, NodeStats> entry : entries.subList(0, Math.min(10, entries.size()))) {
+            report.append(String.format("  %s: вычислений %d, %d нс%n", describe(entry.getKey()),
+                    entry.getValue().getCount(), entry.getValue().getNanos()));
+        }
+        return report.toString();
+    }
+
+    private static String describe(ExpressionNode node) {
+        if (node instanceof OperationNode operation) {
+            return operation.getOperation().name();
+        } else if (node instanceof FunctionNode function) {
+            return function.getFunction().getName();
+        } else if (node instanceof VariableNode variable) {
+            return variable.getName();
+        } else if (node instanceof NumberNode number) {
+            return String.valueOf(number.getValue());
+        }
+        return node.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,163 @@
+package org.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Потокобезопасный кэш разобранных выражений с ограниченным размером и вытеснением давно не использованных (LRU).
+ * Ключ кэша — исходный текст выражения без незначащих пробельных символов, поэтому {@code "x + y"} и {@code "x+y"}
+ * разделяют одну запись. Разбор выполняется вне блокировки, так что медленный разбор одного выражения
+ * не задерживает обращения к другим.
+ *
+ * Возвращаемые деревья общие для всех потоков и не должны изменяться вызывающим кодом.
+ */
+public class ExpressionCache {
+
+    private final int maximumSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, BoundExpression> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Конструктор кэша с заданным максимальным количеством записей.
+     *
+     * @param maximumSize Максимальное количество выражений в кэше.
+     * @throws IllegalArgumentException Если размер не положителен.
+     */
+    public ExpressionCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BoundExpression> eldest) {
+                if (size() > ExpressionCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Возвращает разобранное выражение, разбирая его при первом обращении.
+     *
+     * @param expression Исходная строка с математическим выражением.
+     * @return Корень абстрактного синтаксического дерева выражения.
+     */
+    public ExpressionNode get(String expression) {
+        return getBound(expression).getRoot();
+    }
+
+    /**
+     * Возвращает выражение, привязанное к схеме из его переменных в порядке первого появления
+     * (см. {@link VariableSchema#from(ExpressionNode)}). Скомпилированная форма, полученная через
+     * {@link BoundExpression#compile()}, создаётся один раз и хранится вместе с записью кэша.
+     *
+     * @param expression Исходная строка с математическим выражением.
+     * @return Привязанное выражение.
+     */
+    public BoundExpression getBound(String expression) {
+        String key = normalize(expression);
+        lock.lock();
+        try {
+            BoundExpression cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        ExpressionNode node = new ExpressionParser(key).parse();
+        BoundExpression parsed = VariableSchema.from(node).bind(node);
+
+        lock.lock();
+        try {
+            // Другой поток мог успеть разобрать то же выражение — оставляем одну запись
+            BoundExpression existing = entries.putIfAbsent(key, parsed);
+            return existing != null ? existing : parsed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Получает количество выражений в кэше.
+     *
+     * @return Текущее количество записей.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Получает количество обращений, обслуженных из кэша.
+     *
+     * @return Количество попаданий.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Получает количество обращений, потребовавших разбора выражения.
+     *
+     * @return Количество промахов.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Получает количество записей, вытесненных из-за ограничения размера.
+     *
+     * @return Количество вытеснений.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Удаляет из текста выражения незначащие пробельные символы. Пробел между двумя символами чисел
+     * или имён сохраняется (в одном экземпляре), так как разделяет лексемы.
+     *
+     * @param expression Исходная строка с выражением.
+     * @return Нормализованная строка, используемая как ключ кэша.
+     */
+    static String normalize(String expression) {
+        StringBuilder normalized = new StringBuilder(expression.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < expression.length(); i++) {
+            char current = expression.charAt(i);
+            if (Character.isWhitespace(current)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace && isWordChar(normalized.charAt(normalized.length() - 1)) && isWordChar(current)) {
+                normalized.append(' ');
+            }
+            pendingSpace = false;
+            normalized.append(current);
+        }
+        return normalized.length() == expression.length() ? expression : normalized.toString();
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '.';
+    }
+}
@@ -0,0 +1,233 @@
+package org.expression;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Класс, компилирующий абстрактное синтаксическое дерево (AST) выражения в байт-код JVM.
+ * Для каждого выражения генерируется скрытый класс ({@link MethodHandles.Lookup#defineHiddenClass}),
+ * реализующий {@link CompiledExpression}, поэтому JIT-компилятор видит линейную арифметику
+ * вместо рекурсивного обхода дерева.
+ *
+ * Если сгенерировать класс невозможно (выражение превышает ограничения JVM, генерация отключена
+ * системным свойством {@code expression.compile=false} или определение класса завершилось ошибкой),
+ * возвращается интерпретатор, дающий те же результаты.
+ */
+public class ExpressionCompiler {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("expression.compile", "true"));
+    private static final String CLASS_NAME = "org/expression/CompiledExpression$Generated";
+    private static final String INTERFACE_NAME = "org/expression/CompiledExpression";
+    private static final String OPERATION_NODE = "org/expression/OperationNode";
+    private static final String MATH = "java/lang/Math";
+
+    private final VariableSchema schema;
+
+    /**
+     * Конструктор компилятора для заданной схемы переменных.
+     *
+     * @param schema Схема переменных, задающая номера слотов.
+     */
+    public ExpressionCompiler(VariableSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Конструктор компилятора для заданного порядка переменных.
+     *
+     * @param variables Имена переменных; позиция имени в списке — номер его слота.
+     */
+    public ExpressionCompiler(List<String> variables) {
+        this(new VariableSchema(variables));
+    }
+
+    /**
+     * Компилирует выражение в скрытый класс, а при невозможности — возвращает интерпретатор.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @return Скомпилированное выражение.
+     * @throws RuntimeException Если в выражении встречается переменная, для которой нет слота.
+     */
+    public CompiledExpression compile(ExpressionNode node) {
+        if (!ENABLED) {
+            return interpret(node);
+        }
+        byte[] classFile;
+        try {
+            BytecodeWriter writer = new BytecodeWriter();
+            emit(writer, node);
+            classFile = writer.toClassFile(CLASS_NAME, INTERFACE_NAME, "eval", "([D)D");
+        } catch (IllegalStateException e) {
+            return interpret(node);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            return (CompiledExpression) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            return interpret(node);
+        }
+    }
+
+    /**
+     * Возвращает интерпретируемое представление выражения, работающее с тем же массивом слотов,
+     * что и скомпилированное.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @return Интерпретируемое выражение.
+     * @throws RuntimeException Если в выражении встречается переменная, для которой нет слота.
+     */
+    public CompiledExpression interpret(ExpressionNode node) {
+        return new Interpreted(schema.bind(node));
+    }
+
+    /**
+     * Проверяет, получено ли выражение генерацией байт-кода, а не интерпретатором.
+     *
+     * @param expression Скомпилированное выражение.
+     * @return {@code true}, если выражение реализовано скрытым классом.
+     */
+    public static boolean isGenerated(CompiledExpression expression) {
+        Class<?> type = expression.getClass();
+        return type.isHidden() && type.getName().startsWith(CLASS_NAME.replace('/', '.'));
+    }
+
+    /**
+     * Записывает инструкции вычисления узла: операнды кладутся на стек, затем выполняется операция.
+     * Дерево обходится без рекурсии, поэтому глубина выражения ограничена только размером метода.
+     */
+    private void emit(BytecodeWriter writer, ExpressionNode node) {
+        // Обход в обратном порядке: узел посещается дважды — до и после своих операндов
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Object item = stack.pop();
+            if (item instanceof OperationNode.Operation operation) {
+                emitOperation(writer, operation);
+            } else if (item instanceof Integer exponent) {
+                emitPower(writer, exponent);
+            } else if (item instanceof FunctionNode.Function function) {
+                if (function == FunctionNode.Function.NEGATE) {
+                    writer.operation(BytecodeWriter.DNEG, 1);
+                } else {
+                    // Имена функций совпадают с методами Math, которые JIT заменяет машинными инструкциями
+                    writer.invokeStatic(MATH, function.getName(), function.getArity());
+                }
+            } else if (item instanceof NumberNode number) {
+                writer.pushConstant(number.getValue());
+            } else if (item instanceof VariableNode variable) {
+                writer.pushSlot(schema.slotOf(variable.getName()));
+            } else if (item instanceof OperationNode operation) {
+                int exponent = operation.getOperation() == OperationNode.Operation.POWER
+                        ? integerExponent(operation.getRight()) : 0;
+                if (exponent != 0) {
+                    // Постоянный показатель не кладётся на стек, а разворачивается в умножения
+                    stack.push(exponent);
+                } else {
+                    stack.push(operation.getOperation());
+                    stack.push(operation.getRight());
+                }
+                stack.push(operation.getLeft());
+            } else if (item instanceof FunctionNode function) {
+                stack.push(function.getFunction());
+                for (int i = function.getFunction().getArity() - 1; i >= 0; i--) {
+                    stack.push(function.getArgument(i));
+                }
+            } else {
+                throw new RuntimeException("Неизвестный тип узла: " + item.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Записывает операцию над двумя операндами, лежащими на стеке.
+     */
+    private static void emitOperation(BytecodeWriter writer, OperationNode.Operation operation) {
+        switch (operation) {
+            case ADD:
+                writer.operation(BytecodeWriter.DADD, 2);
+                break;
+            case SUBTRACT:
+                writer.operation(BytecodeWriter.DSUB, 2);
+                break;
+            case MULTIPLY:
+                writer.operation(BytecodeWriter.DMUL, 2);
+                break;
+            case DIVIDE:
+                // Проверка делителя на ноль остаётся в OperationNode.divide, JIT встраивает вызов
+                writer.invokeStatic(OPERATION_NODE, "divide", 2);
+                break;
+            case POWER:
+                writer.invokeStatic(OPERATION_NODE, "power", 2);
+                break;
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+    }
+
+    /**
+     * Записывает возведение в постоянную целую степень основания, лежащего на стеке. Показатель
+     * от 1 до {@link OperationNode#MAX_SQUARING_EXPONENT} по модулю разворачивается в цепочку умножений
+     * возведением в квадрат в том же порядке, что и в {@link OperationNode#power}, поэтому результат совпадает
+     * с интерпретатором до бита.
+     */
+    private static void emitPower(BytecodeWriter writer, int n) {
+        // Квадраты основания хранятся во вспомогательной переменной, произведение — на стеке
+        writer.storeTemporary();
+        if (n < 0) {
+            writer.pushConstant(1);
+        }
+        boolean first = true;
+        for (int k = Math.abs(n); k != 0; k >>>= 1) {
+            if ((k & 1) != 0) {
+                writer.loadTemporary();
+                if (!first) {
+                    writer.operation(BytecodeWriter.DMUL, 2);
+                }
+                first = false;
+            }
+            if (k > 1) {
+                writer.loadTemporary();
+                writer.loadTemporary();
+                writer.operation(BytecodeWriter.DMUL, 2);
+                writer.storeTemporary();
+            }
+        }
+        if (n < 0) {
+            writer.operation(BytecodeWriter.DDIV, 2);
+        }
+    }
+
+    /**
+     * Получает постоянный целый показатель степени, разворачиваемый в умножения.
+     *
+     * @return Показатель или {@code 0}, если показатель не константа, не целый или слишком велик по модулю.
+     */
+    private static int integerExponent(ExpressionNode exponent) {
+        if (!(exponent instanceof NumberNode number)) {
+            return 0;
+        }
+        double value = number.getValue();
+        int n = (int) value;
+        return n == value && Math.abs(n) <= OperationNode.MAX_SQUARING_EXPONENT ? n : 0;
+    }
+
+    /**
+     * Интерпретатор, используемый, когда генерация байт-кода невозможна.
+     */
+    private static final class Interpreted implements CompiledExpression {
+        private final BoundExpression bound;
+
+        private Interpreted(BoundExpression bound) {
+            this.bound = bound;
+        }
+
+        @Override
+        public double eval(double[] slots) {
+            return bound.evaluate(slots);
+        }
+    }
+}
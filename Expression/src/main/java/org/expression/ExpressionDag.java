@@ -0,0 +1,297 @@
+package org.expression;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Выражение в виде ориентированного ациклического графа (DAG) с устранением общих подвыражений.
+ * Структурно одинаковые поддеревья объединяются {@link ExpressionInterner}, после чего граф раскладывается
+ * в массив инструкций в топологическом порядке. При вычислении каждый общий узел вычисляется один раз,
+ * а его значение используется всеми родителями.
+ *
+ * Экземпляр неизменяем и может использоваться из нескольких потоков.
+ */
+public class ExpressionDag {
+
+    private static final int CONSTANT = 0;
+    private static final int VARIABLE = 1;
+    private static final int OPERATION = 2;
+    private static final int FUNCTION = 3;
+
+    private final VariableSchema schema;
+    private final ExpressionNode[] roots;      // Корни графа
+    private final int[] rootIndexes;           // Номера инструкций, вычисляющих корни
+    private final long treeNodes;              // Количество узлов в исходных деревьях
+
+    private final int[] kinds;                 // Вид инструкции: константа, переменная, операция или функция
+    private final OperationNode.Operation[] operations;
+    private final FunctionNode.Function[] functions;
+    private final int[] lefts;                 // Номер инструкции левого операнда (первого аргумента) или слот переменной
+    private final int[] rights;                // Номер инструкции правого операнда (второго аргумента)
+    private final int[] thirds;                // Номер инструкции третьего аргумента
+    private final double[] constants;          // Значения констант
+
+    /**
+     * Конструктор графа для выражения, привязанного к схеме переменных.
+     *
+     * @param expression Привязанное выражение.
+     */
+    public ExpressionDag(BoundExpression expression) {
+        this(expression.getSchema(), List.of(expression.getRoot()), new ExpressionInterner());
+    }
+
+    /**
+     * Конструктор графа для нескольких выражений с общими подвыражениями.
+     * Используется {@link ExpressionProgram}.
+     *
+     * @param schema Схема переменных, к которой привязаны все выражения.
+     * @param expressions Корни привязанных деревьев выражений.
+     * @param interner Интернер, объединяющий одинаковые поддеревья.
+     */
+    ExpressionDag(VariableSchema schema, List<ExpressionNode> expressions, ExpressionInterner interner) {
+        this.schema = schema;
+        this.roots = new ExpressionNode[expressions.size()];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = interner.intern(expressions.get(i));
+        }
+        this.treeNodes = interner.getNodesSeen();
+
+        Map<ExpressionNode, Integer> indexes = new IdentityHashMap<>();
+        List<ExpressionNode> order = new ArrayList<>();
+        for (ExpressionNode root : roots) {
+            linearize(root, indexes, order);
+        }
+
+        int size = order.size();
+        this.kinds = new int[size];
+        this.operations = new OperationNode.Operation[size];
+        this.functions = new FunctionNode.Function[size];
+        this.lefts = new int[size];
+        this.rights = new int[size];
+        this.thirds = new int[size];
+        this.constants = new double[size];
+        for (int i = 0; i < size; i++) {
+            ExpressionNode node = order.get(i);
+            if (node instanceof NumberNode number) {
+                kinds[i] = CONSTANT;
+                constants[i] = number.getValue();
+            } else if (node instanceof VariableNode variable) {
+                if (variable.getSlot() < 0) {
+                    throw new IllegalStateException("Переменная не привязана к слоту: " + variable.getName());
+                }
+                kinds[i] = VARIABLE;
+                lefts[i] = variable.getSlot();
+            } else if (node instanceof OperationNode operation) {
+                kinds[i] = OPERATION;
+                operations[i] = operation.getOperation();
+                lefts[i] = indexes.get(operation.getLeft());
+                rights[i] = indexes.get(operation.getRight());
+            } else {
+                // Отсутствующие аргументы ссылаются на первый
+                FunctionNode function = (FunctionNode) node;
+                int arity = function.getFunction().getArity();
+                kinds[i] = FUNCTION;
+                functions[i] = function.getFunction();
+                lefts[i] = indexes.get(function.getArgument(0));
+                rights[i] = arity > 1 ? indexes.get(function.getArgument(1)) : lefts[i];
+                thirds[i] = arity > 2 ? indexes.get(function.getArgument(2)) : lefts[i];
+            }
+        }
+        this.rootIndexes = new int[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            rootIndexes[i] = indexes.get(roots[i]);
+        }
+    }
+
+    /**
+     * Получает корень графа: дерево выражения, в котором одинаковые поддеревья представлены одним узлом.
+     *
+     * @return Корень графа.
+     */
+    public ExpressionNode getRoot() {
+        return roots[0];
+    }
+
+    /**
+     * Получает схему переменных графа.
+     *
+     * @return Схема переменных.
+     */
+    public VariableSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Получает количество узлов в исходных деревьях.
+     *
+     * @return Количество узлов до устранения общих подвыражений.
+     */
+    public long getTreeNodeCount() {
+        return treeNodes;
+    }
+
+    /**
+     * Получает количество уникальных узлов графа — столько значений вычисляется за одно вычисление.
+     *
+     * @return Количество узлов после устранения общих подвыражений.
+     */
+    public int getUniqueNodeCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Получает коэффициент дедупликации — во сколько раз граф меньше исходных деревьев.
+     *
+     * @return Отношение количества узлов деревьев к количеству узлов графа (не меньше 1).
+     */
+    public double getDedupRatio() {
+        return (double) treeNodes / kinds.length;
+    }
+
+    /**
+     * Вычисляет значение выражения по значениям переменных в слотах схемы.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double evaluate(double[] slots) {
+        double[] values = new double[kinds.length];
+        compute(slots, values);
+        return values[rootIndexes[0]];
+    }
+
+    /**
+     * Вычисляет значение выражения по карте переменных.
+     *
+     * @param variables Карта переменных и их значений.
+     * @return Результат вычисления выражения.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double evaluate(Map<String, Double> variables) {
+        return evaluate(schema.toSlots(variables));
+    }
+
+    /**
+     * Вычисляет значения всех узлов графа.
+     *
+     * @param slots Значения переменных по слотам схемы.
+     * @param values Массив для значений узлов длиной не меньше {@link #getUniqueNodeCount()}.
+     */
+    void compute(double[] slots, double[] values) {
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case CONSTANT:
+                    values[i] = constants[i];
+                    break;
+                case VARIABLE:
+                    values[i] = slots[lefts[i]];
+                    break;
+                case OPERATION:
+                    values[i] = operations[i].apply(values[lefts[i]], values[rights[i]]);
+                    break;
+                default:
+                    values[i] = functions[i].apply(values[lefts[i]], values[rights[i]], values[thirds[i]]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет значения всех узлов графа, не прерываясь на делении на ноль. Узел, вычисление которого
+     * завершилось {@link ArithmeticException}, и все зависящие от него узлы получают значение NaN
+     * и отмечаются в массиве ошибок; узлы, не зависящие от них, вычисляются как обычно.
+     *
+     * @param slots Значения переменных по слотам схемы.
+     * @param values Массив для значений узлов длиной не меньше {@link #getUniqueNodeCount()}.
+     * @param failed Массив признаков ошибки узлов той же длины; заполняется полностью.
+     */
+    void computeIsolated(double[] slots, double[] values, boolean[] failed) {
+        for (int i = 0; i < kinds.length; i++) {
+            failed[i] = false;
+            switch (kinds[i]) {
+                case CONSTANT:
+                    values[i] = constants[i];
+                    break;
+                case VARIABLE:
+                    values[i] = slots[lefts[i]];
+                    break;
+                default:
+                    // Отсутствующие аргументы функции ссылаются на первый
+                    if (failed[lefts[i]] || failed[rights[i]] || kinds[i] == FUNCTION && failed[thirds[i]]) {
+                        failed[i] = true;
+                        values[i] = Double.NaN;
+                        break;
+                    }
+                    try {
+                        values[i] = kinds[i] == OPERATION
+                                ? operations[i].apply(values[lefts[i]], values[rights[i]])
+                                : functions[i].apply(values[lefts[i]], values[rights[i]], values[thirds[i]]);
+                    } catch (ArithmeticException e) {
+                        failed[i] = true;
+                        values[i] = Double.NaN;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Получает номер инструкции, вычисляющей корень с заданным номером.
+     *
+     * @param root Номер корня.
+     * @return Номер инструкции.
+     */
+    int rootIndex(int root) {
+        return rootIndexes[root];
+    }
+
+    /**
+     * Раскладывает граф в обратном польском порядке без рекурсии; каждый узел получает номер один раз.
+     */
+    static void linearize(ExpressionNode root, Map<ExpressionNode, Integer> indexes, List<ExpressionNode> order) {
+        Deque<ExpressionNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            ExpressionNode node = stack.peek();
+            if (indexes.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            // Операнды кладутся в обратном порядке, чтобы левый был вычислен раньше, как при обходе дерева
+            List<ExpressionNode> operands = operands(node);
+            boolean ready = true;
+            for (int i = operands.size() - 1; i >= 0; i--) {
+                if (!indexes.containsKey(operands.get(i))) {
+                    stack.push(operands.get(i));
+                    ready = false;
+                }
+            }
+            if (!ready) {
+                continue;
+            }
+            stack.pop();
+            indexes.put(node, order.size());
+            order.add(node);
+        }
+    }
+
+    /**
+     * Получает непосредственные операнды узла: операнды операции или аргументы функции.
+     *
+     * @param node Узел выражения.
+     * @return Операнды в порядке вычисления; для чисел и переменных — пустой список.
+     */
+    static List<ExpressionNode> operands(ExpressionNode node) {
+        if (node instanceof OperationNode operation) {
+            return List.of(operation.getLeft(), operation.getRight());
+        } else if (node instanceof FunctionNode function) {
+            return function.getArguments();
+        }
+        return List.of();
+    }
+}
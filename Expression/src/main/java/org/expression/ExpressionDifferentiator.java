@@ -0,0 +1,203 @@
+package org.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Символьное дифференцирование: строит дерево частной производной выражения по переменной.
+ *
+ * Производная строится по обычным правилам (суммы, произведения, частного, степени и цепному правилу
+ * для функций). Производная поддерева, не зависящего от переменной, тождественно равна нулю и в результат
+ * не попадает: слагаемые вида {@code 0 * u} не создаются, поэтому деления внутри таких поддеревьев
+ * не порождают ошибок деления на ноль в производной. Затем результат упрощается {@link ExpressionOptimizer}.
+ *
+ * Производные функций:
+ * <ul>
+ *     <li>{@code sqrt(u)' = u' / (2 * sqrt(u))}, {@code exp(u)' = exp(u) * u'}, {@code log(u)' = u' / u};</li>
+ *     <li>{@code abs(u)' = u' * sign(u)};</li>
+ *     <li>{@code min(a, b)' = a' * (1 - s) / 2 + b' * (1 + s) / 2} и {@code max(a, b)' = a' * (1 + s) / 2 + b' * (1 - s) / 2},
+ *     где {@code s = sign(a - b)} — знак разности;</li>
+ *     <li>{@code (u / v)' = (u' - (u / v) * v') / v} — без {@code v ^ 2}, который теряет порядок при малых {@code v};</li>
+ *     <li>{@code (u ^ v)' = v * u ^ (v - 1) * u' + u ^ v * log(u) * v'}.</li>
+ * </ul>
+ * Знак {@code sign(u)} строится из имеющихся функций как {@code min(max(u * 2^537 * 2^537, -1), 1)}:
+ * умножения на степени двойки точны, а любое ненулевое число по модулю становится не меньше единицы,
+ * поэтому результат совпадает с {@link Math#signum}, включая {@code -0} и {@code NaN}.
+ * В изломах модуля, минимума и максимума производная равна субградиенту, выбранному по {@code sign(0) = 0}:
+ * {@code abs'(0) = 0}, а при равных аргументах минимума и максимума — среднее производных аргументов.
+ * Тот же субградиент вычисляет {@link GradientEvaluator}. В точках, где производная корня или логарифма
+ * не определена, вычисление производной выбрасывает {@link ArithmeticException} деления на ноль.
+ *
+ * Исходное дерево не изменяется; поддеревья исходного дерева используются в производной повторно.
+ * Экземпляр не хранит состояния и может использоваться из нескольких потоков.
+ */
+public class ExpressionDifferentiator {
+
+    private static final NumberNode ONE = new NumberNode(1);
+    private static final NumberNode TWO = new NumberNode(2);
+    private static final NumberNode MINUS_ONE = new NumberNode(-1);
+    private static final NumberNode SIGN_SCALE = new NumberNode(0x1p537);  // Квадрат делает |u| >= 1 при u != 0
+
+    /**
+     * Строит упрощённое дерево частной производной выражения.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @param variable Имя переменной, по которой берётся производная.
+     * @return Корень дерева производной; если выражение не зависит от переменной — число 0.
+     */
+    public ExpressionNode derivative(ExpressionNode node, String variable) {
+        ExpressionNode result = differentiate(node, variable);
+        return result == null ? new NumberNode(0) : new ExpressionOptimizer().optimize(result);
+    }
+
+    /**
+     * Строит деревья частных производных по всем переменным выражения.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @return Карта имён переменных (в порядке первого появления) и деревьев производных.
+     */
+    public Map<String, ExpressionNode> gradient(ExpressionNode node) {
+        Map<String, ExpressionNode> result = new LinkedHashMap<>();
+        for (String variable : VariableSchema.from(node).getNames()) {
+            result.put(variable, derivative(node, variable));
+        }
+        return result;
+    }
+
+    /**
+     * Дифференцирует узел; {@code null} означает тождественный ноль.
+     */
+    private ExpressionNode differentiate(ExpressionNode node, String variable) {
+        if (node instanceof VariableNode current) {
+            return current.getName().equals(variable) ? new NumberNode(1) : null;
+        } else if (node instanceof OperationNode operation) {
+            return differentiateOperation(operation, variable);
+        } else if (node instanceof FunctionNode function) {
+            return differentiateFunction(function, variable);
+        } else if (node instanceof NumberNode) {
+            return null;
+        }
+        throw new RuntimeException("Неизвестный тип узла: " + node.getClass().getName());
+    }
+
+    private ExpressionNode differentiateOperation(OperationNode operation, String variable) {
+        ExpressionNode u = operation.getLeft();
+        ExpressionNode v = operation.getRight();
+        ExpressionNode du = differentiate(u, variable);
+        ExpressionNode dv = differentiate(v, variable);
+        if (du == null && dv == null) {
+            return null;
+        }
+        switch (operation.getOperation()) {
+            case ADD:
+                return add(du, dv);
+            case SUBTRACT:
+                return subtract(du, dv);
+            case MULTIPLY:
+                return add(multiply(du, v), multiply(u, dv));
+            case DIVIDE:
+                // (u' - (u / v) * v') / v
+                return divide(subtract(du, multiply(operation, dv)), v);
+            case POWER:
+                // Первое слагаемое не требует логарифма, поэтому степени с постоянным показателем
+                // дифференцируются и при отрицательном основании
+                ExpressionNode exponent = v instanceof NumberNode number
+                        ? new NumberNode(number.getValue() - 1)
+                        : operation(OperationNode.Operation.SUBTRACT, v, new NumberNode(1));
+                return add(multiply(multiply(v, power(u, exponent)), du),
+                        multiply(multiply(operation, function(FunctionNode.Function.LOG, u)), dv));
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+    }
+
+    private ExpressionNode differentiateFunction(FunctionNode function, String variable) {
+        ExpressionNode a = function.getArgument(0);
+        ExpressionNode da = differentiate(a, variable);
+        switch (function.getFunction()) {
+            case NEGATE:
+                return negate(da);
+            case SQRT:
+                return divide(da, multiply(TWO, function));
+            case EXP:
+                return multiply(function, da);
+            case LOG:
+                return divide(da, a);
+            case ABS:
+                return multiply(da, sign(a));
+            case MIN:
+            case MAX: {
+                ExpressionNode b = function.getArgument(1);
+                ExpressionNode db = differentiate(b, variable);
+                if (da == null && db == null) {
+                    return null;
+                }
+                // Веса аргументов 1 и 0, при равенстве — 1/2 и 1/2
+                ExpressionNode sign = sign(operation(OperationNode.Operation.SUBTRACT, a, b));
+                ExpressionNode plus = divide(add(ONE, sign), TWO);
+                ExpressionNode minus = divide(subtract(ONE, sign), TWO);
+                boolean minimum = function.getFunction() == FunctionNode.Function.MIN;
+                return add(multiply(da, minimum ? minus : plus), multiply(db, minimum ? plus : minus));
+            }
+            case FMA: {
+                ExpressionNode b = function.getArgument(1);
+                ExpressionNode c = function.getArgument(2);
+                return add(add(multiply(da, b), multiply(a, differentiate(b, variable))), differentiate(c, variable));
+            }
+            default:
+                throw new RuntimeException("Неизвестная функция");
+        }
+    }
+
+    // Построители узлов, в которых null — тождественный ноль
+
+    private static ExpressionNode add(ExpressionNode a, ExpressionNode b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : operation(OperationNode.Operation.ADD, a, b);
+    }
+
+    private static ExpressionNode subtract(ExpressionNode a, ExpressionNode b) {
+        if (b == null) {
+            return a;
+        }
+        return a == null ? negate(b) : operation(OperationNode.Operation.SUBTRACT, a, b);
+    }
+
+    private static ExpressionNode multiply(ExpressionNode a, ExpressionNode b) {
+        return a == null || b == null ? null : operation(OperationNode.Operation.MULTIPLY, a, b);
+    }
+
+    private static ExpressionNode divide(ExpressionNode a, ExpressionNode b) {
+        return a == null ? null : operation(OperationNode.Operation.DIVIDE, a, b);
+    }
+
+    private static ExpressionNode power(ExpressionNode a, ExpressionNode b) {
+        return operation(OperationNode.Operation.POWER, a, b);
+    }
+
+    /**
+     * Строит знак аргумента: -1, 0 или 1, как {@link Math#signum}.
+     */
+    private static ExpressionNode sign(ExpressionNode a) {
+        ExpressionNode scaled = multiply(multiply(a, SIGN_SCALE), SIGN_SCALE);
+        return function(FunctionNode.Function.MIN, function(FunctionNode.Function.MAX, scaled, MINUS_ONE), ONE);
+    }
+
+    private static ExpressionNode negate(ExpressionNode a) {
+        return a == null ? null : function(FunctionNode.Function.NEGATE, a);
+    }
+
+    private static ExpressionNode operation(OperationNode.Operation operation, ExpressionNode a, ExpressionNode b) {
+        return new OperationNode(operation, a, b);
+    }
+
+    private static ExpressionNode function(FunctionNode.Function function, ExpressionNode argument) {
+        return new FunctionNode(function, argument);
+    }
+
+    private static ExpressionNode function(FunctionNode.Function function, ExpressionNode a, ExpressionNode b) {
+        return new FunctionNode(function, a, b);
+    }
+}
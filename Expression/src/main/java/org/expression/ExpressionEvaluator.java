@@ -7,10 +7,20 @@ import java.util.Scanner;
 /**
  * Класс, отвечающий за вычисление значений выражений, представленных абстрактным синтаксическим деревом (AST).
  * Он принимает на вход карту переменных и их значений и использует её для вычисления результатов выражений.
+ *
+ * Вычисления можно профилировать, установив {@link EvaluationProfiler}: тогда дерево обходится с замером
+ * каждого узла. Без профилировщика вычисление ничем не отличается от {@link ExpressionNode#evaluate(Map)},
+ * кроме одной проверки поля на {@code null}, поэтому профилирование можно оставлять в рабочей сборке
+ * и включать по необходимости.
+ *
+ * Экземпляр хранит карту переменных, переданную в конструктор, и не копирует её: вычислять через один экземпляр
+ * из нескольких потоков можно, только пока карту никто не изменяет. Для вычислений с разными значениями
+ * переменных в разных потоках используйте {@link ConcurrentExpressionEvaluator}.
  */
 public class ExpressionEvaluator {
 
-    private Map<String, Double> variables;
+    private final Map<String, Double> variables;
+    private EvaluationProfiler profiler;
 
     /**
      * Конструктор для создания объекта {@link ExpressionEvaluator}.
@@ -28,7 +38,45 @@ public class ExpressionEvaluator {
      * @return Результат вычисления выражения.
      */
     public double evaluate(ExpressionNode node) {
-        return node.evaluate(variables);
+        EvaluationProfiler current = profiler;
+        if (current == null) {
+            return node.evaluate(variables);
+        }
+        return current.evaluate(node, variables);
+    }
+
+    /**
+     * Метод для вычисления значения выражения, привязанного к схеме переменных.
+     * Значения переменных один раз раскладываются из карты по слотам схемы.
+     *
+     * @param expression Выражение, привязанное к схеме переменных.
+     * @return Результат вычисления выражения.
+     */
+    public double evaluate(BoundExpression expression) {
+        EvaluationProfiler current = profiler;
+        if (current == null) {
+            return expression.evaluate(variables);
+        }
+        return current.evaluate(expression.getRoot(), variables);
+    }
+
+    /**
+     * Устанавливает профилировщик вычислений. Изменение видно вызовам из других потоков не сразу:
+     * профилировщик предназначен для включения на время диагностики, а не для точного переключения.
+     *
+     * @param profiler Профилировщик или {@code null}, чтобы отключить профилирование.
+     */
+    public void setProfiler(EvaluationProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Получает установленный профилировщик вычислений.
+     *
+     * @return Профилировщик или {@code null}, если профилирование отключено.
+     */
+    public EvaluationProfiler getProfiler() {
+        return profiler;
     }
 
     /**
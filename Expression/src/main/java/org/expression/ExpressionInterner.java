@@ -0,0 +1,108 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс, выполняющий хеш-консинг узлов выражений: структурно одинаковые поддеревья заменяются
+ * одним общим экземпляром узла, и дерево превращается в ориентированный ациклический граф (DAG).
+ * Узлы обрабатываются снизу вверх, поэтому к моменту обработки операции или функции её операнды уже канонические
+ * и сравнение сводится к сравнению ссылок на операнды.
+ *
+ * Один экземпляр можно использовать для нескольких выражений — тогда общие подвыражения разделяются и между ними.
+ * Экземпляр не является потокобезопасным.
+ */
+public class ExpressionInterner {
+
+    private final Map<Object, ExpressionNode> nodes = new HashMap<>();
+    private long nodesSeen;  // Количество узлов во всех обработанных деревьях
+
+    /**
+     * Возвращает канонический экземпляр выражения, в котором одинаковые поддеревья разделяются.
+     * Узлы обходятся без рекурсии в обратном польском порядке ({@link ExpressionDag#linearize}),
+     * поэтому глубина дерева не ограничена размером стека.
+     *
+     * @param node Корень дерева выражения.
+     * @return Корень графа выражения.
+     */
+    public ExpressionNode intern(ExpressionNode node) {
+        Map<ExpressionNode, Integer> indexes = new IdentityHashMap<>();
+        List<ExpressionNode> order = new ArrayList<>();
+        ExpressionDag.linearize(node, indexes, order);
+        ExpressionNode[] canonical = new ExpressionNode[order.size()];
+        long[] sizes = new long[order.size()];  // Размер поддерева с учётом повторов, как при обходе дерева
+        for (int i = 0; i < canonical.length; i++) {
+            ExpressionNode current = order.get(i);
+            sizes[i] = 1;
+            for (ExpressionNode operand : ExpressionDag.operands(current)) {
+                sizes[i] += sizes[indexes.get(operand)];
+            }
+            canonical[i] = canonical(current, indexes, canonical);
+        }
+        nodesSeen += sizes[sizes.length - 1];
+        return canonical[canonical.length - 1];
+    }
+
+    /**
+     * Находит канонический экземпляр узла, операнды которого уже заменены каноническими.
+     */
+    private ExpressionNode canonical(ExpressionNode node, Map<ExpressionNode, Integer> indexes,
+                                     ExpressionNode[] canonical) {
+        if (node instanceof NumberNode number) {
+            return nodes.computeIfAbsent(new NumberKey(Double.doubleToRawLongBits(number.getValue())), key -> number);
+        } else if (node instanceof VariableNode variable) {
+            return nodes.computeIfAbsent(new VariableKey(variable.getName(), variable.getSlot()), key -> variable);
+        } else if (node instanceof OperationNode operation) {
+            ExpressionNode left = canonical[indexes.get(operation.getLeft())];
+            ExpressionNode right = canonical[indexes.get(operation.getRight())];
+            return nodes.computeIfAbsent(new OperationKey(operation.getOperation(), left, right), key ->
+                    left == operation.getLeft() && right == operation.getRight()
+                            ? operation : new OperationNode(operation.getOperation(), left, right));
+        } else if (node instanceof FunctionNode function) {
+            ExpressionNode[] arguments = new ExpressionNode[function.getFunction().getArity()];
+            boolean same = true;
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = canonical[indexes.get(function.getArgument(i))];
+                same &= arguments[i] == function.getArgument(i);
+            }
+            boolean unchanged = same;
+            return nodes.computeIfAbsent(new FunctionKey(function.getFunction(), List.of(arguments)), key ->
+                    unchanged ? function : new FunctionNode(function.getFunction(), arguments));
+        }
+        throw new RuntimeException("Неизвестный тип узла: " + node.getClass().getName());
+    }
+
+    /**
+     * Получает количество узлов во всех деревьях, переданных в {@link #intern(ExpressionNode)}.
+     *
+     * @return Количество узлов до устранения повторов.
+     */
+    public long getNodesSeen() {
+        return nodesSeen;
+    }
+
+    /**
+     * Получает количество различных узлов после устранения повторов.
+     *
+     * @return Количество уникальных узлов.
+     */
+    public int getUniqueNodes() {
+        return nodes.size();
+    }
+
+    // Ключи сравнивают операнды по ссылке: операнды к этому моменту уже канонические
+    private record NumberKey(long bits) {
+    }
+
+    private record VariableKey(String name, int slot) {
+    }
+
+    private record OperationKey(OperationNode.Operation operation, ExpressionNode left, ExpressionNode right) {
+    }
+
+    private record FunctionKey(FunctionNode.Function function, List<ExpressionNode> arguments) {
+    }
+}
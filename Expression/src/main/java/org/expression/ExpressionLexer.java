@@ -0,0 +1,195 @@
+package org.expression;
+
+/**
+ * Лексический анализатор выражений для {@link ExpressionParser}.
+ * Просматривает исходный текст на месте: пробельные символы пропускаются по ходу разбора,
+ * числа вычисляются прямо из диапазона символов, имена переменных и функций интернируются в {@link SymbolTable}.
+ * Лексемы не создаются как объекты — анализатор хранит только текущую лексему и её позицию.
+ */
+final class ExpressionLexer {
+
+    /**
+     * Типы лексем.
+     */
+    enum Token {
+        NUMBER,       // Числовой литерал
+        IDENTIFIER,   // Имя переменной или функции
+        PLUS,         // +
+        MINUS,        // -
+        STAR,         // *
+        SLASH,        // /
+        CARET,        // ^
+        COMMA,        // ,
+        LEFT_PAREN,   // (
+        RIGHT_PAREN,  // )
+        END           // Конец текста
+    }
+
+    // Степени десяти, точно представимые в double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final CharSequence text;
+    private final SymbolTable symbols;
+    private int index;         // Позиция, с которой начнётся следующая лексема
+
+    private Token token;       // Текущая лексема
+    private int position;      // Позиция начала текущей лексемы
+    private double number;     // Значение текущей лексемы NUMBER
+    private String identifier; // Имя текущей лексемы IDENTIFIER
+
+    /**
+     * Конструктор анализатора. Сразу читает первую лексему.
+     *
+     * @param text Исходный текст выражения.
+     * @param symbols Таблица интернирования имён переменных.
+     */
+    ExpressionLexer(CharSequence text, SymbolTable symbols) {
+        this.text = text;
+        this.symbols = symbols;
+        next();
+    }
+
+    Token token() {
+        return token;
+    }
+
+    double number() {
+        return number;
+    }
+
+    String identifier() {
+        return identifier;
+    }
+
+    /**
+     * Переходит к следующей лексеме.
+     *
+     * @throws RuntimeException Если встречен недопустимый символ.
+     */
+    void next() {
+        int length = text.length();
+        while (index < length && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        position = index;
+        if (index >= length) {
+            token = Token.END;
+            return;
+        }
+        char current = text.charAt(index);
+        switch (current) {
+            case '+':
+                single(Token.PLUS);
+                return;
+            case '-':
+                single(Token.MINUS);
+                return;
+            case '*':
+                single(Token.STAR);
+                return;
+            case '/':
+                single(Token.SLASH);
+                return;
+            case '^':
+                single(Token.CARET);
+                return;
+            case ',':
+                single(Token.COMMA);
+                return;
+            case '(':
+                single(Token.LEFT_PAREN);
+                return;
+            case ')':
+                single(Token.RIGHT_PAREN);
+                return;
+            default:
+                break;
+        }
+        if (Character.isDigit(current)) {
+            scanNumber();
+        } else if (Character.isAlphabetic(current)) {
+            int start = index;
+            while (index < length && Character.isAlphabetic(text.charAt(index))) {
+                index++;
+            }
+            identifier = symbols.intern(text, start, index);
+            token = Token.IDENTIFIER;
+        } else {
+            throw error("Неожиданный символ: " + current);
+        }
+    }
+
+    /**
+     * Создаёт исключение с указанием позиции текущей лексемы.
+     *
+     * @param message Текст сообщения.
+     * @return Исключение для выброса.
+     */
+    RuntimeException error(String message) {
+        return new RuntimeException(message + " (позиция " + position + ")");
+    }
+
+    /**
+     * Создаёт исключение о неожиданной лексеме в текущей позиции.
+     *
+     * @return Исключение для выброса.
+     */
+    RuntimeException unexpected() {
+        if (token == Token.END) {
+            return error("Неожиданный конец выражения");
+        }
+        return error("Неожиданный символ: " + text.charAt(position));
+    }
+
+    private void single(Token single) {
+        token = single;
+        index++;
+    }
+
+    /**
+     * Читает число вида {@code цифры[.цифры]}. Если мантисса и порядок точно представимы в double,
+     * значение вычисляется одним делением (результат корректно округлён), иначе используется
+     * {@link Double#parseDouble(String)}.
+     */
+    private void scanNumber() {
+        int start = index;
+        int length = text.length();
+        long mantissa = 0;
+        int digits = 0;     // Значащие цифры в мантиссе
+        int scale = 0;      // Цифры после точки
+        boolean exact = true;
+        boolean dot = false;
+        while (index < length) {
+            char current = text.charAt(index);
+            if (current == '.' && !dot) {
+                dot = true;
+            } else if (Character.isDigit(current)) {
+                int digit = Character.digit(current, 10);
+                if (mantissa != 0 || digit != 0) {
+                    digits++;
+                }
+                if (digits > 18) {
+                    exact = false;
+                } else {
+                    mantissa = mantissa * 10 + digit;
+                }
+                if (dot) {
+                    scale++;
+                }
+            } else {
+                break;
+            }
+            index++;
+        }
+        token = Token.NUMBER;
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && scale < POWERS_OF_TEN.length) {
+            number = mantissa / POWERS_OF_TEN[scale];
+        } else {
+            number = Double.parseDouble(text.subSequence(start, index).toString());
+        }
+    }
+}
@@ -4,8 +4,14 @@ import java.util.Map;
 
 /**
  * Абстрактный класс, представляющий узел выражения в абстрактном синтаксическом дереве (AST).
- * Все типы узлов (например, числа, переменные, операции) должны наследовать этот класс
- * и реализовывать метод {@link #evaluate(Map)} для вычисления значений выражений.
+ * Все типы узлов (например, числа, переменные, операции, функции) должны наследовать этот класс
+ * и реализовывать методы {@link #evaluate(Map)} и {@link #evaluate(double[])} для вычисления значений выражений.
+ *
+ * Узлы неизменяемы: все их поля {@code final}, а вычисление не меняет состояния узла и получает значения переменных
+ * только через аргументы. Поэтому дерево, построенное в одном потоке, безопасно публикуется (по семантике
+ * {@code final}-полей) и может вычисляться одновременно любым количеством потоков без синхронизации — достаточно
+ * одного разобранного дерева на все потоки (см. {@link ConcurrentExpressionEvaluator}). Подклассы обязаны
+ * сохранять это свойство.
  */
 public abstract class ExpressionNode {
 
@@ -17,4 +23,13 @@ public abstract class ExpressionNode {
      * @return Результат вычисления значения для данного узла.
      */
     public abstract double evaluate(Map<String, Double> variables);
+
+    /**
+     * Метод для вычисления значения узла по значениям переменных, расположенным в слотах.
+     * Применим к дереву, привязанному к схеме переменных (см. {@link VariableSchema#bind(ExpressionNode)}).
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления значения для данного узла.
+     */
+    public abstract double evaluate(double[] slots);
 }
@@ -0,0 +1,211 @@
+package org.expression;
+
+/**
+ * Класс, упрощающий абстрактное синтаксическое дерево (AST) выражения перед вычислением.
+ * Выполняет свёртку константных подвыражений (включая функции от констант), удаляет нейтральные операции
+ * ({@code x * 1}, {@code x + 0}, {@code x - 0}, {@code x / 1}, {@code x ^ 1}, {@code -(-x)}) и приводит
+ * коммутативные операции к каноническому порядку операндов: переменные, затем операции, затем функции, затем числа.
+ *
+ * Оптимизатор не переставляет операции между уровнями дерева (это изменило бы результат
+ * вычислений с плавающей точкой) и не удаляет подвыражения с переменными или делением,
+ * поэтому ошибки неопределённых переменных и деления на ноль сохраняются. Деление на константный ноль
+ * не сворачивается и по-прежнему выбрасывает {@link ArithmeticException} при вычислении.
+ * Единственное отличие — знак нулевого результата: {@code x + 0} при {@code x = -0.0} даёт {@code -0.0}.
+ *
+ * Исходное дерево не изменяется. Экземпляр хранит статистику последнего вызова и не является потокобезопасным.
+ */
+public class ExpressionOptimizer {
+
+    private int nodesBefore;  // Количество узлов исходного дерева при последней оптимизации
+    private int nodesAfter;   // Количество узлов оптимизированного дерева при последней оптимизации
+
+    /**
+     * Оптимизирует дерево выражения.
+     *
+     * @param node Корень исходного дерева.
+     * @return Корень упрощённого дерева, вычисляющего то же значение.
+     */
+    public ExpressionNode optimize(ExpressionNode node) {
+        nodesBefore = countNodes(node);
+        ExpressionNode optimized = simplify(node);
+        nodesAfter = countNodes(optimized);
+        return optimized;
+    }
+
+    /**
+     * Получает количество узлов исходного дерева при последней оптимизации.
+     *
+     * @return Количество узлов до оптимизации.
+     */
+    public int getNodesBefore() {
+        return nodesBefore;
+    }
+
+    /**
+     * Получает количество узлов упрощённого дерева при последней оптимизации.
+     *
+     * @return Количество узлов после оптимизации.
+     */
+    public int getNodesAfter() {
+        return nodesAfter;
+    }
+
+    /**
+     * Подсчитывает количество узлов в дереве выражения.
+     *
+     * @param node Корень дерева.
+     * @return Количество узлов.
+     */
+    public static int countNodes(ExpressionNode node) {
+        if (node instanceof OperationNode operation) {
+            return 1 + countNodes(operation.getLeft()) + countNodes(operation.getRight());
+        }
+        if (node instanceof FunctionNode function) {
+            int count = 1;
+            for (ExpressionNode argument : function.getArguments()) {
+                count += countNodes(argument);
+            }
+            return count;
+        }
+        return 1;
+    }
+
+    private ExpressionNode simplify(ExpressionNode node) {
+        if (node instanceof FunctionNode function) {
+            return simplifyFunction(function);
+        }
+        if (!(node instanceof OperationNode operation)) {
+            return node;
+        }
+        OperationNode.Operation op = operation.getOperation();
+        ExpressionNode left = simplify(operation.getLeft());
+        ExpressionNode right = simplify(operation.getRight());
+
+        // Свёртка констант; деление на ноль оставляем до вычисления
+        if (left instanceof NumberNode a && right instanceof NumberNode b
+                && !(op == OperationNode.Operation.DIVIDE && b.getValue() == 0)) {
+            return new NumberNode(op.apply(a.getValue(), b.getValue()));
+        }
+
+        // Нейтральные элементы
+        switch (op) {
+            case ADD:
+                if (isConstant(right, 0)) {
+                    return left;
+                }
+                if (isConstant(left, 0)) {
+                    return right;
+                }
+                break;
+            case SUBTRACT:
+                if (isConstant(right, 0)) {
+                    return left;
+                }
+                break;
+            case MULTIPLY:
+                if (isConstant(right, 1)) {
+                    return left;
+                }
+                if (isConstant(left, 1)) {
+                    return right;
+                }
+                break;
+            case DIVIDE:
+            case POWER:
+                if (isConstant(right, 1)) {
+                    return left;
+                }
+                break;
+            default:
+                break;
+        }
+
+        // Канонический порядок операндов коммутативных операций
+        if ((op == OperationNode.Operation.ADD || op == OperationNode.Operation.MULTIPLY) && compare(left, right) > 0) {
+            ExpressionNode swap = left;
+            left = right;
+            right = swap;
+        }
+
+        if (left == operation.getLeft() && right == operation.getRight()) {
+            return operation;
+        }
+        return new OperationNode(op, left, right);
+    }
+
+    private ExpressionNode simplifyFunction(FunctionNode function) {
+        ExpressionNode[] arguments = new ExpressionNode[function.getFunction().getArity()];
+        boolean constant = true;
+        boolean changed = false;
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = simplify(function.getArgument(i));
+            constant &= arguments[i] instanceof NumberNode;
+            changed |= arguments[i] != function.getArgument(i);
+        }
+
+        // Свёртка констант: функции не выбрасывают исключений
+        if (constant) {
+            double a = ((NumberNode) arguments[0]).getValue();
+            double b = arguments.length > 1 ? ((NumberNode) arguments[1]).getValue() : 0;
+            double c = arguments.length > 2 ? ((NumberNode) arguments[2]).getValue() : 0;
+            return new NumberNode(function.getFunction().apply(a, b, c));
+        }
+
+        // Двойной унарный минус
+        if (function.getFunction() == FunctionNode.Function.NEGATE && arguments[0] instanceof FunctionNode inner
+                && inner.getFunction() == FunctionNode.Function.NEGATE) {
+            return inner.getArgument(0);
+        }
+        return changed ? new FunctionNode(function.getFunction(), arguments) : function;
+    }
+
+    private static boolean isConstant(ExpressionNode node, double value) {
+        return node instanceof NumberNode number && number.getValue() == value;
+    }
+
+    /**
+     * Сравнивает узлы для канонического порядка: переменные по имени, затем операции, затем функции,
+     * затем числа по значению.
+     */
+    private static int compare(ExpressionNode a, ExpressionNode b) {
+        int byRank = Integer.compare(rank(a), rank(b));
+        if (byRank != 0) {
+            return byRank;
+        }
+        if (a instanceof VariableNode x && b instanceof VariableNode y) {
+            return x.getName().compareTo(y.getName());
+        }
+        if (a instanceof NumberNode x && b instanceof NumberNode y) {
+            return Double.compare(x.getValue(), y.getValue());
+        }
+        if (a instanceof OperationNode x && b instanceof OperationNode y) {
+            int byOperation = x.getOperation().compareTo(y.getOperation());
+            if (byOperation != 0) {
+                return byOperation;
+            }
+            int byLeft = compare(x.getLeft(), y.getLeft());
+            return byLeft != 0 ? byLeft : compare(x.getRight(), y.getRight());
+        }
+        if (a instanceof FunctionNode x && b instanceof FunctionNode y) {
+            int byFunction = x.getFunction().compareTo(y.getFunction());
+            for (int i = 0; byFunction == 0 && i < x.getFunction().getArity(); i++) {
+                byFunction = compare(x.getArgument(i), y.getArgument(i));
+            }
+            return byFunction;
+        }
+        return 0;
+    }
+
+    private static int rank(ExpressionNode node) {
+        if (node instanceof VariableNode) {
+            return 0;
+        }
+        if (node instanceof OperationNode) {
+            return 1;
+        }
+        if (node instanceof FunctionNode) {
+            return 2;
+        }
+        return 3;
+    }
+}
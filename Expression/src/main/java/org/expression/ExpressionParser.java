@@ -1,33 +1,50 @@
 package org.expression;
 
-import java.util.Stack;
-
 /**
  * Класс, отвечающий за разбор и построение абстрактного синтаксического дерева (AST) из строкового представления математического выражения.
- * Этот парсер поддерживает выражения с операциями сложения, вычитания, умножения, деления, а также скобки и переменные.
+ * Этот парсер поддерживает выражения с операциями сложения, вычитания, умножения, деления и возведения в степень,
+ * унарный минус, вызовы функций ({@link FunctionNode.Function}), а также скобки и переменные.
+ * Возведение в степень правоассоциативно и связывает сильнее унарного минуса: {@code -x^2} означает {@code -(x^2)},
+ * а {@code 2^3^2} — {@code 2^(3^2)}.
+ * Текст разбивается на лексемы {@link ExpressionLexer} без копирования и регулярных выражений;
+ * пробельные символы разделяют лексемы и в остальном игнорируются.
  */
 public class ExpressionParser {
 
-    private String expression;  // Строка с исходным выражением
-    private int index = 0;      // Индекс текущего символа в строке выражения
+    private final ExpressionLexer lexer;  // Лексический анализатор исходного выражения
 
     /**
      * Конструктор, который инициализирует парсер с переданным выражением.
-     * Удаляет все пробелы из выражения перед его разбором.
      *
      * @param expression Исходная строка с математическим выражением.
      */
-    public ExpressionParser(String expression) {
-        this.expression = expression.replaceAll("\\s+", "");  // Удаляем пробелы
+    public ExpressionParser(CharSequence expression) {
+        this(expression, new SymbolTable());
+    }
+
+    /**
+     * Конструктор, который инициализирует парсер с переданным выражением и общей таблицей имён переменных.
+     * Позволяет разделять экземпляры строк имён между выражениями при разборе большого количества формул.
+     *
+     * @param expression Исходная строка с математическим выражением.
+     * @param symbols Таблица интернирования имён переменных.
+     */
+    public ExpressionParser(CharSequence expression, SymbolTable symbols) {
+        this.lexer = new ExpressionLexer(expression, symbols);
     }
 
     /**
      * Запускает процесс парсинга выражения, начиная с главной функции.
      *
      * @return Корень абстрактного синтаксического дерева (AST) для выражения.
+     * @throws RuntimeException Если выражение содержит синтаксическую ошибку; сообщение содержит позицию ошибки.
      */
     public ExpressionNode parse() {
-        return parseExpression();
+        ExpressionNode node = parseExpression();
+        if (lexer.token() != ExpressionLexer.Token.END) {
+            throw lexer.unexpected();
+        }
+        return node;
     }
 
     /**
@@ -38,18 +55,18 @@ public class ExpressionParser {
      */
     private ExpressionNode parseExpression() {
         ExpressionNode node = parseTerm();
-        while (index < expression.length()) {
-            char current = expression.charAt(index);
-            if (current == '+' || current == '-') {
+        while (true) {
+            ExpressionLexer.Token current = lexer.token();
+            if (current == ExpressionLexer.Token.PLUS || current == ExpressionLexer.Token.MINUS) {
                 // Операция сложения или вычитания
-                OperationNode.Operation operation = current == '+' ? OperationNode.Operation.ADD : OperationNode.Operation.SUBTRACT;
-                index++;  // Пропускаем символ операции
+                OperationNode.Operation operation = current == ExpressionLexer.Token.PLUS
+                        ? OperationNode.Operation.ADD : OperationNode.Operation.SUBTRACT;
+                lexer.next();  // Пропускаем символ операции
                 node = new OperationNode(operation, node, parseTerm());
             } else {
-                break;
+                return node;
             }
         }
-        return node;
     }
 
     /**
@@ -59,80 +76,122 @@ public class ExpressionParser {
      * @return Узел, представляющий терм.
      */
     private ExpressionNode parseTerm() {
-        ExpressionNode node = parseFactor();
-        while (index < expression.length()) {
-            char current = expression.charAt(index);
-            if (current == '*' || current == '/') {
+        ExpressionNode node = parseUnary();
+        while (true) {
+            ExpressionLexer.Token current = lexer.token();
+            if (current == ExpressionLexer.Token.STAR || current == ExpressionLexer.Token.SLASH) {
                 // Операция умножения или деления
-                OperationNode.Operation operation = current == '*' ? OperationNode.Operation.MULTIPLY : OperationNode.Operation.DIVIDE;
-                index++;  // Пропускаем символ операции
-                node = new OperationNode(operation, node, parseFactor());
+                OperationNode.Operation operation = current == ExpressionLexer.Token.STAR
+                        ? OperationNode.Operation.MULTIPLY : OperationNode.Operation.DIVIDE;
+                lexer.next();  // Пропускаем символ операции
+                node = new OperationNode(operation, node, parseUnary());
             } else {
-                break;
+                return node;
             }
         }
-        return node;
     }
 
     /**
-     * Парсит фактор, который может быть числом, переменной или подвыражением в скобках.
+     * Парсит унарный минус. Минус перед числовым литералом сразу даёт отрицательное число.
      *
-     * @return Узел, представляющий фактор (число, переменную или выражение в скобках).
+     * @return Узел, представляющий операнд с унарным минусом или без него.
      */
-    private ExpressionNode parseFactor() {
-        char current = expression.charAt(index);
-        if (current == '(') {
-            index++;  // Пропускаем символ '('
-            ExpressionNode node = parseExpression();
-            expect(')');
-            return node;
-        } else if (Character.isDigit(current)) {
-            return parseNumber();
-        } else if (Character.isAlphabetic(current)) {
-            return parseVariable();
-        } else {
-            throw new RuntimeException("Неожиданный символ: " + current);
+    private ExpressionNode parseUnary() {
+        if (lexer.token() != ExpressionLexer.Token.MINUS) {
+            return parsePower();
+        }
+        lexer.next();  // Пропускаем символ '-'
+        ExpressionNode operand = parseUnary();
+        if (operand instanceof NumberNode number) {
+            return new NumberNode(-number.getValue());
         }
+        return new FunctionNode(FunctionNode.Function.NEGATE, operand);
     }
 
     /**
-     * Парсит числовое значение и создает узел типа {@link NumberNode}.
+     * Парсит возведение в степень. Показатель разбирается как унарное выражение,
+     * что даёт правую ассоциативность и допускает отрицательный показатель ({@code x^-2}).
      *
-     * @return Узел, представляющий число.
+     * @return Узел, представляющий степень или её основание.
      */
-    private ExpressionNode parseNumber() {
-        StringBuilder number = new StringBuilder();
-        while (index < expression.length() && (Character.isDigit(expression.charAt(index)) || expression.charAt(index) == '.')) {
-            number.append(expression.charAt(index));
-            index++;
+    private ExpressionNode parsePower() {
+        ExpressionNode node = parseFactor();
+        if (lexer.token() == ExpressionLexer.Token.CARET) {
+            lexer.next();  // Пропускаем символ '^'
+            node = new OperationNode(OperationNode.Operation.POWER, node, parseUnary());
+        }
+        return node;
+    }
+
+    /**
+     * Парсит фактор, который может быть числом, переменной, вызовом функции или подвыражением в скобках.
+     *
+     * @return Узел, представляющий фактор (число, переменную, вызов функции или выражение в скобках).
+     */
+    private ExpressionNode parseFactor() {
+        switch (lexer.token()) {
+            case LEFT_PAREN: {
+                lexer.next();  // Пропускаем символ '('
+                ExpressionNode node = parseExpression();
+                expect(ExpressionLexer.Token.RIGHT_PAREN, ')');
+                return node;
+            }
+            case NUMBER: {
+                ExpressionNode node = new NumberNode(lexer.number());
+                lexer.next();
+                return node;
+            }
+            case IDENTIFIER: {
+                String name = lexer.identifier();
+                lexer.next();
+                if (lexer.token() == ExpressionLexer.Token.LEFT_PAREN) {
+                    return parseCall(name);
+                }
+                return new VariableNode(name);
+            }
+            default:
+                throw lexer.unexpected();
         }
-        return new NumberNode(Double.parseDouble(number.toString()));
     }
 
     /**
-     * Парсит переменную и создает узел типа {@link VariableNode}.
+     * Парсит аргументы вызова функции; текущая лексема — открывающая скобка после имени.
      *
-     * @return Узел, представляющий переменную.
+     * @param name Имя функции.
+     * @return Узел вызова функции.
+     * @throws RuntimeException Если функция неизвестна или количество аргументов не соответствует функции.
      */
-    private ExpressionNode parseVariable() {
-        StringBuilder variable = new StringBuilder();
-        while (index < expression.length() && Character.isAlphabetic(expression.charAt(index))) {
-            variable.append(expression.charAt(index));
-            index++;
+    private ExpressionNode parseCall(String name) {
+        FunctionNode.Function function = FunctionNode.Function.byName(name);
+        if (function == null) {
+            throw lexer.error("Неизвестная функция: " + name);
+        }
+        lexer.next();  // Пропускаем символ '('
+        ExpressionNode[] arguments = new ExpressionNode[function.getArity()];
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                expect(ExpressionLexer.Token.COMMA, ',');
+            }
+            arguments[i] = parseExpression();
+        }
+        if (lexer.token() == ExpressionLexer.Token.COMMA) {
+            throw lexer.error("Функция " + name + " ожидает аргументов: " + arguments.length);
         }
-        return new VariableNode(variable.toString());
+        expect(ExpressionLexer.Token.RIGHT_PAREN, ')');
+        return new FunctionNode(function, arguments);
     }
 
     /**
-     * Проверяет, что следующий символ в строке соответствует ожидаемому.
+     * Проверяет, что текущая лексема соответствует ожидаемой, и переходит к следующей.
      *
-     * @param expected Ожидаемый символ.
-     * @throws RuntimeException Если текущий символ не соответствует ожидаемому.
+     * @param expected Ожидаемая лексема.
+     * @param symbol Символ ожидаемой лексемы для сообщения об ошибке.
+     * @throws RuntimeException Если текущая лексема не соответствует ожидаемой.
      */
-    private void expect(char expected) {
-        if (expression.charAt(index) != expected) {
-            throw new RuntimeException("Ожидался символ: " + expected);
+    private void expect(ExpressionLexer.Token expected, char symbol) {
+        if (lexer.token() != expected) {
+            throw lexer.error("Ожидался символ: " + symbol);
         }
-        index++;
+        lexer.next();
     }
 }
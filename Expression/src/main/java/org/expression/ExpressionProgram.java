@@ -0,0 +1,186 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Программа из нескольких именованных выражений, вычисляемых совместно.
+ * Все выражения привязываются к одной схеме переменных и объединяются в общий граф {@link ExpressionDag},
+ * поэтому значения переменных считываются один раз на запись, а подвыражения, общие для разных формул,
+ * вычисляются однократно. Стоимость вычисления записи определяется количеством уникальных узлов,
+ * а не количеством формул.
+ *
+ * Для лучшего объединения коммутативных операций выражения можно предварительно привести к каноническому
+ * виду с помощью {@link ExpressionOptimizer}. Экземпляр неизменяем и может использоваться из нескольких потоков.
+ */
+public class ExpressionProgram {
+
+    private final List<String> names;
+    private final Map<String, Integer> outputs = new HashMap<>();
+    private final ExpressionDag dag;
+    private final ThreadLocal<double[]> scratch;  // Значения узлов графа, свой буфер на поток
+    private final ThreadLocal<boolean[]> failures;  // Признаки ошибок узлов, нужны только записям с ошибками
+
+    /**
+     * Конструктор программы со схемой, составленной из переменных всех выражений.
+     *
+     * @param expressions Именованные выражения; порядок обхода карты задаёт порядок результатов.
+     */
+    public ExpressionProgram(Map<String, ExpressionNode> expressions) {
+        this(expressions, VariableSchema.from(expressions.values()));
+    }
+
+    /**
+     * Конструктор программы с заданной схемой переменных.
+     *
+     * @param expressions Именованные выражения; порядок обхода карты задаёт порядок результатов.
+     * @param schema Схема переменных, общая для всех выражений.
+     * @throws RuntimeException Если в каком-либо выражении встречается переменная, отсутствующая в схеме.
+     */
+    public ExpressionProgram(Map<String, ExpressionNode> expressions, VariableSchema schema) {
+        this.names = List.copyOf(expressions.keySet());
+        List<ExpressionNode> roots = new ArrayList<>();
+        for (ExpressionNode expression : expressions.values()) {
+            roots.add(schema.bind(expression).getRoot());
+        }
+        for (int i = 0; i < names.size(); i++) {
+            outputs.put(names.get(i), i);
+        }
+        this.dag = new ExpressionDag(schema, roots, new ExpressionInterner());
+        this.scratch = ThreadLocal.withInitial(() -> new double[dag.getUniqueNodeCount()]);
+        this.failures = ThreadLocal.withInitial(() -> new boolean[dag.getUniqueNodeCount()]);
+    }
+
+    /**
+     * Получает имена выражений в порядке результатов.
+     *
+     * @return Неизменяемый список имён.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Получает номер результата выражения с заданным именем.
+     *
+     * @param name Имя выражения.
+     * @return Номер результата в массиве, заполняемом {@link #evaluate(double[], double[])}.
+     * @throws IllegalArgumentException Если выражения с таким именем нет.
+     */
+    public int indexOf(String name) {
+        Integer index = outputs.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Выражение не найдено: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Получает общую схему переменных программы.
+     *
+     * @return Схема переменных.
+     */
+    public VariableSchema getSchema() {
+        return dag.getSchema();
+    }
+
+    /**
+     * Получает количество узлов во всех исходных деревьях.
+     *
+     * @return Количество узлов до устранения общих подвыражений.
+     */
+    public long getTreeNodeCount() {
+        return dag.getTreeNodeCount();
+    }
+
+    /**
+     * Получает количество уникальных узлов, вычисляемых за один проход.
+     *
+     * @return Количество узлов после устранения общих подвыражений.
+     */
+    public int getUniqueNodeCount() {
+        return dag.getUniqueNodeCount();
+    }
+
+    /**
+     * Получает коэффициент дедупликации по всем выражениям программы.
+     *
+     * @return Отношение количества узлов деревьев к количеству узлов общего графа.
+     */
+    public double getDedupRatio() {
+        return dag.getDedupRatio();
+    }
+
+    /**
+     * Вычисляет все выражения за один проход по общему графу. Чтобы получить результаты остальных выражений
+     * при делении на ноль в одном из них, используйте {@link #evaluate(double[], double[], boolean[])}.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @param results Массив для результатов в порядке {@link #getNames()}.
+     * @throws ArithmeticException Если в каком-либо выражении происходит деление на ноль.
+     */
+    public void evaluate(double[] slots, double[] results) {
+        double[] values = scratch.get();
+        dag.compute(slots, values);
+        for (int i = 0; i < names.size(); i++) {
+            results[i] = values[dag.rootIndex(i)];
+        }
+    }
+
+    /**
+     * Вычисляет все выражения за один проход по общему графу и отмечает выражения, вычисление которых
+     * завершилось делением на ноль. Результаты таких выражений равны NaN, остальные вычисляются как обычно.
+     * Пока ошибок нет, граф вычисляется без проверок; при первой ошибке запись пересчитывается с признаками
+     * ошибок узлов.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @param results Массив для результатов в порядке {@link #getNames()}.
+     * @param failed Массив признаков ошибки в порядке {@link #getNames()}; заполняется полностью.
+     * @return Количество выражений, вычисление которых завершилось ошибкой.
+     */
+    public int evaluate(double[] slots, double[] results, boolean[] failed) {
+        double[] values = scratch.get();
+        try {
+            dag.compute(slots, values);
+        } catch (ArithmeticException e) {
+            return evaluateIsolated(slots, values, results, failed);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            results[i] = values[dag.rootIndex(i)];
+        }
+        Arrays.fill(failed, 0, names.size(), false);
+        return 0;
+    }
+
+    private int evaluateIsolated(double[] slots, double[] values, double[] results, boolean[] failed) {
+        boolean[] nodeFailures = failures.get();
+        dag.computeIsolated(slots, values, nodeFailures);
+        int count = 0;
+        for (int i = 0; i < names.size(); i++) {
+            int root = dag.rootIndex(i);
+            results[i] = values[root];
+            if (nodeFailures[root]) {
+                count++;
+            }
+            failed[i] = nodeFailures[root];
+        }
+        return count;
+    }
+
+    /**
+     * Вычисляет все выражения по карте переменных; каждая переменная считывается из карты один раз.
+     *
+     * @param variables Карта переменных и их значений.
+     * @return Результаты в порядке {@link #getNames()}.
+     * @throws ArithmeticException Если в каком-либо выражении происходит деление на ноль.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double[] evaluate(Map<String, Double> variables) {
+        double[] results = new double[names.size()];
+        evaluate(getSchema().toSlots(variables), results);
+        return results;
+    }
+}
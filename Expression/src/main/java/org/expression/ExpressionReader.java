@@ -0,0 +1,334 @@
+package org.expression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение библиотеки выражений, записанной {@link ExpressionWriter}, напрямую из {@link ByteBuffer}
+ * (в том числе из файла, отображённого в память), без копирования содержимого в промежуточные массивы.
+ *
+ * При открытии читаются только таблица имён и оглавление (смещение и длина каждого выражения);
+ * выражение декодируется при обращении к нему. Декодирование — один проход по байтам с явным стеком узлов,
+ * без лексического разбора, преобразования текста в числа и рекурсии.
+ *
+ * Тело выражения уже записано в обратной польской записи, поэтому {@link #readPostfix(String, VariableSchema)}
+ * и {@link #readAllPostfix(VariableSchema)} переписывают его напрямую в программу {@link PostfixExpression},
+ * не создавая узлов дерева: на выражение создаются только массивы инструкций и констант, а имена переменных
+ * сопоставляются слотам схемы один раз на имя. Выделение памяти при этом примерно вдвое меньше, чем при чтении
+ * деревьев; время же определяется в основном самим проходом по узлам, ветвления которого зависят от данных.
+ *
+ * Экземпляр неизменяем и может использоваться из нескольких потоков.
+ */
+public class ExpressionReader {
+
+    private static final OperationNode.Operation[] OPERATIONS = OperationNode.Operation.values();
+    private static final FunctionNode.Function[] FUNCTIONS = FunctionNode.Function.values();
+
+    private final ByteBuffer buffer;              // Представление исходного буфера с порядком байтов big-endian
+    private final String[] names;                 // Таблица имён переменных и выражений
+    private final List<String> expressions;       // Имена выражений в порядке записи
+    private final int[] bodyOffsets;              // Смещения тел выражений в порядке записи
+    private final int[] bodyLengths;              // Длины тел выражений в порядке записи
+    private final Map<String, Integer> indexes;   // Имя выражения -> номер в порядке записи
+
+    /**
+     * Конструктор, читающий заголовок и оглавление библиотеки.
+     * Буфер не копируется; его позиция и лимит не изменяются.
+     *
+     * @param buffer Буфер с библиотекой, начиная с текущей позиции.
+     * @throws RuntimeException Если данные не являются библиотекой выражений или повреждены.
+     */
+    public ExpressionReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        try {
+            int[] position = {0};
+            this.names = readNames(position);
+
+            // Оглавление: имя, длина и тело каждого выражения
+            String[] order = new String[readVarint(position)];
+            this.bodyOffsets = new int[order.length];
+            this.bodyLengths = new int[order.length];
+            this.indexes = HashMap.newHashMap(order.length);
+            for (int i = 0; i < order.length; i++) {
+                order[i] = name(readVarint(position));
+                bodyLengths[i] = readVarint(position);
+                bodyOffsets[i] = position[0];
+                indexes.put(order[i], i);
+                position[0] += bodyLengths[i];
+            }
+            if (position[0] > this.buffer.limit()) {
+                throw new IndexOutOfBoundsException(position[0]);
+            }
+            this.expressions = Collections.unmodifiableList(Arrays.asList(order));
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new RuntimeException("Библиотека выражений повреждена: данные обрезаны", e);
+        }
+    }
+
+    /**
+     * Проверяет заголовок и читает таблицу имён.
+     */
+    private String[] readNames(int[] position) {
+        if (buffer.remaining() < 5 || buffer.getInt(0) != ExpressionWriter.MAGIC) {
+            throw new RuntimeException("Данные не являются библиотекой выражений");
+        }
+        if (buffer.get(4) != ExpressionWriter.VERSION) {
+            throw new RuntimeException("Неподдерживаемая версия библиотеки выражений: " + buffer.get(4));
+        }
+        position[0] = 5;
+
+        String[] table = new String[readVarint(position)];
+        for (int i = 0; i < table.length; i++) {
+            int length = readVarint(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position[0], bytes);
+            table[i] = new String(bytes, StandardCharsets.UTF_8);
+            position[0] += length;
+        }
+        return table;
+    }
+
+    /**
+     * Открывает файл библиотеки, отображая его в память.
+     *
+     * @param path Путь к файлу.
+     * @return Читатель библиотеки.
+     * @throws IOException Если происходит ошибка ввода-вывода.
+     * @throws RuntimeException Если файл не является библиотекой выражений или повреждён.
+     */
+    public static ExpressionReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Отображение остаётся действительным после закрытия канала
+            return new ExpressionReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Получает имена выражений библиотеки.
+     *
+     * @return Неизменяемый список имён в порядке записи.
+     */
+    public List<String> getNames() {
+        return expressions;
+    }
+
+    /**
+     * Декодирует выражение с заданным именем.
+     *
+     * @param name Имя выражения.
+     * @return Корень абстрактного синтаксического дерева выражения.
+     * @throws IllegalArgumentException Если выражения с таким именем нет.
+     * @throws RuntimeException Если тело выражения повреждено.
+     */
+    public ExpressionNode read(String name) {
+        int index = indexOf(name);
+        try {
+            return decode(bodyOffsets[index], bodyLengths[index]);
+        } catch (IndexOutOfBoundsException e) {
+            throw new RuntimeException("Библиотека выражений повреждена: данные обрезаны", e);
+        }
+    }
+
+    /**
+     * Декодирует выражение с заданным именем сразу в программу стековой машины, без построения дерева.
+     *
+     * @param name Имя выражения.
+     * @param schema Схема переменных, задающая номера слотов.
+     * @return Выражение в обратной польской записи.
+     * @throws IllegalArgumentException Если выражения с таким именем нет.
+     * @throws RuntimeException Если в выражении встречается переменная, отсутствующая в схеме, или тело повреждено.
+     */
+    public PostfixExpression readPostfix(String name, VariableSchema schema) {
+        int index = indexOf(name);
+        return decodePostfix(index, schema, newSlotCache(), new PostfixExpression.CodeBuffer());
+    }
+
+    /**
+     * Декодирует все выражения библиотеки.
+     *
+     * @return Карта имён и выражений в порядке записи.
+     * @throws RuntimeException Если данные повреждены.
+     */
+    public Map<String, ExpressionNode> readAll() {
+        Map<String, ExpressionNode> result = LinkedHashMap.newLinkedHashMap(expressions.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            try {
+                result.put(expressions.get(i), decode(bodyOffsets[i], bodyLengths[i]));
+            } catch (IndexOutOfBoundsException e) {
+                throw new RuntimeException("Библиотека выражений повреждена: данные обрезаны", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Декодирует все выражения библиотеки сразу в программы стековой машины, без построения деревьев.
+     * Буфер инструкций и сопоставление имён переменных слотам общие для всех выражений.
+     *
+     * @param schema Схема переменных, задающая номера слотов.
+     * @return Карта имён и выражений в порядке записи.
+     * @throws RuntimeException Если в выражении встречается переменная, отсутствующая в схеме, или данные повреждены.
+     */
+    public Map<String, PostfixExpression> readAllPostfix(VariableSchema schema) {
+        Map<String, PostfixExpression> result = LinkedHashMap.newLinkedHashMap(expressions.size());
+        int[] slots = newSlotCache();
+        PostfixExpression.CodeBuffer code = new PostfixExpression.CodeBuffer();
+        for (int i = 0; i < expressions.size(); i++) {
+            result.put(expressions.get(i), decodePostfix(i, schema, slots, code));
+        }
+        return result;
+    }
+
+    private int indexOf(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Выражение не найдено: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Декодирует тело выражения: листья кладутся на стек, операции и функции снимают со стека свои операнды.
+     */
+    private ExpressionNode decode(int offset, int length) {
+        int[] position = {offset};
+        int end = offset + length;
+        ExpressionNode[] stack = new ExpressionNode[16];
+        int top = 0;
+        while (position[0] < end) {
+            int code = buffer.get(position[0]++) & 0xFF;
+            ExpressionNode node;
+            if (code == ExpressionWriter.NUMBER) {
+                node = new NumberNode(buffer.getDouble(position[0]));
+                position[0] += Double.BYTES;
+            } else if (code == ExpressionWriter.INTEGER) {
+                int zigzag = readVarint(position);
+                node = new NumberNode((zigzag >>> 1) ^ -(zigzag & 1));
+            } else if (code == ExpressionWriter.VARIABLE) {
+                node = new VariableNode(name(readVarint(position)));
+            } else if (code >= ExpressionWriter.FUNCTION && code - ExpressionWriter.FUNCTION < FUNCTIONS.length) {
+                FunctionNode.Function function = FUNCTIONS[code - ExpressionWriter.FUNCTION];
+                int arity = function.getArity();
+                if (top < arity) {
+                    throw corrupted();
+                }
+                top -= arity;
+                node = new FunctionNode(function, Arrays.copyOfRange(stack, top, top + arity));
+            } else if (code >= ExpressionWriter.OPERATION && code - ExpressionWriter.OPERATION < OPERATIONS.length) {
+                if (top < 2) {
+                    throw corrupted();
+                }
+                top -= 2;
+                node = new OperationNode(OPERATIONS[code - ExpressionWriter.OPERATION], stack[top], stack[top + 1]);
+            } else {
+                throw new RuntimeException("Библиотека выражений повреждена: неизвестный код узла " + code);
+            }
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+            }
+            stack[top++] = node;
+        }
+        if (top != 1 || position[0] != end) {
+            throw corrupted();
+        }
+        return stack[0];
+    }
+
+    /**
+     * Переписывает тело выражения в программу стековой машины: порядок узлов в теле уже обратный польский,
+     * поэтому каждый узел даёт одну инструкцию, а стек нужен только для проверки структуры.
+     *
+     * @param slots Слоты переменных по номерам имён; {@code -1} — ещё не сопоставлено.
+     */
+    private PostfixExpression decodePostfix(int index, VariableSchema schema, int[] slots,
+                                            PostfixExpression.CodeBuffer code) {
+        int[] position = {bodyOffsets[index]};
+        int end = position[0] + bodyLengths[index];
+        int depth = 0;
+        code.clear();
+        try {
+            while (position[0] < end) {
+                int kind = buffer.get(position[0]++) & 0xFF;
+                if (kind == ExpressionWriter.NUMBER) {
+                    code.constant(buffer.getDouble(position[0]));
+                    position[0] += Double.BYTES;
+                    depth++;
+                } else if (kind == ExpressionWriter.INTEGER) {
+                    int zigzag = readVarint(position);
+                    code.constant((zigzag >>> 1) ^ -(zigzag & 1));
+                    depth++;
+                } else if (kind == ExpressionWriter.VARIABLE) {
+                    int name = readVarint(position);
+                    int slot = name >= 0 && name < slots.length ? slots[name] : -1;
+                    if (slot < 0) {
+                        slot = schema.slotOf(name(name));
+                        slots[name] = slot;
+                    }
+                    code.load(slot);
+                    depth++;
+                } else if (kind >= ExpressionWriter.FUNCTION && kind - ExpressionWriter.FUNCTION < FUNCTIONS.length) {
+                    FunctionNode.Function function = FUNCTIONS[kind - ExpressionWriter.FUNCTION];
+                    if (depth < function.getArity()) {
+                        throw corrupted();
+                    }
+                    code.function(function);
+                    depth -= function.getArity() - 1;
+                } else if (kind >= ExpressionWriter.OPERATION && kind - ExpressionWriter.OPERATION < OPERATIONS.length) {
+                    if (depth < 2) {
+                        throw corrupted();
+                    }
+                    code.operation(OPERATIONS[kind - ExpressionWriter.OPERATION]);
+                    depth--;
+                } else {
+                    throw new RuntimeException("Библиотека выражений повреждена: неизвестный код узла " + kind);
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new RuntimeException("Библиотека выражений повреждена: данные обрезаны", e);
+        }
+        if (depth != 1 || position[0] != end) {
+            throw corrupted();
+        }
+        return new PostfixExpression(schema, code);
+    }
+
+    private int[] newSlotCache() {
+        int[] slots = new int[names.length];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    private String name(int index) {
+        if (index < 0 || index >= names.length) {
+            throw new RuntimeException("Библиотека выражений повреждена: неверный номер имени " + index);
+        }
+        return names[index];
+    }
+
+    private int readVarint(int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte current = buffer.get(position[0]++);
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new RuntimeException("Библиотека выражений повреждена: неверное число");
+    }
+
+    private static RuntimeException corrupted() {
+        return new RuntimeException("Библиотека выражений повреждена: неверная структура выражения");
+    }
+}
@@ -0,0 +1,175 @@
+package org.expression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись библиотеки именованных выражений в компактный двоичный формат, который читает {@link ExpressionReader}.
+ * Загрузка из этого формата не требует лексического и синтаксического разбора текста.
+ *
+ * Формат (целые без знака — varint, 7 бит на байт, младшие группы первыми):
+ * <pre>
+ * магия "EXPR", версия (1 байт)
+ * количество имён, затем для каждого имени: длина в байтах UTF-8 и байты
+ * количество выражений, затем для каждого выражения: номер имени, длина тела в байтах и тело
+ * </pre>
+ * Тело — узлы в обратной польской записи, каждый начинается с байта кода:
+ * число ({@code double} в IEEE 754, 8 байт, big-endian), целое число (varint в zigzag-кодировке),
+ * переменная (номер имени), операция или функция (код включает номер операции или функции).
+ * Переменные и выражения ссылаются на общую таблицу имён, поэтому каждое имя хранится один раз.
+ *
+ * Экземпляр не является потокобезопасным.
+ */
+public class ExpressionWriter {
+
+    static final int MAGIC = 0x45585052;  // "EXPR"
+    static final int VERSION = 1;
+
+    static final int NUMBER = 0;
+    static final int INTEGER = 1;
+    static final int VARIABLE = 2;
+    static final int OPERATION = 0x10;  // + номер OperationNode.Operation
+    static final int FUNCTION = 0x20;   // + номер FunctionNode.Function
+
+    private final Map<String, ExpressionNode> expressions = new LinkedHashMap<>();
+
+    /**
+     * Добавляет выражение в библиотеку.
+     *
+     * @param name Имя выражения.
+     * @param expression Корень абстрактного синтаксического дерева выражения.
+     * @throws IllegalArgumentException Если выражение с таким именем уже добавлено.
+     */
+    public void add(String name, ExpressionNode expression) {
+        if (expressions.putIfAbsent(name, expression) != null) {
+            throw new IllegalArgumentException("Выражение указано дважды: " + name);
+        }
+    }
+
+    /**
+     * Добавляет все выражения из карты в порядке её обхода.
+     *
+     * @param expressions Именованные выражения.
+     * @throws IllegalArgumentException Если выражение с каким-либо именем уже добавлено.
+     */
+    public void addAll(Map<String, ExpressionNode> expressions) {
+        for (Map.Entry<String, ExpressionNode> entry : expressions.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Кодирует библиотеку в массив байтов.
+     *
+     * @return Двоичное представление всех добавленных выражений.
+     */
+    public byte[] toByteArray() {
+        Map<String, Integer> names = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ByteArrayOutputStream expression = new ByteArrayOutputStream();
+        writeVarint(body, expressions.size());
+        for (Map.Entry<String, ExpressionNode> entry : expressions.entrySet()) {
+            expression.reset();
+            encode(entry.getValue(), expression, names, table);
+            writeVarint(body, nameIndex(entry.getKey(), names, table));
+            writeVarint(body, expression.size());
+            body.writeBytes(expression.toByteArray());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.size() + 16 * table.size() + 8);
+        out.write(MAGIC >>> 24);
+        out.write(MAGIC >>> 16);
+        out.write(MAGIC >>> 8);
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarint(out, table.size());
+        for (String name : table) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        out.writeBytes(body.toByteArray());
+        return out.toByteArray();
+    }
+
+    /**
+     * Записывает библиотеку в файл.
+     *
+     * @param path Путь к файлу.
+     * @throws IOException Если происходит ошибка ввода-вывода.
+     */
+    public void write(Path path) throws IOException {
+        Files.write(path, toByteArray());
+    }
+
+    /**
+     * Кодирует дерево в обратной польской записи без рекурсии: узел операции или функции
+     * посещается дважды — до и после своих операндов.
+     */
+    private static void encode(ExpressionNode root, ByteArrayOutputStream out,
+                               Map<String, Integer> names, List<String> table) {
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object item = stack.pop();
+            if (item instanceof OperationNode.Operation operation) {
+                out.write(OPERATION + operation.ordinal());
+            } else if (item instanceof FunctionNode.Function function) {
+                out.write(FUNCTION + function.ordinal());
+            } else if (item instanceof OperationNode operation) {
+                stack.push(operation.getOperation());
+                stack.push(operation.getRight());
+                stack.push(operation.getLeft());
+            } else if (item instanceof FunctionNode function) {
+                stack.push(function.getFunction());
+                for (int i = function.getFunction().getArity() - 1; i >= 0; i--) {
+                    stack.push(function.getArgument(i));
+                }
+            } else if (item instanceof NumberNode number) {
+                double value = number.getValue();
+                int integer = (int) value;
+                if (integer == value && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0)) {
+                    out.write(INTEGER);
+                    writeVarint(out, (integer << 1) ^ (integer >> 31));
+                } else {
+                    long bits = Double.doubleToRawLongBits(value);
+                    out.write(NUMBER);
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        out.write((int) (bits >>> shift));
+                    }
+                }
+            } else if (item instanceof VariableNode variable) {
+                out.write(VARIABLE);
+                writeVarint(out, nameIndex(variable.getName(), names, table));
+            } else {
+                throw new RuntimeException("Неизвестный тип узла: " + item.getClass().getName());
+            }
+        }
+    }
+
+    private static int nameIndex(String name, Map<String, Integer> names, List<String> table) {
+        return names.computeIfAbsent(name, key -> {
+            table.add(key);
+            return table.size() - 1;
+        });
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,177 @@
+package org.expression;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Представляет собой узел выражения, который применяет функцию к одному или нескольким аргументам:
+ * унарный минус или вызов математической функции ({@code sqrt}, {@code exp}, {@code log}, {@code abs},
+ * {@code min}, {@code max}, {@code fma}). Функции вычисляются методами {@link Math}, которые JIT
+ * заменяет машинными инструкциями, и следуют их семантике: например, {@code sqrt} отрицательного
+ * числа даёт {@code NaN}, а {@code log(0)} — минус бесконечность.
+ */
+public class FunctionNode extends ExpressionNode {
+    private final Function function;
+    private final ExpressionNode[] arguments;
+
+    /**
+     * Перечисление поддерживаемых функций.
+     */
+    public enum Function {
+        NEGATE("-", 1),  // Унарный минус
+        SQRT("sqrt", 1), // Квадратный корень
+        EXP("exp", 1),   // Экспонента
+        LOG("log", 1),   // Натуральный логарифм
+        ABS("abs", 1),   // Модуль
+        MIN("min", 2),   // Минимум
+        MAX("max", 2),   // Максимум
+        FMA("fma", 3);   // a * b + c с одним округлением
+
+        private final String name;
+        private final int arity;
+
+        Function(String name, int arity) {
+            this.name = name;
+            this.arity = arity;
+        }
+
+        /**
+         * Получает имя функции в тексте выражения.
+         *
+         * @return Имя функции; для унарного минуса — {@code "-"}.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Получает количество аргументов функции.
+         *
+         * @return Количество аргументов.
+         */
+        public int getArity() {
+            return arity;
+        }
+
+        /**
+         * Находит функцию по имени в тексте выражения.
+         *
+         * @param name Имя функции.
+         * @return Функция или {@code null}, если функции с таким именем нет.
+         */
+        public static Function byName(String name) {
+            for (Function function : values()) {
+                if (function.name.equals(name)) {
+                    return function;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Применяет функцию к уже вычисленным аргументам. Аргументы сверх количества аргументов функции игнорируются.
+         * Единая точка семантики функций для всех способов вычисления выражений.
+         *
+         * @param a Первый аргумент.
+         * @param b Второй аргумент.
+         * @param c Третий аргумент.
+         * @return Результат функции.
+         */
+        public double apply(double a, double b, double c) {
+            switch (this) {
+                case NEGATE:
+                    return -a;
+                case SQRT:
+                    return Math.sqrt(a);
+                case EXP:
+                    return Math.exp(a);
+                case LOG:
+                    return Math.log(a);
+                case ABS:
+                    return Math.abs(a);
+                case MIN:
+                    return Math.min(a, b);
+                case MAX:
+                    return Math.max(a, b);
+                case FMA:
+                    return Math.fma(a, b, c);
+                default:
+                    throw new RuntimeException("Неизвестная функция");
+            }
+        }
+    }
+
+    /**
+     * Конструктор, создающий узел функции с заданными аргументами.
+     *
+     * @param function Функция.
+     * @param arguments Аргументы функции.
+     * @throws IllegalArgumentException Если количество аргументов не соответствует функции.
+     */
+    public FunctionNode(Function function, ExpressionNode... arguments) {
+        if (arguments.length != function.getArity()) {
+            throw new IllegalArgumentException("Функция " + function.getName() + " ожидает аргументов: "
+                    + function.getArity() + ", передано: " + arguments.length);
+        }
+        this.function = function;
+        this.arguments = arguments.clone();
+    }
+
+    /**
+     * Получает функцию, которая выполняется этим узлом.
+     *
+     * @return Функция.
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Получает аргумент функции.
+     *
+     * @param index Номер аргумента.
+     * @return Аргумент.
+     */
+    public ExpressionNode getArgument(int index) {
+        return arguments[index];
+    }
+
+    /**
+     * Получает все аргументы функции.
+     *
+     * @return Неизменяемый список аргументов.
+     */
+    public List<ExpressionNode> getArguments() {
+        return List.of(arguments);
+    }
+
+    /**
+     * Вычисляет аргументы и применяет к ним функцию, используя переданные переменные.
+     *
+     * @param variables Набор переменных и их значений, используемых для вычисления.
+     * @return Результат вычисления функции.
+     * @throws ArithmeticException Если при вычислении аргументов происходит деление на ноль.
+     */
+    @Override
+    public double evaluate(Map<String, Double> variables) {
+        double a = arguments[0].evaluate(variables);
+        double b = arguments.length > 1 ? arguments[1].evaluate(variables) : 0;
+        double c = arguments.length > 2 ? arguments[2].evaluate(variables) : 0;
+        return function.apply(a, b, c);
+    }
+
+    /**
+     * Вычисляет аргументы и применяет к ним функцию, используя значения переменных по слотам.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления функции.
+     * @throws ArithmeticException Если при вычислении аргументов происходит деление на ноль.
+     */
+    @Override
+    public double evaluate(double[] slots) {
+        double a = arguments[0].evaluate(slots);
+        double b = arguments.length > 1 ? arguments[1].evaluate(slots) : 0;
+        double c = arguments.length > 2 ? arguments[2].evaluate(slots) : 0;
+        return function.apply(a, b, c);
+    }
+}
@@ -0,0 +1,275 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Вычисление значения выражения вместе с полным градиентом за один проход в прямом режиме
+ * автоматического дифференцирования (дуальные числа): каждый узел несёт своё значение и вектор
+ * частных производных по всем переменным схемы. Заменяет {@code 2N} дополнительных вычислений
+ * конечными разностями одним проходом стоимостью {@code O(узлов * N)}, без погрешности шага.
+ *
+ * Значения узлов вычисляются так же, как при обычном вычислении, включая ошибку деления на ноль.
+ * Производные — по тем же правилам, что в {@link ExpressionDifferentiator}; нулевая производная аргумента
+ * даёт нулевой вклад без вычисления множителя. В изломах модуля, минимума и максимума берётся тот же субградиент,
+ * что и в символьной производной: {@code abs'(0) = 0}, а при равных аргументах минимума и максимума —
+ * среднее производных аргументов. В остальных точках, где производная не определена (корень и логарифм в нуле),
+ * частные производные — бесконечность или NaN.
+ *
+ * Выражение раскладывается в массив инструкций один раз; рабочие массивы создаются на каждый вызов,
+ * поэтому экземпляр может использоваться из нескольких потоков.
+ */
+public class GradientEvaluator {
+
+    private static final int CONSTANT = 0;
+    private static final int VARIABLE = 1;
+    private static final int OPERATION = 2;
+    private static final int FUNCTION = 3;
+
+    private final VariableSchema schema;
+    private final int[] kinds;                  // Вид узла: константа, переменная, операция или функция
+    private final OperationNode.Operation[] operations;
+    private final FunctionNode.Function[] functions;
+    private final double[] constants;           // Значения констант
+    private final int[] lefts;                  // Номер левого операнда (первого аргумента) или слот переменной
+    private final int[] rights;                 // Номер правого операнда (второго аргумента)
+    private final int[] thirds;                 // Номер третьего аргумента
+
+    /**
+     * Конструктор вычислителя. Схема переменных составляется из переменных выражения в порядке их появления.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     */
+    public GradientEvaluator(ExpressionNode node) {
+        this(VariableSchema.from(node).bind(node));
+    }
+
+    /**
+     * Конструктор вычислителя привязанного выражения; градиент берётся по всем переменным его схемы.
+     *
+     * @param expression Привязанное выражение.
+     */
+    public GradientEvaluator(BoundExpression expression) {
+        this.schema = expression.getSchema();
+        Map<ExpressionNode, Integer> indexes = new IdentityHashMap<>();
+        List<ExpressionNode> order = new ArrayList<>();
+        ExpressionDag.linearize(expression.getRoot(), indexes, order);
+
+        int size = order.size();
+        this.kinds = new int[size];
+        this.operations = new OperationNode.Operation[size];
+        this.functions = new FunctionNode.Function[size];
+        this.constants = new double[size];
+        this.lefts = new int[size];
+        this.rights = new int[size];
+        this.thirds = new int[size];
+        for (int i = 0; i < size; i++) {
+            ExpressionNode node = order.get(i);
+            if (node instanceof NumberNode number) {
+                kinds[i] = CONSTANT;
+                constants[i] = number.getValue();
+            } else if (node instanceof VariableNode variable) {
+                kinds[i] = VARIABLE;
+                lefts[i] = variable.getSlot();
+            } else {
+                // Отсутствующие аргументы функции ссылаются на первый
+                List<ExpressionNode> operands = ExpressionDag.operands(node);
+                if (node instanceof OperationNode operation) {
+                    kinds[i] = OPERATION;
+                    operations[i] = operation.getOperation();
+                } else {
+                    kinds[i] = FUNCTION;
+                    functions[i] = ((FunctionNode) node).getFunction();
+                }
+                lefts[i] = indexes.get(operands.get(0));
+                rights[i] = operands.size() > 1 ? indexes.get(operands.get(1)) : lefts[i];
+                thirds[i] = operands.size() > 2 ? indexes.get(operands.get(2)) : lefts[i];
+            }
+        }
+    }
+
+    /**
+     * Получает схему переменных, по которым вычисляется градиент.
+     *
+     * @return Схема переменных.
+     */
+    public VariableSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Вычисляет значение выражения и его градиент.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @param gradient Массив не короче количества переменных схемы; в слот каждой переменной
+     *                 записывается частная производная по ней.
+     * @return Значение выражения.
+     * @throws ArithmeticException Если при вычислении значения происходит деление на ноль.
+     */
+    public double evaluate(double[] slots, double[] gradient) {
+        int n = schema.size();
+        int size = kinds.length;
+        double[] values = new double[size];
+        double[] derivatives = new double[size * n];  // Строка i — производные узла i
+        for (int i = 0; i < size; i++) {
+            int row = i * n;
+            switch (kinds[i]) {
+                case CONSTANT:
+                    values[i] = constants[i];
+                    break;
+                case VARIABLE:
+                    values[i] = slots[lefts[i]];
+                    derivatives[row + lefts[i]] = 1;
+                    break;
+                case OPERATION:
+                    values[i] = operation(operations[i], lefts[i], rights[i], values, derivatives, row, n);
+                    break;
+                default:
+                    values[i] = function(functions[i], lefts[i], rights[i], thirds[i], values, derivatives, row, n);
+                    break;
+            }
+        }
+        System.arraycopy(derivatives, (size - 1) * n, gradient, 0, n);
+        return values[size - 1];
+    }
+
+    /**
+     * Вычисляет градиент выражения по карте переменных.
+     *
+     * @param variables Значения переменных.
+     * @return Карта имён переменных (в порядке схемы) и частных производных.
+     * @throws ArithmeticException Если при вычислении значения происходит деление на ноль.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public Map<String, Double> gradient(Map<String, Double> variables) {
+        double[] gradient = new double[schema.size()];
+        evaluate(schema.toSlots(variables), gradient);
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int i = 0; i < gradient.length; i++) {
+            result.put(schema.getNames().get(i), gradient[i]);
+        }
+        return result;
+    }
+
+    private static double operation(OperationNode.Operation operation, int left, int right,
+                                    double[] values, double[] derivatives, int row, int n) {
+        double a = values[left];
+        double b = values[right];
+        double value = operation.apply(a, b);
+        int da = left * n;
+        int db = right * n;
+        switch (operation) {
+            case ADD:
+                for (int k = 0; k < n; k++) {
+                    derivatives[row + k] = derivatives[da + k] + derivatives[db + k];
+                }
+                break;
+            case SUBTRACT:
+                for (int k = 0; k < n; k++) {
+                    derivatives[row + k] = derivatives[da + k] - derivatives[db + k];
+                }
+                break;
+            case MULTIPLY:
+                for (int k = 0; k < n; k++) {
+                    derivatives[row + k] = scale(derivatives[da + k], b) + scale(derivatives[db + k], a);
+                }
+                break;
+            case DIVIDE:
+                // (u' - (u / v) * v') / v
+                for (int k = 0; k < n; k++) {
+                    derivatives[row + k] = scale(derivatives[da + k] - scale(derivatives[db + k], value), 1 / b);
+                }
+                break;
+            case POWER: {
+                // v * u ^ (v - 1) * u' + u ^ v * log(u) * v'; множители вычисляются, только если нужны
+                double baseFactor = Double.NaN;
+                double exponentFactor = Double.NaN;
+                for (int k = 0; k < n; k++) {
+                    double du = derivatives[da + k];
+                    double dv = derivatives[db + k];
+                    double result = 0;
+                    if (du != 0) {
+                        if (Double.isNaN(baseFactor)) {
+                            baseFactor = b * OperationNode.power(a, b - 1);
+                        }
+                        result += baseFactor * du;
+                    }
+                    if (dv != 0) {
+                        if (Double.isNaN(exponentFactor)) {
+                            exponentFactor = value * Math.log(a);
+                        }
+                        result += exponentFactor * dv;
+                    }
+                    derivatives[row + k] = result;
+                }
+                break;
+            }
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+        return value;
+    }
+
+    private static double function(FunctionNode.Function function, int first, int second, int third,
+                                   double[] values, double[] derivatives, int row, int n) {
+        double a = values[first];
+        double b = values[second];
+        double value = function.apply(a, b, values[third]);
+        int da = first * n;
+        int db = second * n;
+        int dc = third * n;
+        double factor;
+        switch (function) {
+            case NEGATE:
+                factor = -1;
+                break;
+            case SQRT:
+                factor = 1 / (2 * value);
+                break;
+            case EXP:
+                factor = value;
+                break;
+            case LOG:
+                factor = 1 / a;
+                break;
+            case ABS:
+                factor = Math.signum(a);
+                break;
+            case MIN:
+            case MAX: {
+                // Веса аргументов 1 и 0, при равенстве — 1/2 и 1/2; те же, что в ExpressionDifferentiator
+                double sign = Math.signum(a - b);
+                double leftWeight = function == FunctionNode.Function.MIN ? (1 - sign) / 2 : (1 + sign) / 2;
+                double rightWeight = function == FunctionNode.Function.MIN ? (1 + sign) / 2 : (1 - sign) / 2;
+                for (int k = 0; k < n; k++) {
+                    derivatives[row + k] = scale(derivatives[da + k], leftWeight)
+                            + scale(derivatives[db + k], rightWeight);
+                }
+                return value;
+            }
+            case FMA:
+                for (int k = 0; k < n; k++) {
+                    derivatives[row + k] = scale(derivatives[da + k], b) + scale(derivatives[db + k], a)
+                            + derivatives[dc + k];
+                }
+                return value;
+            default:
+                throw new RuntimeException("Неизвестная функция");
+        }
+        for (int k = 0; k < n; k++) {
+            derivatives[row + k] = scale(derivatives[da + k], factor);
+        }
+        return value;
+    }
+
+    /**
+     * Произведение производной на множитель, в котором нулевая производная остаётся нулём,
+     * даже если множитель бесконечен или не является числом.
+     */
+    private static double scale(double derivative, double factor) {
+        return derivative == 0 ? 0 : derivative * factor;
+    }
+}
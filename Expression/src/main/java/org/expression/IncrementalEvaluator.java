@@ -0,0 +1,301 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Инкрементальный вычислитель выражения для потоковых данных, в которых между вычислениями меняется
+ * лишь несколько переменных. Значение каждого узла хранится между вычислениями; для каждой переменной
+ * известны зависящие от неё узлы. Изменение переменной ({@link #set(String, double)}) помечает
+ * «грязным» только путь от её узлов к корню, и при следующем {@link #getValue()} пересчитываются
+ * только эти узлы — остальные поддеревья берутся из сохранённых значений.
+ *
+ * Узлы, общие для нескольких родителей (например, после {@link ExpressionInterner}), пересчитываются
+ * один раз. Экземпляр хранит изменяемое состояние и не предназначен для использования из нескольких потоков.
+ */
+public class IncrementalEvaluator {
+
+    private static final int CONSTANT = 0;
+    private static final int VARIABLE = 1;
+    private static final int OPERATION = 2;
+    private static final int FUNCTION = 3;
+
+    private final VariableSchema schema;
+    private final int[] kinds;                  // Вид узла: константа, переменная, операция или функция
+    private final OperationNode.Operation[] operations;
+    private final FunctionNode.Function[] functions;
+    private final int[] lefts;                  // Номер левого операнда (первого аргумента) или слот переменной
+    private final int[] rights;                 // Номер правого операнда (второго аргумента)
+    private final int[] thirds;                 // Номер третьего аргумента
+    private final int[] parentStarts;           // Начало списка родителей узла в parents
+    private final int[] parents;                // Родители всех узлов подряд
+    private final int[] slotStarts;             // Начало списка узлов переменной в slotNodes
+    private final int[] slotNodes;              // Узлы всех переменных подряд
+    private final int root;
+
+    private final double[] slots;               // Текущие значения переменных
+    private final double[] values;              // Сохранённые значения узлов
+    private final boolean[] dirty;              // Узлы, требующие пересчёта
+    private int[] pending = new int[16];        // Номера «грязных» узлов
+    private int pendingCount;
+    private int lastRecomputed;                 // Количество узлов, пересчитанных последним вычислением
+    private long totalRecomputed;               // Количество узлов, пересчитанных за всё время
+
+    /**
+     * Конструктор инкрементального вычислителя. Начальные значения узлов вычисляются полностью.
+     *
+     * @param expression Привязанное выражение.
+     * @param variables Начальные значения всех переменных схемы.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     * @throws ArithmeticException Если при начальных значениях происходит деление на ноль.
+     */
+    public IncrementalEvaluator(BoundExpression expression, Map<String, Double> variables) {
+        this(expression, expression.getSchema().toSlots(variables));
+    }
+
+    /**
+     * Конструктор инкрементального вычислителя. Начальные значения узлов вычисляются полностью.
+     *
+     * @param expression Привязанное выражение.
+     * @param slots Начальные значения переменных, расположенные по номерам слотов схемы; массив копируется.
+     * @throws ArithmeticException Если при начальных значениях происходит деление на ноль.
+     */
+    public IncrementalEvaluator(BoundExpression expression, double[] slots) {
+        this.schema = expression.getSchema();
+        this.slots = Arrays.copyOf(slots, schema.size());
+
+        Map<ExpressionNode, Integer> indexes = new IdentityHashMap<>();
+        List<ExpressionNode> order = new ArrayList<>();
+        ExpressionDag.linearize(expression.getRoot(), indexes, order);
+
+        int size = order.size();
+        this.kinds = new int[size];
+        this.operations = new OperationNode.Operation[size];
+        this.functions = new FunctionNode.Function[size];
+        this.lefts = new int[size];
+        this.rights = new int[size];
+        this.thirds = new int[size];
+        int[] parentCounts = new int[size + 1];
+        int[] slotCounts = new int[schema.size() + 1];
+        for (int i = 0; i < size; i++) {
+            ExpressionNode node = order.get(i);
+            if (node instanceof NumberNode) {
+                kinds[i] = CONSTANT;
+            } else if (node instanceof VariableNode variable) {
+                kinds[i] = VARIABLE;
+                lefts[i] = variable.getSlot();
+                slotCounts[lefts[i] + 1]++;
+            } else {
+                // Отсутствующие аргументы функции ссылаются на первый
+                List<ExpressionNode> operands = ExpressionDag.operands(node);
+                if (node instanceof OperationNode operation) {
+                    kinds[i] = OPERATION;
+                    operations[i] = operation.getOperation();
+                } else {
+                    kinds[i] = FUNCTION;
+                    functions[i] = ((FunctionNode) node).getFunction();
+                }
+                lefts[i] = indexes.get(operands.get(0));
+                rights[i] = operands.size() > 1 ? indexes.get(operands.get(1)) : lefts[i];
+                thirds[i] = operands.size() > 2 ? indexes.get(operands.get(2)) : lefts[i];
+                for (int operand : distinctOperands(i)) {
+                    parentCounts[operand + 1]++;
+                }
+            }
+        }
+        this.root = size - 1;
+
+        // Списки родителей и узлов переменных в сжатом виде: префиксные суммы, затем заполнение
+        for (int i = 0; i < size; i++) {
+            parentCounts[i + 1] += parentCounts[i];
+        }
+        for (int i = 0; i < schema.size(); i++) {
+            slotCounts[i + 1] += slotCounts[i];
+        }
+        this.parentStarts = parentCounts.clone();
+        this.slotStarts = slotCounts.clone();
+        this.parents = new int[parentCounts[size]];
+        this.slotNodes = new int[slotCounts[schema.size()]];
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] == VARIABLE) {
+                slotNodes[slotCounts[lefts[i]]++] = i;
+            } else if (kinds[i] != CONSTANT) {
+                for (int operand : distinctOperands(i)) {
+                    parents[parentCounts[operand]++] = i;
+                }
+            }
+        }
+
+        this.values = new double[size];
+        this.dirty = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] == CONSTANT) {
+                values[i] = ((NumberNode) order.get(i)).getValue();
+            } else {
+                markDirty(i);
+            }
+        }
+        recompute();  // Не через переопределяемый getValue(): объект ещё не создан полностью
+    }
+
+    /**
+     * Получает схему переменных выражения.
+     *
+     * @return Схема переменных.
+     */
+    public VariableSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Получает количество узлов выражения.
+     *
+     * @return Количество узлов, пересчитываемых при полном вычислении.
+     */
+    public int getNodeCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Изменяет значение переменной и помечает зависящие от неё узлы для пересчёта.
+     * Если значение не изменилось, ничего не помечается.
+     *
+     * @param name Имя переменной.
+     * @param value Новое значение.
+     * @throws RuntimeException Если переменная отсутствует в схеме.
+     */
+    public void set(String name, double value) {
+        set(schema.slotOf(name), value);
+    }
+
+    /**
+     * Изменяет значение переменной в слоте и помечает зависящие от неё узлы для пересчёта.
+     * Если значение не изменилось, ничего не помечается.
+     *
+     * @param slot Номер слота переменной в схеме.
+     * @param value Новое значение.
+     */
+    public void set(int slot, double value) {
+        if (Double.doubleToLongBits(slots[slot]) == Double.doubleToLongBits(value)) {
+            return;
+        }
+        slots[slot] = value;
+        for (int i = slotStarts[slot]; i < slotStarts[slot + 1]; i++) {
+            markDirty(slotNodes[i]);
+        }
+    }
+
+    /**
+     * Получает текущее значение переменной.
+     *
+     * @param name Имя переменной.
+     * @return Значение переменной.
+     * @throws RuntimeException Если переменная отсутствует в схеме.
+     */
+    public double get(String name) {
+        return slots[schema.slotOf(name)];
+    }
+
+    /**
+     * Получает значение выражения, пересчитывая только узлы, зависящие от изменённых переменных.
+     * Если пересчёт прерывается делением на ноль, узлы остаются помеченными и будут пересчитаны
+     * при следующем вызове.
+     *
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double getValue() {
+        return recompute();
+    }
+
+    private double recompute() {
+        if (pendingCount > 0) {
+            // Номера узлов идут в обратном польском порядке, поэтому операнды пересчитываются раньше родителей
+            Arrays.sort(pending, 0, pendingCount);
+            for (int k = 0; k < pendingCount; k++) {
+                int i = pending[k];
+                if (kinds[i] == VARIABLE) {
+                    values[i] = slots[lefts[i]];
+                } else if (kinds[i] == OPERATION) {
+                    values[i] = operations[i].apply(values[lefts[i]], values[rights[i]]);
+                } else {
+                    values[i] = functions[i].apply(values[lefts[i]], values[rights[i]], values[thirds[i]]);
+                }
+            }
+            for (int k = 0; k < pendingCount; k++) {
+                dirty[pending[k]] = false;
+            }
+            lastRecomputed = pendingCount;
+            totalRecomputed += pendingCount;
+            pendingCount = 0;
+        } else {
+            lastRecomputed = 0;
+        }
+        return values[root];
+    }
+
+    /**
+     * Получает количество узлов, пересчитанных последним вызовом {@link #getValue()}.
+     *
+     * @return Количество пересчитанных узлов.
+     */
+    public int getLastRecomputedCount() {
+        return lastRecomputed;
+    }
+
+    /**
+     * Получает количество узлов, пересчитанных за всё время, включая начальное вычисление.
+     *
+     * @return Общее количество пересчитанных узлов.
+     */
+    public long getTotalRecomputedCount() {
+        return totalRecomputed;
+    }
+
+    /**
+     * Получает различные номера операндов узла, чтобы общий операнд давал одного родителя.
+     */
+    private int[] distinctOperands(int node) {
+        int left = lefts[node];
+        int right = rights[node];
+        int third = thirds[node];
+        if (kinds[node] == OPERATION) {
+            return left == right ? new int[]{left} : new int[]{left, right};
+        }
+        if (right == left) {
+            return third == left ? new int[]{left} : new int[]{left, third};
+        }
+        return third == left || third == right ? new int[]{left, right} : new int[]{left, right, third};
+    }
+
+    /**
+     * Помечает узел и всех его предков без рекурсии; уже помеченные ветви не обходятся повторно.
+     */
+    private void markDirty(int node) {
+        if (dirty[node]) {
+            return;
+        }
+        int start = pendingCount;
+        push(node);
+        for (int k = start; k < pendingCount; k++) {
+            int current = pending[k];
+            for (int p = parentStarts[current]; p < parentStarts[current + 1]; p++) {
+                int parent = parents[p];
+                if (!dirty[parent]) {
+                    push(parent);
+                }
+            }
+        }
+    }
+
+    private void push(int node) {
+        dirty[node] = true;
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        }
+        pending[pendingCount++] = node;
+    }
+}
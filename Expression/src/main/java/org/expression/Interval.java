@@ -0,0 +1,336 @@
+package org.expression;
+
+/**
+ * Замкнутый числовой интервал {@code [lower, upper]} и интервальная арифметика над ним.
+ *
+ * Каждая операция возвращает интервал, содержащий результат этой операции для любых чисел из интервалов-аргументов.
+ * Границы результата округляются наружу ({@link Math#nextDown(double)} и {@link Math#nextUp(double)}),
+ * поэтому ошибки округления не могут вывести точное значение за пределы интервала; у функций
+ * {@link Math#exp(double)} и {@link Math#log(double)}, точных до 1 ulp, запас — 2 ulp.
+ *
+ * Границы покрывают все результаты, являющиеся числами. Значения «не число» (например, корень из отрицательного
+ * числа) интервалом не описываются; если аргумент целиком лежит вне области определения функции или границу
+ * нельзя вычислить (например, {@code inf - inf}), результатом является вся числовая прямая {@link #ENTIRE}.
+ *
+ * Экземпляры неизменяемы.
+ */
+public final class Interval {
+
+    /**
+     * Вся числовая прямая {@code [-inf, inf]}: о значении ничего не известно.
+     */
+    public static final Interval ENTIRE = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    private final double lower;
+    private final double upper;
+
+    private Interval(double lower, double upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Создаёт интервал с заданными границами.
+     *
+     * @param lower Нижняя граница.
+     * @param upper Верхняя граница.
+     * @return Интервал {@code [lower, upper]}.
+     * @throws IllegalArgumentException Если граница не является числом или нижняя граница больше верхней.
+     */
+    public static Interval of(double lower, double upper) {
+        if (!(lower <= upper)) {
+            throw new IllegalArgumentException("Неверный интервал: [" + lower + ", " + upper + "]");
+        }
+        return new Interval(lower, upper);
+    }
+
+    /**
+     * Создаёт интервал из одного числа.
+     *
+     * @param value Число.
+     * @return Интервал {@code [value, value]}.
+     * @throws IllegalArgumentException Если значение не является числом.
+     */
+    public static Interval point(double value) {
+        return of(value, value);
+    }
+
+    /**
+     * Получает нижнюю границу интервала.
+     *
+     * @return Нижняя граница.
+     */
+    public double getLower() {
+        return lower;
+    }
+
+    /**
+     * Получает верхнюю границу интервала.
+     *
+     * @return Верхняя граница.
+     */
+    public double getUpper() {
+        return upper;
+    }
+
+    /**
+     * Проверяет, принадлежит ли число интервалу.
+     *
+     * @param value Число.
+     * @return {@code true}, если {@code lower <= value <= upper}.
+     */
+    public boolean contains(double value) {
+        return lower <= value && value <= upper;
+    }
+
+    /**
+     * Сложение интервалов.
+     *
+     * @param other Второе слагаемое.
+     * @return Интервал суммы.
+     */
+    public Interval add(Interval other) {
+        return bound(down(lower + other.lower), up(upper + other.upper));
+    }
+
+    /**
+     * Вычитание интервалов.
+     *
+     * @param other Вычитаемое.
+     * @return Интервал разности.
+     */
+    public Interval subtract(Interval other) {
+        return bound(down(lower - other.upper), up(upper - other.lower));
+    }
+
+    /**
+     * Умножение интервалов: наименьшее и наибольшее из произведений границ.
+     *
+     * @param other Второй множитель.
+     * @return Интервал произведения.
+     */
+    public Interval multiply(Interval other) {
+        double a = product(lower, other.lower);
+        double b = product(lower, other.upper);
+        double c = product(upper, other.lower);
+        double d = product(upper, other.upper);
+        return bound(down(Math.min(Math.min(a, b), Math.min(c, d))), up(Math.max(Math.max(a, b), Math.max(c, d))));
+    }
+
+    /**
+     * Деление интервалов. Деление на ноль при вычислении выражения является ошибкой, поэтому ноль
+     * исключается из делителя: делитель {@code [0, b]} рассматривается как {@code (0, b]} и даёт луч.
+     * Если делитель содержит ноль внутри или равен нулю, результат — вся числовая прямая.
+     *
+     * @param other Делитель.
+     * @return Интервал частного.
+     */
+    public Interval divide(Interval other) {
+        if (other.lower > 0 || other.upper < 0) {
+            double a = lower / other.lower;
+            double b = lower / other.upper;
+            double c = upper / other.lower;
+            double d = upper / other.upper;
+            return bound(down(Math.min(Math.min(a, b), Math.min(c, d))), up(Math.max(Math.max(a, b), Math.max(c, d))));
+        }
+        if (other.lower == 0 && other.upper > 0) {
+            if (lower >= 0) {
+                return bound(down(lower / other.upper), Double.POSITIVE_INFINITY);
+            } else if (upper <= 0) {
+                return bound(Double.NEGATIVE_INFINITY, up(upper / other.upper));
+            }
+        } else if (other.upper == 0 && other.lower < 0) {
+            if (lower >= 0) {
+                return bound(Double.NEGATIVE_INFINITY, up(lower / other.lower));
+            } else if (upper <= 0) {
+                return bound(down(upper / other.lower), Double.POSITIVE_INFINITY);
+            }
+        }
+        return ENTIRE;
+    }
+
+    /**
+     * Возведение в степень. Для целого показателя-числа границы вычисляются возведением в квадрат
+     * с направленным округлением каждого умножения, поэтому покрывают и результат {@link OperationNode#power};
+     * иначе степень вычисляется как {@code exp(y * log(x))}, что требует неотрицательного основания.
+     *
+     * @param exponent Показатель степени.
+     * @return Интервал степени.
+     */
+    public Interval power(Interval exponent) {
+        double n = exponent.lower;
+        if (n == exponent.upper && n == Math.rint(n) && Math.abs(n) <= Integer.MAX_VALUE) {
+            return power((int) n);
+        }
+        if (lower >= 0) {
+            return exponent.multiply(log()).exp();
+        }
+        return ENTIRE;
+    }
+
+    /**
+     * Смена знака.
+     *
+     * @return Интервал {@code [-upper, -lower]}.
+     */
+    public Interval negate() {
+        return new Interval(-upper, -lower);
+    }
+
+    /**
+     * Квадратный корень; отрицательная часть аргумента отбрасывается.
+     *
+     * @return Интервал корня.
+     */
+    public Interval sqrt() {
+        if (upper < 0) {
+            return ENTIRE;
+        }
+        return bound(Math.max(0, down(Math.sqrt(Math.max(lower, 0)))), up(Math.sqrt(upper)));
+    }
+
+    /**
+     * Экспонента.
+     *
+     * @return Интервал экспоненты.
+     */
+    public Interval exp() {
+        return bound(Math.max(0, down(down(Math.exp(lower)))), up(up(Math.exp(upper))));
+    }
+
+    /**
+     * Натуральный логарифм; отрицательная часть аргумента отбрасывается, логарифм нуля — минус бесконечность.
+     *
+     * @return Интервал логарифма.
+     */
+    public Interval log() {
+        if (upper < 0) {
+            return ENTIRE;
+        }
+        return bound(down(down(Math.log(Math.max(lower, 0)))), up(up(Math.log(upper))));
+    }
+
+    /**
+     * Модуль.
+     *
+     * @return Интервал модуля.
+     */
+    public Interval abs() {
+        if (lower >= 0) {
+            return this;
+        } else if (upper <= 0) {
+            return negate();
+        }
+        return new Interval(0, Math.max(-lower, upper));
+    }
+
+    /**
+     * Наименьшее из двух значений.
+     *
+     * @param other Второй аргумент.
+     * @return Интервал минимума.
+     */
+    public Interval min(Interval other) {
+        return new Interval(Math.min(lower, other.lower), Math.min(upper, other.upper));
+    }
+
+    /**
+     * Наибольшее из двух значений.
+     *
+     * @param other Второй аргумент.
+     * @return Интервал максимума.
+     */
+    public Interval max(Interval other) {
+        return new Interval(Math.max(lower, other.lower), Math.max(upper, other.upper));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Interval interval
+                && Double.compare(lower, interval.lower) == 0 && Double.compare(upper, interval.upper) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(lower) * 31 + Double.hashCode(upper);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lower + ", " + upper + "]";
+    }
+
+    /**
+     * Целая степень: чётная степень монотонна по модулю основания, нечётная — по основанию.
+     */
+    private Interval power(int n) {
+        if (n == 0) {
+            return point(1);
+        }
+        long m = Math.abs((long) n);
+        Interval result;
+        if (m % 2 == 0) {
+            Interval base = abs();
+            result = bound(powerDown(base.lower, m), powerUp(base.upper, m));
+        } else {
+            result = bound(lower >= 0 ? powerDown(lower, m) : -powerUp(-lower, m),
+                    upper >= 0 ? powerUp(upper, m) : -powerDown(-upper, m));
+        }
+        return n < 0 ? point(1).divide(result) : result;
+    }
+
+    /**
+     * Нижняя граница неотрицательного числа в натуральной степени.
+     */
+    private static double powerDown(double base, long n) {
+        double result = 1;
+        double square = base;
+        for (long k = n; k != 0; k >>>= 1) {
+            if ((k & 1) != 0) {
+                result = Math.max(0, down(result * square));
+            }
+            square = Math.max(0, down(square * square));
+        }
+        // Большие показатели OperationNode.power вычисляет через Math.pow с точностью до 1 ulp
+        return n > OperationNode.MAX_SQUARING_EXPONENT ? Math.max(0, down(result)) : result;
+    }
+
+    /**
+     * Верхняя граница неотрицательного числа в натуральной степени.
+     */
+    private static double powerUp(double base, long n) {
+        double result = 1;
+        double square = base;
+        for (long k = n; k != 0; k >>>= 1) {
+            if ((k & 1) != 0) {
+                result = up(result * square);
+            }
+            square = up(square * square);
+        }
+        return n > OperationNode.MAX_SQUARING_EXPONENT ? up(result) : result;
+    }
+
+    /**
+     * Произведение границ, в котором ноль, умноженный на бесконечность, равен нулю:
+     * границы — пределы, а не значения, и ноль в интервале умножается на конечные числа.
+     */
+    private static double product(double a, double b) {
+        return a == 0 || b == 0 ? 0 : a * b;
+    }
+
+    /**
+     * Создаёт интервал из вычисленных границ; граница, которую не удалось вычислить, становится бесконечной.
+     */
+    private static Interval bound(double lower, double upper) {
+        return new Interval(Double.isNaN(lower) ? Double.NEGATIVE_INFINITY : lower,
+                Double.isNaN(upper) ? Double.POSITIVE_INFINITY : upper);
+    }
+
+    private static double down(double value) {
+        return Math.nextDown(value);
+    }
+
+    private static double up(double value) {
+        return Math.nextUp(value);
+    }
+}
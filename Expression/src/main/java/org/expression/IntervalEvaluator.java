@@ -0,0 +1,139 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Интервальный вычислитель: по интервалам значений переменных {@code [min, max]} получает интервал,
+ * гарантированно содержащий значение выражения для любых значений переменных из этих интервалов.
+ *
+ * Предназначен для отсечения целых разделов данных по статистике минимумов и максимумов столбцов:
+ * если, например, верхняя граница результата меньше порога фильтра, ни одна строка раздела фильтр не пройдёт,
+ * и вычислять выражение по строкам не нужно. Граница может быть шире точного диапазона значений
+ * (переменная, встречающаяся в выражении несколько раз, считается независимой), но никогда не уже.
+ *
+ * Деление на интервал, содержащий ноль, не является ошибкой: строки с нулевым делителем при обычном
+ * вычислении выбрасывают исключение, а для остальных результат ограничивается, как описано в {@link Interval#divide}.
+ * Обход выполняется без рекурсии, общие узлы графа вычисляются один раз.
+ */
+public class IntervalEvaluator {
+
+    private final Map<String, Interval> variables;
+
+    /**
+     * Конструктор интервального вычислителя.
+     *
+     * @param variables Карта переменных и интервалов их значений.
+     */
+    public IntervalEvaluator(Map<String, Interval> variables) {
+        this.variables = variables;
+    }
+
+    /**
+     * Вычисляет интервал значений выражения.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @return Интервал, содержащий все значения выражения, являющиеся числами.
+     * @throws RuntimeException Если интервал какой-либо переменной не задан.
+     */
+    public Interval evaluate(ExpressionNode node) {
+        Map<ExpressionNode, Integer> indexes = new IdentityHashMap<>();
+        List<ExpressionNode> order = new ArrayList<>();
+        ExpressionDag.linearize(node, indexes, order);
+
+        Interval[] values = new Interval[order.size()];
+        for (int i = 0; i < values.length; i++) {
+            ExpressionNode current = order.get(i);
+            if (current instanceof NumberNode number) {
+                values[i] = Interval.point(number.getValue());
+            } else if (current instanceof VariableNode variable) {
+                values[i] = variables.get(variable.getName());
+                if (values[i] == null) {
+                    throw new RuntimeException("Переменная не определена: " + variable.getName());
+                }
+            } else if (current instanceof OperationNode operation) {
+                values[i] = apply(operation.getOperation(),
+                        values[indexes.get(operation.getLeft())], values[indexes.get(operation.getRight())]);
+            } else if (current instanceof FunctionNode function) {
+                Interval[] arguments = new Interval[3];
+                for (int k = 0; k < function.getFunction().getArity(); k++) {
+                    arguments[k] = values[indexes.get(function.getArgument(k))];
+                }
+                values[i] = apply(function.getFunction(), arguments[0], arguments[1], arguments[2]);
+            } else {
+                throw new RuntimeException("Неизвестный тип узла: " + current.getClass().getName());
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    /**
+     * Вычисляет интервал значений выражения, привязанного к схеме переменных.
+     *
+     * @param expression Привязанное выражение.
+     * @return Интервал, содержащий все значения выражения, являющиеся числами.
+     * @throws RuntimeException Если интервал какой-либо переменной не задан.
+     */
+    public Interval evaluate(BoundExpression expression) {
+        return evaluate(expression.getRoot());
+    }
+
+    /**
+     * Применяет операцию к интервалам операндов.
+     *
+     * @param operation Операция.
+     * @param left Интервал левого операнда.
+     * @param right Интервал правого операнда.
+     * @return Интервал результата.
+     */
+    public static Interval apply(OperationNode.Operation operation, Interval left, Interval right) {
+        switch (operation) {
+            case ADD:
+                return left.add(right);
+            case SUBTRACT:
+                return left.subtract(right);
+            case MULTIPLY:
+                return left.multiply(right);
+            case DIVIDE:
+                return left.divide(right);
+            case POWER:
+                return left.power(right);
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+    }
+
+    /**
+     * Применяет функцию к интервалам аргументов; лишние аргументы игнорируются.
+     *
+     * @param function Функция.
+     * @param a Интервал первого аргумента.
+     * @param b Интервал второго аргумента.
+     * @param c Интервал третьего аргумента.
+     * @return Интервал результата.
+     */
+    public static Interval apply(FunctionNode.Function function, Interval a, Interval b, Interval c) {
+        switch (function) {
+            case NEGATE:
+                return a.negate();
+            case SQRT:
+                return a.sqrt();
+            case EXP:
+                return a.exp();
+            case LOG:
+                return a.log();
+            case ABS:
+                return a.abs();
+            case MIN:
+                return a.min(b);
+            case MAX:
+                return a.max(b);
+            case FMA:
+                return a.multiply(b).add(c);
+            default:
+                throw new RuntimeException("Неизвестная функция");
+        }
+    }
+}
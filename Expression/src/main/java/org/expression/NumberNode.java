@@ -7,7 +7,7 @@ import java.util.Map;
  * Этот класс используется для хранения и обработки числовых значений в дереве выражений.
  */
 public class NumberNode extends ExpressionNode {
-    private double value;
+    private final double value;
 
     /**
      * Конструктор, создающий узел числа с заданным значением.
@@ -37,4 +37,15 @@ public class NumberNode extends ExpressionNode {
     public double evaluate(Map<String, Double> variables) {
         return value;
     }
+
+    /**
+     * Выполняет вычисление для числа по слотам переменных. Значение возвращается как есть.
+     *
+     * @param slots Значения переменных по слотам, для этого узла не требуются.
+     * @return Значение числа.
+     */
+    @Override
+    public double evaluate(double[] slots) {
+        return value;
+    }
 }
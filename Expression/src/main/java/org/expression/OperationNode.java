@@ -4,12 +4,19 @@ import java.util.Map;
 
 /**
  * Представляет собой узел выражения, который выполняет операцию между двумя выражениями.
- * Этот класс используется для представления операций (сложение, вычитание, умножение, деление) в дереве выражений.
+ * Этот класс используется для представления операций (сложение, вычитание, умножение, деление, возведение в степень)
+ * в дереве выражений.
  */
 public class OperationNode extends ExpressionNode {
-    private Operation operation;
-    private ExpressionNode left;
-    private ExpressionNode right;
+
+    /**
+     * Наибольший по модулю целый показатель, для которого степень вычисляется умножениями.
+     */
+    static final int MAX_SQUARING_EXPONENT = 64;
+
+    private final Operation operation;
+    private final ExpressionNode left;
+    private final ExpressionNode right;
 
     /**
      * Перечисление поддерживаемых операций.
@@ -18,13 +25,40 @@ public class OperationNode extends ExpressionNode {
         ADD,       // Сложение
         SUBTRACT,  // Вычитание
         MULTIPLY,  // Умножение
-        DIVIDE     // Деление
+        DIVIDE,    // Деление
+        POWER;     // Возведение в степень
+
+        /**
+         * Применяет операцию к двум уже вычисленным операндам.
+         * Единая точка семантики операций для всех способов вычисления выражений.
+         *
+         * @param leftValue Значение левого операнда.
+         * @param rightValue Значение правого операнда.
+         * @return Результат операции.
+         * @throws ArithmeticException Если происходит деление на ноль.
+         */
+        public double apply(double leftValue, double rightValue) {
+            switch (this) {
+                case ADD:
+                    return leftValue + rightValue;
+                case SUBTRACT:
+                    return leftValue - rightValue;
+                case MULTIPLY:
+                    return leftValue * rightValue;
+                case DIVIDE:
+                    return divide(leftValue, rightValue);
+                case POWER:
+                    return power(leftValue, rightValue);
+                default:
+                    throw new RuntimeException("Неизвестная операция");
+            }
+        }
     }
 
     /**
      * Конструктор, создающий узел операции с заданной операцией и операндами.
      *
-     * @param operation Операция, которая будет выполнена (сложение, вычитание, умножение, деление).
+     * @param operation Операция, которая будет выполнена (сложение, вычитание, умножение, деление, возведение в степень).
      * @param left Левый операнд для операции.
      * @param right Правый операнд для операции.
      */
@@ -37,7 +71,7 @@ public class OperationNode extends ExpressionNode {
     /**
      * Получает операцию, которая выполняется этим узлом.
      *
-     * @return Операция (сложение, вычитание, умножение или деление).
+     * @return Операция (сложение, вычитание, умножение, деление или возведение в степень).
      */
     public Operation getOperation() {
         return operation;
@@ -74,21 +108,61 @@ public class OperationNode extends ExpressionNode {
     public double evaluate(Map<String, Double> variables) {
         double leftValue = left.evaluate(variables);
         double rightValue = right.evaluate(variables);
+        return operation.apply(leftValue, rightValue);
+    }
 
-        switch (operation) {
-            case ADD:
-                return leftValue + rightValue;
-            case SUBTRACT:
-                return leftValue - rightValue;
-            case MULTIPLY:
-                return leftValue * rightValue;
-            case DIVIDE:
-                if (rightValue == 0) {
-                    throw new ArithmeticException("Деление на ноль");
-                }
-                return leftValue / rightValue;
-            default:
-                throw new RuntimeException("Неизвестная операция");
+    /**
+     * Выполняет операцию между двумя выражениями, используя значения переменных по слотам.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления операции.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    @Override
+    public double evaluate(double[] slots) {
+        return operation.apply(left.evaluate(slots), right.evaluate(slots));
+    }
+
+    /**
+     * Выполняет деление с проверкой делителя на ноль.
+     * Используется также сгенерированным байт-кодом {@link ExpressionCompiler}.
+     *
+     * @param leftValue Делимое.
+     * @param rightValue Делитель.
+     * @return Частное.
+     * @throws ArithmeticException Если делитель равен нулю.
+     */
+    static double divide(double leftValue, double rightValue) {
+        if (rightValue == 0) {
+            throw new ArithmeticException("Деление на ноль");
+        }
+        return leftValue / rightValue;
+    }
+
+    /**
+     * Возводит число в степень. Целые показатели по модулю не больше {@link #MAX_SQUARING_EXPONENT}
+     * вычисляются возведением в квадрат и умножением (не больше 12 умножений, погрешность — несколько ulp);
+     * остальные — через {@link Math#pow(double, double)}. Деление на ноль не проверяется: как и у {@link Math#pow},
+     * ноль в отрицательной степени даёт бесконечность.
+     * Используется также сгенерированным байт-кодом {@link ExpressionCompiler}.
+     *
+     * @param base Основание.
+     * @param exponent Показатель степени.
+     * @return Степень.
+     */
+    static double power(double base, double exponent) {
+        int n = (int) exponent;
+        if (n != exponent || n > MAX_SQUARING_EXPONENT || n < -MAX_SQUARING_EXPONENT) {
+            return Math.pow(base, exponent);
+        }
+        double result = 1;
+        double square = base;
+        for (int k = Math.abs(n); k != 0; k >>>= 1) {
+            if ((k & 1) != 0) {
+                result *= square;
+            }
+            square *= square;
         }
+        return n < 0 ? 1 / result : result;
     }
 }
@@ -0,0 +1,315 @@
+package org.expression;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Параллельный вычислитель очень больших выражений. Дерево разбивается на независимые поддеревья:
+ * если несколько операндов узла (операции или функции) содержат не меньше {@link #getThreshold()} узлов,
+ * все они, кроме последнего, вычисляются отдельными задачами {@link RecursiveTask} в {@link ForkJoinPool},
+ * а последний — в текущем потоке.
+ * Поддеревья меньше порога вычисляются последовательно обычным обходом, поэтому на небольших
+ * выражениях накладные расходы сводятся к одному поиску в таблице.
+ *
+ * Парсер строит длинные суммы и произведения левыми цепочками {@code ((a + b) + c) + ...}, в которых большим
+ * бывает только левый операнд каждого звена. Такая цепочка обходится без рекурсии: её основание и правые
+ * операнды звеньев делятся на группы суммарным размером не меньше порога, группы вычисляются отдельными
+ * задачами, а затем значения сворачиваются слева направо операциями звеньев. Порядок операций не меняется,
+ * поэтому результат совпадает с последовательным вычислением до бита.
+ *
+ * Размеры поддеревьев вычисляются один раз в конструкторе. Экземпляр неизменяем и может использоваться
+ * из нескольких потоков.
+ */
+public class ParallelExpressionEvaluator {
+
+    /**
+     * Порог по умолчанию: минимальный размер поддерева, которое вычисляется отдельной задачей.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private final BoundExpression expression;
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int nodeCount;
+    private final Map<ExpressionNode, Integer> indexes = new IdentityHashMap<>();  // Номера узлов в обратном польском порядке
+    private final int[] sizes;                                                    // Размеры поддеревьев по номерам узлов
+    private final LongAdder forked = new LongAdder();                             // Количество запущенных задач
+
+    /**
+     * Конструктор с порогом по умолчанию и общим пулом {@link ForkJoinPool#commonPool()}.
+     *
+     * @param expression Привязанное выражение.
+     */
+    public ParallelExpressionEvaluator(BoundExpression expression) {
+        this(expression, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор с заданным порогом и пулом потоков.
+     *
+     * @param expression Привязанное выражение.
+     * @param threshold Минимальный размер поддерева (в узлах), которое вычисляется отдельной задачей.
+     * @param pool Пул потоков для вычисления задач.
+     * @throws IllegalArgumentException Если порог меньше 1.
+     */
+    public ParallelExpressionEvaluator(BoundExpression expression, int threshold, ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Порог должен быть положительным: " + threshold);
+        }
+        this.expression = expression;
+        this.threshold = threshold;
+        this.pool = pool;
+
+        // Размеры поддеревьев считаются в обратном польском порядке без рекурсии
+        List<ExpressionNode> order = new ArrayList<>();
+        ExpressionDag.linearize(expression.getRoot(), indexes, order);
+        this.sizes = new int[order.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = 1;
+            for (ExpressionNode operand : ExpressionDag.operands(order.get(i))) {
+                sizes[i] += sizes[indexes.get(operand)];
+            }
+        }
+        this.nodeCount = sizes[sizes.length - 1];
+    }
+
+    /**
+     * Получает порог разбиения.
+     *
+     * @return Минимальный размер поддерева, которое вычисляется отдельной задачей.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Получает количество узлов выражения.
+     *
+     * @return Количество узлов дерева.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Получает количество задач, запущенных отдельно ({@code fork}) за всё время работы вычислителя.
+     *
+     * @return Количество запущенных задач.
+     */
+    long getForkedTaskCount() {
+        return forked.sum();
+    }
+
+    /**
+     * Вычисляет значение выражения по значениям переменных в слотах схемы.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double evaluate(double[] slots) {
+        ExpressionNode root = expression.getRoot();
+        if (!isLarge(root)) {
+            return root.evaluate(slots);
+        }
+        return pool.invoke(new SubtreeTask(root, slots));
+    }
+
+    /**
+     * Вычисляет значение выражения по карте переменных.
+     *
+     * @param variables Карта переменных и их значений.
+     * @return Результат вычисления выражения.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double evaluate(Map<String, Double> variables) {
+        return evaluate(expression.getSchema().toSlots(variables));
+    }
+
+    /**
+     * Задача вычисления поддерева, размер которого не меньше порога.
+     * Задачи не сериализуются: поля помечены {@code transient} лишь потому, что {@link RecursiveTask}
+     * реализует {@link java.io.Serializable}.
+     */
+    private final class SubtreeTask extends RecursiveTask<Double> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient ExpressionNode node;
+        private final transient double[] slots;
+
+        SubtreeTask(ExpressionNode node, double[] slots) {
+            this.node = node;
+            this.slots = slots;
+        }
+
+        @Override
+        protected Double compute() {
+            return evaluate(node);
+        }
+
+        /**
+         * Вычисляет узел. Все большие операнды, кроме последнего, вычисляются отдельными задачами,
+         * последний большой операнд и малые операнды — в текущем потоке; так делятся и операции, и аргументы
+         * функций ({@code min}, {@code max}, {@code fma}). Если вычисление в текущем потоке или ожидание
+         * одной из задач завершается исключением, остальные задачи отменяются.
+         */
+        private double evaluate(ExpressionNode node) {
+            if (!isLarge(node) || !(node instanceof OperationNode || node instanceof FunctionNode)) {
+                return node.evaluate(slots);
+            }
+            if (node instanceof OperationNode operation && operation.getLeft() instanceof OperationNode
+                    && isLarge(operation.getLeft())) {
+                return evaluateChain(operation);
+            }
+            List<ExpressionNode> operands = ExpressionDag.operands(node);
+            int lastLarge = -1;
+            for (int i = 0; i < operands.size(); i++) {
+                if (isLarge(operands.get(i))) {
+                    lastLarge = i;
+                }
+            }
+            SubtreeTask[] tasks = new SubtreeTask[operands.size()];
+            double[] values = new double[3];  // Отсутствующие аргументы функции равны нулю
+            try {
+                for (int i = 0; i < lastLarge; i++) {
+                    if (isLarge(operands.get(i))) {
+                        tasks[i] = new SubtreeTask(operands.get(i), slots);
+                        forkTask(tasks[i]);
+                    }
+                }
+                for (int i = 0; i < operands.size(); i++) {
+                    if (tasks[i] == null) {
+                        values[i] = evaluate(operands.get(i));
+                    }
+                }
+                for (int i = 0; i < operands.size(); i++) {
+                    if (tasks[i] != null) {
+                        values[i] = tasks[i].join();
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                // Уже запущенная задача не прерывается, но её результат больше не ожидается
+                for (SubtreeTask task : tasks) {
+                    if (task != null) {
+                        task.cancel(false);
+                    }
+                }
+                throw e;
+            }
+            if (node instanceof OperationNode operation) {
+                return operation.getOperation().apply(values[0], values[1]);
+            }
+            return ((FunctionNode) node).getFunction().apply(values[0], values[1], values[2]);
+        }
+
+        /**
+         * Вычисляет левую цепочку больших операций {@code ((base op r1) op r2) ... op rn}. Основание
+         * и правые операнды идут подряд; каждая группа суммарным размером не меньше порога, кроме последней,
+         * вычисляется отдельной задачей, последняя — в текущем потоке. Затем значения сворачиваются
+         * слева направо операциями звеньев, как при последовательном обходе.
+         */
+        private double evaluateChain(OperationNode top) {
+            List<OperationNode> links = new ArrayList<>();
+            ExpressionNode base = top;
+            while (base instanceof OperationNode link && isLarge(link)) {
+                links.add(link);
+                base = link.getLeft();
+            }
+            Collections.reverse(links);
+            ExpressionNode[] operands = new ExpressionNode[links.size() + 1];
+            operands[0] = base;
+            for (int i = 0; i < links.size(); i++) {
+                operands[i + 1] = links.get(i).getRight();
+            }
+
+            double[] values = new double[operands.length];
+            List<RangeTask> tasks = new ArrayList<>();
+            try {
+                int start = 0;
+                long size = 0;
+                for (int i = 0; i < operands.length - 1; i++) {
+                    size += size(operands[i]);
+                    if (size >= threshold) {
+                        RangeTask task = new RangeTask(this, operands, start, i + 1, values);
+                        tasks.add(task);
+                        forkTask(task);
+                        start = i + 1;
+                        size = 0;
+                    }
+                }
+                evaluateRange(operands, start, operands.length, values);
+                for (RangeTask task : tasks) {
+                    task.join();
+                }
+            } catch (RuntimeException | Error e) {
+                for (RangeTask task : tasks) {
+                    task.cancel(false);
+                }
+                throw e;
+            }
+
+            double result = values[0];
+            for (int i = 0; i < links.size(); i++) {
+                result = links.get(i).getOperation().apply(result, values[i + 1]);
+            }
+            return result;
+        }
+
+        private void evaluateRange(ExpressionNode[] operands, int from, int to, double[] values) {
+            for (int i = from; i < to; i++) {
+                values[i] = evaluate(operands[i]);
+            }
+        }
+    }
+
+    /**
+     * Задача вычисления группы соседних операндов цепочки; значения записываются в общий массив
+     * по своим номерам, поэтому группы не пересекаются.
+     */
+    private static final class RangeTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient SubtreeTask owner;
+        private final transient ExpressionNode[] operands;
+        private final int from;
+        private final int to;
+        private final transient double[] values;
+
+        RangeTask(SubtreeTask owner, ExpressionNode[] operands, int from, int to, double[] values) {
+            this.owner = owner;
+            this.operands = operands;
+            this.from = from;
+            this.to = to;
+            this.values = values;
+        }
+
+        @Override
+        protected void compute() {
+            owner.evaluateRange(operands, from, to, values);
+        }
+    }
+
+    private boolean isLarge(ExpressionNode node) {
+        return size(node) >= threshold;
+    }
+
+    private int size(ExpressionNode node) {
+        return sizes[indexes.get(node)];
+    }
+
+    private void forkTask(ForkJoinTask<?> task) {
+        forked.increment();
+        task.fork();
+    }
+}
@@ -0,0 +1,362 @@
+package org.expression;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Выражение, представленное последовательностью инструкций стековой машины в обратной польской записи.
+ * Построение и вычисление выполняются циклами без рекурсии, поэтому глубина дерева (например, сумма
+ * из сотен тысяч слагаемых) ограничена только размером массивов, а не стеком потока.
+ *
+ * Каждая инструкция — одно значение {@code int}: младшие 8 бит содержат код операции, старшие — операнд
+ * (номер константы в пуле, номер слота переменной или номер функции). Операнды вычислений хранятся в примитивном стеке {@code double[]},
+ * верхний элемент стека — в локальной переменной. Операция, правый операнд которой — константа или переменная,
+ * записывается одной инструкцией с этим операндом ({@code x * 2.5} — загрузка {@code x} и умножение на константу),
+ * что сокращает количество инструкций и обращений к стеку.
+ *
+ * Экземпляр неизменяем и может использоваться из нескольких потоков.
+ */
+public class PostfixExpression {
+
+    private static final int CONSTANT = 0;
+    private static final int LOAD = 1;
+    private static final int ADD = 2;
+    private static final int SUBTRACT = 3;
+    private static final int MULTIPLY = 4;
+    private static final int DIVIDE = 5;
+    private static final int POWER = 6;
+    private static final int FUNCTION = 7;  // Операнд — номер функции FunctionNode.Function
+    private static final int WITH_CONSTANT = 8;  // Смещение кода операции с правым операндом из пула констант
+    private static final int WITH_LOAD = 16;     // Смещение кода операции с правым операндом из слота
+    private static final int MAX_OPERAND = (1 << 24) - 1;
+    private static final FunctionNode.Function[] FUNCTIONS = FunctionNode.Function.values();
+    private static final int[] OPCODES = new int[OperationNode.Operation.values().length];  // Коды операций по номерам
+
+    static {
+        for (OperationNode.Operation operation : OperationNode.Operation.values()) {
+            OPCODES[operation.ordinal()] = opcode(operation);
+        }
+    }
+
+    private final VariableSchema schema;
+    private final int[] code;          // Инструкции
+    private final double[] constants;  // Пул констант
+    private final int maxDepth;        // Максимальная глубина стека операндов
+    private final ThreadLocal<double[]> scratch;  // Стек операндов, свой буфер на поток
+
+    /**
+     * Конструктор для выражения, привязанного к схеме переменных.
+     *
+     * @param expression Привязанное выражение.
+     */
+    public PostfixExpression(BoundExpression expression) {
+        this(expression.getRoot(), expression.getSchema());
+    }
+
+    /**
+     * Конструктор для дерева выражения и схемы переменных. Дерево не требуется предварительно привязывать,
+     * поэтому выражения любой глубины обрабатываются без рекурсии.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @param schema Схема переменных, задающая номера слотов.
+     * @throws RuntimeException Если в выражении встречается переменная, отсутствующая в схеме.
+     */
+    public PostfixExpression(ExpressionNode node, VariableSchema schema) {
+        this.schema = schema;
+        CodeBuffer buffer = new CodeBuffer();
+
+        // Обход в обратном порядке: узел операции посещается дважды — до и после своих операндов
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Object item = stack.pop();
+            if (item instanceof OperationNode.Operation operation) {
+                buffer.operation(operation);
+            } else if (item instanceof FunctionNode.Function function) {
+                buffer.function(function);
+            } else if (item instanceof OperationNode operation) {
+                stack.push(operation.getOperation());
+                stack.push(operation.getRight());
+                stack.push(operation.getLeft());
+            } else if (item instanceof FunctionNode function) {
+                stack.push(function.getFunction());
+                for (int i = function.getFunction().getArity() - 1; i >= 0; i--) {
+                    stack.push(function.getArgument(i));
+                }
+            } else if (item instanceof NumberNode number) {
+                buffer.constant(number.getValue());
+            } else if (item instanceof VariableNode variable) {
+                buffer.load(schema.slotOf(variable.getName()));
+            } else {
+                throw new RuntimeException("Неизвестный тип узла: " + item.getClass().getName());
+            }
+        }
+        this.code = buffer.code();
+        this.constants = buffer.constants();
+        this.maxDepth = maxDepth(code);
+        this.scratch = ThreadLocal.withInitial(() -> new double[this.maxDepth]);
+    }
+
+    /**
+     * Конструктор для программы, уже записанной в буфер в обратной польской записи, например,
+     * при чтении двоичной библиотеки {@link ExpressionReader} без построения дерева.
+     * Буфер копируется и может использоваться повторно.
+     *
+     * @param schema Схема переменных, по номерам слотов которой записаны загрузки переменных.
+     * @param buffer Буфер с корректной программой, оставляющей на стеке одно значение.
+     */
+    PostfixExpression(VariableSchema schema, CodeBuffer buffer) {
+        this.schema = schema;
+        this.code = buffer.code();
+        this.constants = buffer.constants();
+        this.maxDepth = maxDepth(code);
+        this.scratch = ThreadLocal.withInitial(() -> new double[this.maxDepth]);
+    }
+
+    /**
+     * Получает количество инструкций.
+     *
+     * @return Длина программы стековой машины.
+     */
+    public int getInstructionCount() {
+        return code.length;
+    }
+
+    /**
+     * Получает максимальную глубину стека операндов при вычислении.
+     *
+     * @return Глубина стека.
+     */
+    public int getMaxStackDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Вычисляет значение выражения по значениям переменных в слотах схемы.
+     * Стек операндов берётся из буфера текущего потока и не выделяется при каждом вызове.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double evaluate(double[] slots) {
+        return evaluate(slots, scratch.get());
+    }
+
+    /**
+     * Вычисляет значение выражения с заданным вызывающим кодом стеком операндов, например, при вычислении
+     * многих записей в одном потоке без обращения к буферу потока.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @param stack Стек операндов длиной не меньше {@link #getMaxStackDepth()}; содержимое перезаписывается.
+     * @return Результат вычисления выражения.
+     * @throws ArithmeticException Если происходит деление на ноль.
+     */
+    public double evaluate(double[] slots, double[] stack) {
+        double top = 0;  // Верхний элемент стека; остальные элементы лежат в stack[0..depth]
+        int depth = -1;
+        for (int instruction : code) {
+            int operand = instruction >>> 8;
+            switch (instruction & 0xFF) {
+                case CONSTANT:
+                    stack[++depth] = top;
+                    top = constants[operand];
+                    break;
+                case LOAD:
+                    stack[++depth] = top;
+                    top = slots[operand];
+                    break;
+                case ADD:
+                    top = stack[depth--] + top;
+                    break;
+                case SUBTRACT:
+                    top = stack[depth--] - top;
+                    break;
+                case MULTIPLY:
+                    top = stack[depth--] * top;
+                    break;
+                case DIVIDE:
+                    top = OperationNode.divide(stack[depth--], top);
+                    break;
+                case POWER:
+                    top = OperationNode.power(stack[depth--], top);
+                    break;
+                case FUNCTION: {
+                    FunctionNode.Function function = FUNCTIONS[operand];
+                    switch (function.getArity()) {
+                        case 1:
+                            top = function.apply(top, 0, 0);
+                            break;
+                        case 2:
+                            top = function.apply(stack[depth--], top, 0);
+                            break;
+                        default:
+                            top = function.apply(stack[depth - 1], stack[depth], top);
+                            depth -= 2;
+                            break;
+                    }
+                    break;
+                }
+                case ADD + WITH_CONSTANT:
+                    top += constants[operand];
+                    break;
+                case SUBTRACT + WITH_CONSTANT:
+                    top -= constants[operand];
+                    break;
+                case MULTIPLY + WITH_CONSTANT:
+                    top *= constants[operand];
+                    break;
+                case DIVIDE + WITH_CONSTANT:
+                    top = OperationNode.divide(top, constants[operand]);
+                    break;
+                case POWER + WITH_CONSTANT:
+                    top = OperationNode.power(top, constants[operand]);
+                    break;
+                case ADD + WITH_LOAD:
+                    top += slots[operand];
+                    break;
+                case SUBTRACT + WITH_LOAD:
+                    top -= slots[operand];
+                    break;
+                case MULTIPLY + WITH_LOAD:
+                    top *= slots[operand];
+                    break;
+                case DIVIDE + WITH_LOAD:
+                    top = OperationNode.divide(top, slots[operand]);
+                    break;
+                case POWER + WITH_LOAD:
+                    top = OperationNode.power(top, slots[operand]);
+                    break;
+                default:
+                    throw new RuntimeException("Неизвестная инструкция: " + instruction);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Вычисляет значение выражения по карте переменных.
+     *
+     * @param variables Карта переменных и их значений.
+     * @return Результат вычисления выражения.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double evaluate(Map<String, Double> variables) {
+        return evaluate(schema.toSlots(variables));
+    }
+
+    private static int opcode(OperationNode.Operation operation) {
+        switch (operation) {
+            case ADD:
+                return ADD;
+            case SUBTRACT:
+                return SUBTRACT;
+            case MULTIPLY:
+                return MULTIPLY;
+            case DIVIDE:
+                return DIVIDE;
+            case POWER:
+                return POWER;
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+    }
+
+    /**
+     * Вычисляет максимальную глубину стека операндов, включая верхний элемент.
+     */
+    private static int maxDepth(int[] code) {
+        int depth = 0;
+        int maxDepth = 0;
+        for (int instruction : code) {
+            int opcode = instruction & 0xFF;
+            if (opcode == CONSTANT || opcode == LOAD) {
+                maxDepth = Math.max(maxDepth, ++depth);
+            } else if (opcode == FUNCTION) {
+                depth -= FUNCTIONS[instruction >>> 8].getArity() - 1;
+            } else if (opcode < WITH_CONSTANT) {
+                depth--;
+            }
+        }
+        return maxDepth;
+    }
+
+    /**
+     * Растущие буферы инструкций и констант; узлы записываются в обратной польской записи.
+     */
+    static final class CodeBuffer {
+        private int[] code = new int[16];
+        private int length;
+        private double[] constants = new double[8];
+        private int constantCount;
+
+        /**
+         * Записывает загрузку константы.
+         */
+        void constant(double value) {
+            if (constantCount == constants.length) {
+                constants = Arrays.copyOf(constants, constantCount * 2);
+            }
+            constants[constantCount] = value;
+            emit(CONSTANT, constantCount++);
+        }
+
+        /**
+         * Записывает загрузку переменной из слота.
+         */
+        void load(int slot) {
+            emit(LOAD, slot);
+        }
+
+        /**
+         * Записывает функцию, снимающую со стека свои аргументы.
+         */
+        void function(FunctionNode.Function function) {
+            emit(FUNCTION, function.ordinal());
+        }
+
+        /**
+         * Очищает буфер для записи следующей программы.
+         */
+        void clear() {
+            length = 0;
+            constantCount = 0;
+        }
+
+        private void emit(int opcode, int operand) {
+            if (operand > MAX_OPERAND) {
+                throw new IllegalStateException("Слишком много констант или переменных в выражении");
+            }
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = opcode | (operand << 8);
+        }
+
+        /**
+         * Записывает бинарную операцию. Если предыдущая инструкция загружает константу или переменную,
+         * она и есть правый операнд и объединяется с операцией в одну инструкцию.
+         */
+        void operation(OperationNode.Operation operation) {
+            int opcode = OPCODES[operation.ordinal()];
+            int previous = length > 0 ? code[length - 1] & 0xFF : -1;
+            if (previous == CONSTANT) {
+                code[length - 1] = (opcode + WITH_CONSTANT) | (code[length - 1] & ~0xFF);
+            } else if (previous == LOAD) {
+                code[length - 1] = (opcode + WITH_LOAD) | (code[length - 1] & ~0xFF);
+            } else {
+                emit(opcode, 0);
+            }
+        }
+
+        int[] code() {
+            return Arrays.copyOf(code, length);
+        }
+
+        double[] constants() {
+            return Arrays.copyOf(constants, constantCount);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.expression;
+
+/**
+ * Скалярное ядро пакетного вычисления. Выбор операции вынесен из цикла,
+ * поэтому каждый цикл содержит одну арифметическую инструкцию и поддаётся автовекторизации JIT.
+ */
+final class ScalarBatchKernel implements BatchKernel {
+
+    @Override
+    public void apply(OperationNode.Operation operation, double[] left, int leftOffset, double[] right, int rightOffset,
+                      double[] out, int outOffset, int length) {
+        switch (operation) {
+            case ADD:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = left[leftOffset + i] + right[rightOffset + i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = left[leftOffset + i] - right[rightOffset + i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = left[leftOffset + i] * right[rightOffset + i];
+                }
+                break;
+            case DIVIDE:
+                for (int i = 0; i < length; i++) {
+                    if (right[rightOffset + i] == 0) {
+                        throw new ArithmeticException("Деление на ноль");
+                    }
+                }
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = left[leftOffset + i] / right[rightOffset + i];
+                }
+                break;
+            case POWER:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = OperationNode.power(left[leftOffset + i], right[rightOffset + i]);
+                }
+                break;
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+    }
+
+    @Override
+    public void apply(FunctionNode.Function function, double[] a, int aOffset, double[] b, int bOffset,
+                      double[] c, int cOffset, double[] out, int outOffset, int length) {
+        switch (function) {
+            case NEGATE:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = -a[aOffset + i];
+                }
+                break;
+            case SQRT:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.sqrt(a[aOffset + i]);
+                }
+                break;
+            case EXP:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.exp(a[aOffset + i]);
+                }
+                break;
+            case LOG:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.log(a[aOffset + i]);
+                }
+                break;
+            case ABS:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.abs(a[aOffset + i]);
+                }
+                break;
+            case MIN:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.min(a[aOffset + i], b[bOffset + i]);
+                }
+                break;
+            case MAX:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.max(a[aOffset + i], b[bOffset + i]);
+                }
+                break;
+            case FMA:
+                for (int i = 0; i < length; i++) {
+                    out[outOffset + i] = Math.fma(a[aOffset + i], b[bOffset + i], c[cOffset + i]);
+                }
+                break;
+            default:
+                throw new RuntimeException("Неизвестная функция");
+        }
+    }
+}
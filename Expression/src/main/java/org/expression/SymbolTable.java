@@ -0,0 +1,87 @@
+package org.expression;
+
+/**
+ * Таблица интернирования имён переменных для {@link ExpressionParser}.
+ * Имя ищется прямо по диапазону символов исходного текста, поэтому строка создаётся только
+ * при первой встрече имени; все последующие вхождения получают тот же экземпляр {@link String}.
+ * Одну таблицу можно передавать нескольким парсерам при разборе большого файла формул.
+ *
+ * Экземпляр не является потокобезопасным.
+ */
+public final class SymbolTable {
+
+    private String[] table = new String[64];  // Открытая адресация, размер — степень двойки
+    private int size;
+
+    /**
+     * Возвращает интернированную строку для символов {@code text[start, end)}.
+     *
+     * @param text Исходный текст.
+     * @param start Индекс первого символа имени.
+     * @param end Индекс символа, следующего за именем.
+     * @return Строка с именем, общая для всех одинаковых имён в таблице.
+     */
+    public String intern(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);  // Совпадает с String.hashCode()
+        }
+        int mask = table.length - 1;
+        int index = spread(hash) & mask;
+        while (true) {
+            String existing = table[index];
+            if (existing == null) {
+                String name = text.subSequence(start, end).toString();
+                table[index] = name;
+                if (++size * 2 > table.length) {
+                    grow();
+                }
+                return name;
+            }
+            if (existing.hashCode() == hash && matches(existing, text, start, end)) {
+                return existing;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Получает количество различных имён в таблице.
+     *
+     * @return Количество интернированных имён.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static boolean matches(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        String[] old = table;
+        table = new String[old.length * 2];
+        int mask = table.length - 1;
+        for (String name : old) {
+            if (name != null) {
+                int index = spread(name.hashCode()) & mask;
+                while (table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = name;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
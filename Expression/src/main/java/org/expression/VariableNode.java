@@ -5,9 +5,11 @@ import java.util.Map;
 /**
  * Представляет собой узел выражения, который хранит имя переменной и может вычислять её значение.
  * Этот класс используется для представления переменных в выражениях.
+ * Узел, привязанный к схеме переменных, дополнительно хранит номер слота своей переменной.
  */
 public class VariableNode extends ExpressionNode {
-    private String name;
+    private final String name;
+    private final int slot;  // Номер слота в схеме переменных или -1, если узел не привязан
 
     /**
      * Конструктор, создающий узел переменной с заданным именем.
@@ -15,7 +17,18 @@ public class VariableNode extends ExpressionNode {
      * @param name Имя переменной.
      */
     public VariableNode(String name) {
+        this(name, -1);
+    }
+
+    /**
+     * Конструктор, создающий узел переменной, привязанный к слоту схемы переменных.
+     *
+     * @param name Имя переменной.
+     * @param slot Номер слота переменной в схеме.
+     */
+    public VariableNode(String name, int slot) {
         this.name = name;
+        this.slot = slot;
     }
 
     /**
@@ -27,6 +40,15 @@ public class VariableNode extends ExpressionNode {
         return name;
     }
 
+    /**
+     * Получает номер слота переменной.
+     *
+     * @return Номер слота или -1, если узел не привязан к схеме переменных.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
     /**
      * Вычисляет значение переменной, используя переданный набор переменных.
      * Если переменная не найдена, выбрасывается исключение.
@@ -37,9 +59,26 @@ public class VariableNode extends ExpressionNode {
      */
     @Override
     public double evaluate(Map<String, Double> variables) {
-        if (!variables.containsKey(name)) {
+        // Одно обращение к карте вместо проверки и чтения: между ними карту мог бы изменить другой поток
+        Double value = variables.get(name);
+        if (value == null) {
             throw new RuntimeException("Переменная не определена: " + name);
         }
-        return variables.get(name);
+        return value;
+    }
+
+    /**
+     * Возвращает значение переменной из её слота.
+     *
+     * @param slots Значения переменных, расположенные по номерам слотов схемы.
+     * @return Значение переменной.
+     * @throws IllegalStateException Если узел не привязан к схеме переменных.
+     */
+    @Override
+    public double evaluate(double[] slots) {
+        if (slot < 0) {
+            throw new IllegalStateException("Переменная не привязана к слоту: " + name);
+        }
+        return slots[slot];
     }
 }
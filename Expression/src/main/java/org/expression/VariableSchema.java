@@ -0,0 +1,164 @@
+package org.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Схема переменных: упорядоченный набор имён, в котором каждой переменной соответствует номер слота.
+ * Выражение привязывается к схеме один раз ({@link #bind(ExpressionNode)}), после чего значения переменных
+ * передаются примитивным массивом {@code double[]} без поиска по имени.
+ */
+public final class VariableSchema {
+
+    private final List<String> names;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /**
+     * Конструктор схемы с заданным порядком переменных.
+     *
+     * @param names Имена переменных; позиция имени в списке — номер его слота.
+     * @throws IllegalArgumentException Если имена переменных повторяются.
+     */
+    public VariableSchema(List<String> names) {
+        this.names = List.copyOf(names);
+        for (int i = 0; i < this.names.size(); i++) {
+            if (slots.put(this.names.get(i), i) != null) {
+                throw new IllegalArgumentException("Переменная указана дважды: " + this.names.get(i));
+            }
+        }
+    }
+
+    /**
+     * Создаёт схему из перечисленных имён переменных.
+     *
+     * @param names Имена переменных в порядке слотов.
+     * @return Схема переменных.
+     */
+    public static VariableSchema of(String... names) {
+        return new VariableSchema(Arrays.asList(names));
+    }
+
+    /**
+     * Создаёт схему из всех переменных выражения в порядке их первого появления.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @return Схема переменных выражения.
+     */
+    public static VariableSchema from(ExpressionNode node) {
+        return from(List.of(node));
+    }
+
+    /**
+     * Создаёт общую схему из всех переменных нескольких выражений в порядке их первого появления.
+     *
+     * @param nodes Корни абстрактных синтаксических деревьев выражений.
+     * @return Схема переменных, содержащая переменные всех выражений.
+     */
+    public static VariableSchema from(Collection<ExpressionNode> nodes) {
+        Set<String> names = new LinkedHashSet<>();
+        for (ExpressionNode node : nodes) {
+            collect(node, names);
+        }
+        return new VariableSchema(new ArrayList<>(names));
+    }
+
+    /**
+     * Получает количество слотов схемы.
+     *
+     * @return Количество переменных.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Получает имена переменных в порядке слотов.
+     *
+     * @return Неизменяемый список имён.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Получает номер слота переменной.
+     *
+     * @param name Имя переменной.
+     * @return Номер слота.
+     * @throws RuntimeException Если переменная отсутствует в схеме.
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            throw new RuntimeException("Переменная не определена: " + name);
+        }
+        return slot;
+    }
+
+    /**
+     * Раскладывает значения переменных из карты по слотам схемы.
+     *
+     * @param variables Карта переменных и их значений.
+     * @return Массив значений по слотам.
+     * @throws RuntimeException Если значение какой-либо переменной схемы отсутствует в карте.
+     */
+    public double[] toSlots(Map<String, Double> variables) {
+        double[] values = new double[names.size()];
+        for (int i = 0; i < values.length; i++) {
+            Double value = variables.get(names.get(i));
+            if (value == null) {
+                throw new RuntimeException("Переменная не определена: " + names.get(i));
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Привязывает выражение к схеме: строит копию дерева, в которой каждый узел переменной хранит номер слота.
+     * Все переменные проверяются здесь, поэтому при вычислении ошибок неопределённых переменных не возникает.
+     *
+     * @param node Корень абстрактного синтаксического дерева выражения.
+     * @return Привязанное выражение.
+     * @throws RuntimeException Если в выражении встречается переменная, отсутствующая в схеме.
+     */
+    public BoundExpression bind(ExpressionNode node) {
+        return new BoundExpression(this, bindNode(node));
+    }
+
+    private ExpressionNode bindNode(ExpressionNode node) {
+        if (node instanceof VariableNode variable) {
+            return new VariableNode(variable.getName(), slotOf(variable.getName()));
+        } else if (node instanceof OperationNode operation) {
+            return new OperationNode(operation.getOperation(),
+                    bindNode(operation.getLeft()), bindNode(operation.getRight()));
+        } else if (node instanceof FunctionNode function) {
+            ExpressionNode[] arguments = new ExpressionNode[function.getFunction().getArity()];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = bindNode(function.getArgument(i));
+            }
+            return new FunctionNode(function.getFunction(), arguments);
+        }
+        return node;
+    }
+
+    private static void collect(ExpressionNode node, Set<String> names) {
+        if (node instanceof VariableNode variable) {
+            names.add(variable.getName());
+        } else if (node instanceof OperationNode operation) {
+            collect(operation.getLeft(), names);
+            collect(operation.getRight(), names);
+        } else if (node instanceof FunctionNode function) {
+            for (ExpressionNode argument : function.getArguments()) {
+                collect(argument, names);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.expression;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Ядро пакетного вычисления на JDK Vector API ({@code jdk.incubator.vector}).
+ * Обрабатывает столбцы блоками по ширине SIMD-регистра, остаток — скалярным циклом.
+ * Операции, у которых векторная форма может отличаться от {@link Math} в младших битах
+ * (возведение в степень, {@code exp}, {@code log}), выполняются скалярным ядром.
+ * Требует запуска JVM с {@code --add-modules jdk.incubator.vector}; иначе {@link BatchEvaluator}
+ * использует {@link ScalarBatchKernel}.
+ */
+final class VectorBatchKernel implements BatchKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarBatchKernel scalar = new ScalarBatchKernel();
+
+    @Override
+    public void apply(OperationNode.Operation operation, double[] left, int leftOffset, double[] right, int rightOffset,
+                      double[] out, int outOffset, int length) {
+        VectorOperators.Binary operator;
+        switch (operation) {
+            case ADD:
+                operator = VectorOperators.ADD;
+                break;
+            case SUBTRACT:
+                operator = VectorOperators.SUB;
+                break;
+            case MULTIPLY:
+                operator = VectorOperators.MUL;
+                break;
+            case DIVIDE:
+                checkDivisors(right, rightOffset, length);
+                operator = VectorOperators.DIV;
+                break;
+            case POWER:
+                scalar.apply(operation, left, leftOffset, right, rightOffset, out, outOffset, length);
+                return;
+            default:
+                throw new RuntimeException("Неизвестная операция");
+        }
+
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, left, leftOffset + i);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, right, rightOffset + i);
+            a.lanewise(operator, b).intoArray(out, outOffset + i);
+        }
+        for (; i < length; i++) {
+            out[outOffset + i] = operation.apply(left[leftOffset + i], right[rightOffset + i]);
+        }
+    }
+
+    @Override
+    public void apply(FunctionNode.Function function, double[] a, int aOffset, double[] b, int bOffset,
+                      double[] c, int cOffset, double[] out, int outOffset, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        switch (function) {
+            case NEGATE:
+            case SQRT:
+            case ABS: {
+                VectorOperators.Unary operator = function == FunctionNode.Function.NEGATE ? VectorOperators.NEG
+                        : function == FunctionNode.Function.SQRT ? VectorOperators.SQRT : VectorOperators.ABS;
+                for (; i < upper; i += SPECIES.length()) {
+                    DoubleVector.fromArray(SPECIES, a, aOffset + i).lanewise(operator).intoArray(out, outOffset + i);
+                }
+                break;
+            }
+            case MIN:
+            case MAX: {
+                VectorOperators.Binary operator = function == FunctionNode.Function.MIN
+                        ? VectorOperators.MIN : VectorOperators.MAX;
+                for (; i < upper; i += SPECIES.length()) {
+                    DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+                    DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+                    x.lanewise(operator, y).intoArray(out, outOffset + i);
+                }
+                break;
+            }
+            case FMA:
+                for (; i < upper; i += SPECIES.length()) {
+                    DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+                    DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+                    DoubleVector z = DoubleVector.fromArray(SPECIES, c, cOffset + i);
+                    x.fma(y, z).intoArray(out, outOffset + i);
+                }
+                break;
+            default:
+                scalar.apply(function, a, aOffset, b, bOffset, c, cOffset, out, outOffset, length);
+                return;
+        }
+        for (; i < length; i++) {
+            out[outOffset + i] = function.apply(a[aOffset + i], b[bOffset + i], c[cOffset + i]);
+        }
+    }
+
+    /**
+     * Проверяет, что среди делителей нет нулей.
+     */
+    private static void checkDivisors(double[] right, int rightOffset, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            if (DoubleVector.fromArray(SPECIES, right, rightOffset + i).eq(0.0).anyTrue()) {
+                throw new ArithmeticException("Деление на ноль");
+            }
+        }
+        for (; i < length; i++) {
+            if (right[rightOffset + i] == 0) {
+                throw new ArithmeticException("Деление на ноль");
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchEvaluatorTest {
+
+    private static final int ROWS = 2_500;  // Не кратно размеру блока и ширине SIMD-регистра
+
+    /**
+     * Проверяет, что векторное и скалярное ядра дают те же результаты, что и построчное вычисление.
+     */
+    @Test
+    public void testBatchMatchesRowByRow() {
+        String[] expressions = {"(x + y) * z - x / y", "x", "2 * 3 + 1", "x * x - 0.5 / (y + 10)"};
+        double[][] columns = randomColumns(3, 42);
+
+        for (String expression : expressions) {
+            BoundExpression bound = VariableSchema.of("x", "y", "z").bind(new ExpressionParser(expression).parse());
+            double[] expected = new double[ROWS];
+            double[] slots = new double[3];
+            for (int row = 0; row < ROWS; row++) {
+                for (int slot = 0; slot < 3; slot++) {
+                    slots[slot] = columns[slot][row];
+                }
+                expected[row] = bound.evaluate(slots);
+            }
+
+            for (BatchKernel kernel : new BatchKernel[]{new VectorBatchKernel(), new ScalarBatchKernel()}) {
+                double[] out = new double[ROWS];
+                new BatchEvaluator(bound, kernel).evaluate(columns, out);
+                assertArrayEquals(expected, out, expression);
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что при запуске с модулем jdk.incubator.vector выбирается векторное ядро.
+     */
+    @Test
+    public void testVectorKernelSelected() {
+        BoundExpression bound = VariableSchema.of("x").bind(new ExpressionParser("x + 1").parse());
+        assertTrue(new BatchEvaluator(bound).isVectorized());
+    }
+
+    /**
+     * Проверяет, что деление на ноль в любой строке пакета приводит к ArithmeticException.
+     */
+    @Test
+    public void testDivisionByZero() {
+        BoundExpression bound = VariableSchema.of("x", "y").bind(new ExpressionParser("x / y").parse());
+        double[][] columns = randomColumns(2, 7);
+        columns[1][ROWS - 3] = 0.0;
+
+        for (BatchKernel kernel : new BatchKernel[]{new VectorBatchKernel(), new ScalarBatchKernel()}) {
+            BatchEvaluator evaluator = new BatchEvaluator(bound, kernel);
+            assertThrows(ArithmeticException.class, () -> evaluator.evaluate(columns, new double[ROWS]));
+        }
+    }
+
+    /**
+     * Проверяет вычисление по столбцам, переданным картой имён, и проверку недостающих столбцов.
+     */
+    @Test
+    public void testColumnsByName() {
+        BoundExpression bound = VariableSchema.of("x", "y").bind(new ExpressionParser("x - y").parse());
+        BatchEvaluator evaluator = new BatchEvaluator(bound);
+
+        Map<String, double[]> columns = new HashMap<>();
+        columns.put("y", new double[]{1, 2, 3});
+        columns.put("x", new double[]{10, 20, 30});
+        double[] out = new double[3];
+        evaluator.evaluate(columns, out);
+        assertArrayEquals(new double[]{9, 18, 27}, out);
+
+        columns.remove("y");
+        assertThrows(RuntimeException.class, () -> evaluator.evaluate(columns, out));
+    }
+
+    private static double[][] randomColumns(int count, long seed) {
+        Random random = new Random(seed);
+        double[][] columns = new double[count][ROWS];
+        for (double[] column : columns) {
+            for (int row = 0; row < ROWS; row++) {
+                column[row] = random.nextDouble() * 200 - 100 + 0.001;
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,89 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundExpressionTest {
+
+    /**
+     * Проверяет, что вычисление по слотам совпадает с вычислением по карте переменных.
+     */
+    @Test
+    public void testSlotsMatchMap() {
+        ExpressionNode ast = new ExpressionParser("(x + y) * z - x / y").parse();
+        BoundExpression bound = VariableSchema.of("z", "y", "x").bind(ast);
+
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("x", 3.0);
+        variables.put("y", 5.0);
+        variables.put("z", 2.0);
+
+        double expected = new ExpressionEvaluator(variables).evaluate(ast);
+        assertEquals(expected, bound.evaluate(new double[]{2.0, 5.0, 3.0}));
+        assertEquals(expected, bound.evaluate(variables));
+        assertEquals(expected, new ExpressionEvaluator(variables).evaluate(bound));
+        assertEquals(expected, bound.compile().eval(new double[]{2.0, 5.0, 3.0}));
+    }
+
+    /**
+     * Проверяет, что схема, построенная по выражению, перечисляет переменные в порядке первого появления.
+     */
+    @Test
+    public void testSchemaFromExpression() {
+        ExpressionNode ast = new ExpressionParser("b * a + b / c").parse();
+        VariableSchema schema = VariableSchema.from(ast);
+
+        assertEquals(List.of("b", "a", "c"), schema.getNames());
+        assertEquals(2, schema.slotOf("c"));
+        assertEquals(7.0, schema.bind(ast).evaluate(new double[]{2.0, 3.0, 2.0}));
+    }
+
+    /**
+     * Проверяет, что неопределённая переменная обнаруживается при привязке, а не при вычислении.
+     */
+    @Test
+    public void testMissingVariableAtBindTime() {
+        ExpressionNode ast = new ExpressionParser("x + y").parse();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> VariableSchema.of("x").bind(ast));
+        assertEquals("Переменная не определена: y", error.getMessage());
+    }
+
+    /**
+     * Проверяет, что при вычислении по карте отсутствие переменной схемы сообщается до обхода дерева.
+     */
+    @Test
+    public void testMissingVariableInMap() {
+        BoundExpression bound = VariableSchema.of("x", "y").bind(new ExpressionParser("x + y").parse());
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("x", 1.0);
+
+        assertThrows(RuntimeException.class, () -> bound.evaluate(variables));
+    }
+
+    /**
+     * Проверяет, что непривязанное дерево нельзя вычислить по слотам, а повторы имён в схеме запрещены.
+     */
+    @Test
+    public void testUnboundAndDuplicateVariables() {
+        ExpressionNode ast = new ExpressionParser("x + 1").parse();
+
+        assertThrows(IllegalStateException.class, () -> ast.evaluate(new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class, () -> VariableSchema.of("x", "x"));
+    }
+
+    /**
+     * Проверяет сохранение семантики деления на ноль при вычислении по слотам.
+     */
+    @Test
+    public void testDivisionByZero() {
+        BoundExpression bound = VariableSchema.of("x", "y").bind(new ExpressionParser("x / y").parse());
+
+        assertThrows(ArithmeticException.class, () -> bound.evaluate(new double[]{10.0, 0.0}));
+    }
+}
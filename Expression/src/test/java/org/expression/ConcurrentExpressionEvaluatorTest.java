@@ -0,0 +1,94 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentExpressionEvaluatorTest {
+
+    private static final String EXPRESSION = "(x + y) * z - x / (abs(y) + 1) + sqrt(z * z) ^ 2";
+
+    private static double expected(double x, double y, double z) {
+        return (x + y) * z - x / (Math.abs(y) + 1) + z * z;
+    }
+
+    /**
+     * Проверяет вычисление через вызовы, контекст и исходное дерево.
+     */
+    @Test
+    public void testEvaluate() {
+        ExpressionNode ast = new ExpressionParser(EXPRESSION).parse();
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(ast);
+        assertEquals(List.of("x", "y", "z"), evaluator.getSchema().getNames());
+
+        double value = expected(2, -3, 4);
+        assertEquals(value, evaluator.evaluate(Map.of("x", 2.0, "y", -3.0, "z", 4.0)));
+        assertEquals(value, evaluator.evaluate(new double[]{2, -3, 4}));
+        assertEquals(value, evaluator.newContext().set("x", 2).set("y", -3).set(2, 4).evaluate());
+        assertThrows(RuntimeException.class, () -> evaluator.newContext().set("w", 1));
+        assertThrows(RuntimeException.class, () -> evaluator.evaluate(Map.of("x", 2.0)));
+    }
+
+    /**
+     * Нагрузочный тест: одно разобранное дерево вычисляется одновременно 64 потоками с разными значениями
+     * переменных всеми поддерживаемыми способами; каждый результат сверяется с кодом на Java.
+     */
+    @Test
+    public void testSharedTreeAcrossThreads() throws Exception {
+        ExpressionNode ast = new ExpressionParser(EXPRESSION).parse();
+        ConcurrentExpressionEvaluator shared = new ConcurrentExpressionEvaluator(ast);
+        Map<String, Double> constant = Map.of("x", 1.0, "y", 2.0, "z", 3.0);
+        ExpressionEvaluator profiled = new ExpressionEvaluator(constant);
+        EvaluationProfiler profiler = new EvaluationProfiler();
+        profiled.setProfiler(profiler);
+
+        int threads = 64;
+        int iterations = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    ConcurrentExpressionEvaluator.Context context = shared.newContext();
+                    double[] slots = new double[3];
+                    start.await();
+                    int checked = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        double x = thread + i * 0.5;
+                        double y = -thread - i;
+                        double z = i % 7 - 3;
+                        double value = expected(x, y, z);
+                        slots[0] = x;
+                        slots[1] = y;
+                        slots[2] = z;
+                        assertEquals(value, ast.evaluate(Map.of("x", x, "y", y, "z", z)));
+                        assertEquals(value, shared.evaluate(slots));
+                        assertEquals(value, context.set(0, x).set(1, y).set(2, z).evaluate());
+                        assertEquals(expected(1, 2, 3), profiled.evaluate(ast));
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(iterations, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals((long) threads * iterations, profiler.getEvaluationCount());
+        assertEquals((long) threads * iterations, profiler.getStats(ast).getCount());
+    }
+}
@@ -0,0 +1,71 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvExpressionRunnerTest {
+
+    /**
+     * Проверяет, что при вычислении в нескольких потоках результаты записываются в порядке строк.
+     */
+    @Test
+    public void testOrderPreserved() throws IOException {
+        int rows = 20_000;
+        StringBuilder input = new StringBuilder("x, y ,z\n");
+        for (int i = 0; i < rows; i++) {
+            input.append(i).append(',').append(i % 7 + 1).append(", 0.5\n");
+        }
+        ExpressionNode ast = new ExpressionParser("x * y - z").parse();
+        CsvExpressionRunner runner = new CsvExpressionRunner(ast, 4, 1000);
+        StringWriter output = new StringWriter();
+
+        CsvExpressionRunner.Report report = runner.run(new StringReader(input.toString()), output);
+
+        assertEquals(rows, report.rows());
+        assertEquals(0, report.errors());
+        assertTrue(report.rowsPerSecond() > 0);
+        String[] lines = output.toString().split("\n");
+        assertEquals(rows, lines.length);
+        for (int i = 0; i < rows; i++) {
+            double expected = ast.evaluate(Map.of("x", (double) i, "y", (double) (i % 7 + 1), "z", 0.5));
+            assertEquals(expected, Double.parseDouble(lines[i]), "строка " + i);
+        }
+    }
+
+    /**
+     * Проверяет, что строки с делением на ноль получают NaN, а остальные строки блока вычисляются.
+     */
+    @Test
+    public void testDivisionByZeroRows() throws IOException {
+        String input = "a,b\n6,3\n1,0\n\n8,4\n";
+        CsvExpressionRunner runner = new CsvExpressionRunner(new ExpressionParser("a / b").parse(), 2, 16);
+        StringWriter output = new StringWriter();
+
+        CsvExpressionRunner.Report report = runner.run(new StringReader(input), output);
+
+        assertEquals(3, report.rows());
+        assertEquals(1, report.errors());
+        assertEquals("2.0\nNaN\n2.0\n", output.toString());
+    }
+
+    /**
+     * Проверяет ошибки формата: неизвестная переменная, неверное количество значений и неверное число.
+     */
+    @Test
+    public void testFormatErrors() {
+        ExpressionNode ast = new ExpressionParser("a + b").parse();
+        CsvExpressionRunner runner = new CsvExpressionRunner(ast, 1, 16);
+
+        assertThrows(RuntimeException.class, () -> runner.run(new StringReader("a,c\n1,2\n"), new StringWriter()));
+        assertThrows(RuntimeException.class, () -> runner.run(new StringReader("a,b\n1,2,3\n"), new StringWriter()));
+        assertThrows(RuntimeException.class, () -> runner.run(new StringReader("a,b\n1\n"), new StringWriter()));
+        assertThrows(RuntimeException.class, () -> runner.run(new StringReader("a,b\n1,abc\n"), new StringWriter()));
+        assertThrows(RuntimeException.class, () -> runner.run(new StringReader(""), new StringWriter()));
+    }
+}
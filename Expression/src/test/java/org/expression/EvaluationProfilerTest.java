@@ -0,0 +1,74 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationProfilerTest {
+
+    /**
+     * Проверяет, что профилированное вычисление даёт тот же результат и считает каждый узел.
+     */
+    @Test
+    public void testNodeCounters() {
+        OperationNode sum = (OperationNode) new ExpressionParser("x * y + sqrt(z)").parse();
+        OperationNode product = (OperationNode) sum.getLeft();
+        Map<String, Double> variables = Map.of("x", 3.0, "y", 5.0, "z", 16.0);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+        assertNull(evaluator.getProfiler());
+        double expected = evaluator.evaluate(sum);
+
+        EvaluationProfiler profiler = new EvaluationProfiler();
+        evaluator.setProfiler(profiler);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected, evaluator.evaluate(sum));
+        }
+        assertEquals(expected, evaluator.evaluate(VariableSchema.of("x", "y", "z").bind(sum)));
+
+        assertEquals(11, profiler.getEvaluationCount());
+        assertEquals(10, profiler.getStats(sum).getCount());
+        assertEquals(10, profiler.getStats(product).getCount());
+        assertEquals(10, profiler.getStats(product.getLeft()).getCount());
+        assertTrue(profiler.getStats(sum).getNanos() >= profiler.getStats(product).getNanos());
+        assertEquals(6 + 6, profiler.getNodeStats().size(), "узлы исходного и привязанного дерева");
+        assertTrue(profiler.getEvaluationRate() > 0);
+
+        long total = 0;
+        for (long bucket : profiler.getLatencyHistogram()) {
+            total += bucket;
+        }
+        assertEquals(11, total);
+        assertTrue(profiler.toString().contains("Вычислений: 11"), profiler.toString());
+
+        profiler.reset();
+        assertEquals(0, profiler.getEvaluationCount());
+        assertTrue(profiler.getNodeStats().isEmpty());
+        evaluator.setProfiler(null);
+        assertEquals(expected, evaluator.evaluate(sum));
+        assertEquals(0, profiler.getEvaluationCount());
+    }
+
+    /**
+     * Проверяет подсчёт ошибок неопределённых переменных и деления на ноль.
+     */
+    @Test
+    public void testErrorCounters() {
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("x", 1.0);
+        variables.put("y", 0.0);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+        EvaluationProfiler profiler = new EvaluationProfiler();
+        evaluator.setProfiler(profiler);
+
+        assertThrows(ArithmeticException.class, () -> evaluator.evaluate(new ExpressionParser("x / y").parse()));
+        assertThrows(RuntimeException.class, () -> evaluator.evaluate(new ExpressionParser("x + z").parse()));
+        assertThrows(RuntimeException.class, () -> evaluator.evaluate(new ExpressionParser("z").parse()));
+
+        assertEquals(3, profiler.getEvaluationCount());
+        assertEquals(1, profiler.getDivisionByZeroCount());
+        assertEquals(2, profiler.getUndefinedVariableCount());
+    }
+}
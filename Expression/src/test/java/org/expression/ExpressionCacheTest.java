@@ -0,0 +1,100 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionCacheTest {
+
+    /**
+     * Проверяет попадания, промахи и то, что выражения, различающиеся только пробелами, разделяют запись.
+     */
+    @Test
+    public void testHitsAndMisses() {
+        ExpressionCache cache = new ExpressionCache(10);
+
+        ExpressionNode first = cache.get("x + y");
+        ExpressionNode second = cache.get("x+y");
+        ExpressionNode third = cache.get("  x +\ty ");
+
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Проверяет вытеснение давно не использованной записи при превышении размера.
+     */
+    @Test
+    public void testLruEviction() {
+        ExpressionCache cache = new ExpressionCache(2);
+        ExpressionNode a = cache.get("a + 1");
+        cache.get("b + 1");
+        cache.get("a + 1");   // "a + 1" становится самой свежей записью
+        cache.get("c + 1");   // Вытесняется "b + 1"
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.get("a + 1"));
+        long misses = cache.getMissCount();
+        cache.get("b + 1");
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    /**
+     * Проверяет, что скомпилированная форма создаётся один раз и вычисляет правильное значение.
+     */
+    @Test
+    public void testCompiledEntry() {
+        ExpressionCache cache = new ExpressionCache(4);
+        BoundExpression bound = cache.getBound("(x + y) * z");
+
+        assertSame(bound.compile(), cache.getBound("(x+y)*z").compile());
+        assertEquals(16.0, bound.compile().eval(new double[]{3, 5, 2}));
+    }
+
+    /**
+     * Проверяет работу кэша при одновременном обращении из многих потоков.
+     */
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        ExpressionCache cache = new ExpressionCache(16);
+        int threads = 16;
+        int requests = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Double>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    double sum = 0;
+                    for (int i = 0; i < requests; i++) {
+                        int k = i % 32;
+                        sum += cache.getBound("x * " + k).evaluate(new double[]{1.0});
+                    }
+                    return sum;
+                }));
+            }
+            double expected = 0;
+            for (int i = 0; i < requests; i++) {
+                expected += i % 32;
+            }
+            for (Future<Double> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals((long) threads * requests, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.size() <= 16);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+}
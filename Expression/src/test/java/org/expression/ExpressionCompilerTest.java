@@ -0,0 +1,169 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionCompilerTest {
+
+    private static final List<String> VARIABLES = List.of("x", "y", "z");
+
+    /**
+     * Проверяет, что скомпилированное выражение и интерпретатор дают те же результаты,
+     * что и {@link ExpressionEvaluator#evaluate}, на наборе выражений и значений переменных.
+     */
+    @Test
+    public void testCompiledMatchesEvaluator() {
+        String[] expressions = {
+                "x + y",
+                "(x + y) * z",
+                "x - y - z",
+                "x / y + 2.5 * z",
+                "((x * 3) - (y / 4)) * (z + 0.1) - 1",
+                "0 * x + 1 * y"
+        };
+        double[][] values = {{3, 5, 2}, {-1.5, 0.25, 10}, {1e10, -3, 0.001}};
+
+        ExpressionCompiler compiler = new ExpressionCompiler(VARIABLES);
+        for (String expression : expressions) {
+            ExpressionNode ast = new ExpressionParser(expression).parse();
+            CompiledExpression compiled = compiler.compile(ast);
+            CompiledExpression interpreted = compiler.interpret(ast);
+            assertTrue(ExpressionCompiler.isGenerated(compiled), "Выражение должно быть скомпилировано: " + expression);
+            assertFalse(ExpressionCompiler.isGenerated(interpreted));
+
+            for (double[] slots : values) {
+                double expected = new ExpressionEvaluator(toMap(slots)).evaluate(ast);
+                assertEquals(expected, compiled.eval(slots), expression);
+                assertEquals(expected, interpreted.eval(slots), expression);
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что скомпилированное выражение сохраняет семантику деления на ноль.
+     */
+    @Test
+    public void testCompiledDivisionByZero() {
+        ExpressionNode ast = new ExpressionParser("x / (y - 2)").parse();
+        CompiledExpression compiled = new ExpressionCompiler(VARIABLES).compile(ast);
+
+        assertEquals(5.0, compiled.eval(new double[]{10, 4, 0}));
+        assertThrows(ArithmeticException.class, () -> compiled.eval(new double[]{10, 2, 0}));
+    }
+
+    /**
+     * Проверяет, что переменная без слота обнаруживается при компиляции.
+     */
+    @Test
+    public void testUnknownVariable() {
+        ExpressionNode ast = new ExpressionParser("x + w").parse();
+        ExpressionCompiler compiler = new ExpressionCompiler(VARIABLES);
+
+        assertThrows(RuntimeException.class, () -> compiler.compile(ast));
+        assertThrows(RuntimeException.class, () -> compiler.interpret(ast));
+    }
+
+    /**
+     * Проверяет переход на интерпретатор, когда метод превышает ограничение JVM на размер байт-кода.
+     */
+    @Test
+    public void testFallbackForHugeExpression() {
+        ExpressionNode ast = balancedSum(15);
+        CompiledExpression compiled = new ExpressionCompiler(VARIABLES).compile(ast);
+
+        assertFalse(ExpressionCompiler.isGenerated(compiled));
+        assertEquals(32_768.0, compiled.eval(new double[]{1, 1, 1}));
+    }
+
+    private static ExpressionNode balancedSum(int depth) {
+        if (depth == 0) {
+            return new VariableNode("x");
+        }
+        return new OperationNode(OperationNode.Operation.ADD, balancedSum(depth - 1), balancedSum(depth - 1));
+    }
+
+    /**
+     * Проверяет, что постоянные целые степени, развёрнутые компилятором в умножения, совпадают до бита
+     * с {@link OperationNode#power}, а нецелые, слишком большие и переменные показатели вычисляются как прежде.
+     */
+    @Test
+    public void testConstantIntegerPowers() {
+        ExpressionCompiler compiler = new ExpressionCompiler(VARIABLES);
+        double[] bases = {0.0, -0.0, 1.5, -2.25, 1e-3, 7.0, Double.NaN, Double.POSITIVE_INFINITY};
+        double[] exponents = {1, 2, 3, 5, 13, 64, -1, -2, -7, -64, 0, 65, -65, 0.5, 2.5, 1e10};
+        for (double exponent : exponents) {
+            ExpressionNode ast = new OperationNode(OperationNode.Operation.POWER,
+                    new VariableNode("x"), new NumberNode(exponent));
+            CompiledExpression compiled = compiler.compile(ast);
+            assertTrue(ExpressionCompiler.isGenerated(compiled), "Выражение должно быть скомпилировано: x ^ " + exponent);
+            for (double base : bases) {
+                assertEquals(OperationNode.power(base, exponent), compiled.eval(new double[]{base, 0, 0}),
+                        base + " ^ " + exponent);
+            }
+        }
+
+        // Степени внутри основания, переменный показатель и деление на ноль в основании
+        ExpressionNode ast = new ExpressionParser("((x + y) ^ 3) ^ 2 - x ^ z + (y / z) ^ 2").parse();
+        CompiledExpression compiled = compiler.compile(ast);
+        assertTrue(ExpressionCompiler.isGenerated(compiled));
+        double[] slots = {1.5, -0.25, 4};
+        assertEquals(compiler.interpret(ast).eval(slots), compiled.eval(slots));
+        assertThrows(ArithmeticException.class, () -> compiled.eval(new double[]{1.5, -0.25, 0}));
+    }
+
+    private static Map<String, Double> toMap(double[] slots) {
+        Map<String, Double> variables = new HashMap<>();
+        for (int i = 0; i < VARIABLES.size(); i++) {
+            variables.put(VARIABLES.get(i), slots[i]);
+        }
+        return variables;
+    }
+
+    /**
+     * Проверяет, что глубокие цепочки компилируются без рекурсии: компиляция выполняется в потоке
+     * с маленьким стеком, на котором рекурсивный обход дерева такой глубины переполнил бы стек.
+     */
+    @Test
+    public void testDeepChains() throws InterruptedException {
+        int depth = 5000;
+        ExpressionNode sum = new VariableNode("x");
+        ExpressionNode difference = new VariableNode("x");
+        double[] slots = {1.25, -0.5, 3};
+        double expectedSum = slots[0];
+        double expectedDifference = slots[0];
+        for (int i = 1; i < depth; i++) {
+            VariableNode next = new VariableNode(i % 2 == 0 ? "x" : "y");
+            sum = new OperationNode(OperationNode.Operation.ADD, sum, next);
+            difference = new OperationNode(OperationNode.Operation.SUBTRACT, next, difference);
+            expectedSum += slots[i % 2 == 0 ? 0 : 1];
+            expectedDifference = slots[i % 2 == 0 ? 0 : 1] - expectedDifference;
+        }
+
+        ExpressionCompiler compiler = new ExpressionCompiler(VARIABLES);
+        ExpressionNode[] chains = {sum, difference};
+        CompiledExpression[] compiled = new CompiledExpression[chains.length];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                for (int i = 0; i < chains.length; i++) {
+                    compiled[i] = compiler.compile(chains[i]);
+                }
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "compiler", 256 * 1024);
+        thread.start();
+        thread.join();
+
+        assertNull(failure[0]);
+        assertTrue(ExpressionCompiler.isGenerated(compiled[0]));
+        assertTrue(ExpressionCompiler.isGenerated(compiled[1]));
+        assertEquals(expectedSum, compiled[0].eval(slots));
+        assertEquals(expectedDifference, compiled[1].eval(slots));
+    }
+}
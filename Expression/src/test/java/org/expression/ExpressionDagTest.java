@@ -0,0 +1,91 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionDagTest {
+
+    /**
+     * Проверяет объединение одинаковых поддеревьев и коэффициент дедупликации.
+     */
+    @Test
+    public void testSharedSubexpressions() {
+        ExpressionNode ast = new ExpressionParser("(a + b) * (a + b) / (a + b)").parse();
+        ExpressionDag dag = new ExpressionDag(VariableSchema.from(ast).bind(ast));
+
+        assertEquals(11, dag.getTreeNodeCount());
+        assertEquals(5, dag.getUniqueNodeCount());
+        assertEquals(2.2, dag.getDedupRatio(), 1e-12);
+
+        OperationNode quotient = (OperationNode) dag.getRoot();
+        OperationNode product = (OperationNode) quotient.getLeft();
+        assertSame(product.getLeft(), product.getRight());
+        assertSame(product.getLeft(), quotient.getRight());
+    }
+
+    /**
+     * Проверяет, что вычисление графа совпадает с вычислением исходного дерева, включая деление на ноль.
+     */
+    @Test
+    public void testSameResults() {
+        String[] expressions = {"(a + b) * (a + b) / (a + b)", "a * 2 + a * 2 - (b - a * 2)", "a", "3 + 3"};
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("a", 1.5);
+        variables.put("b", -4.0);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+
+        for (String expression : expressions) {
+            ExpressionNode ast = new ExpressionParser(expression).parse();
+            ExpressionDag dag = new ExpressionDag(VariableSchema.of("a", "b").bind(ast));
+            assertEquals(evaluator.evaluate(ast), dag.evaluate(variables), expression);
+            assertEquals(evaluator.evaluate(ast), dag.evaluate(new double[]{1.5, -4.0}), expression);
+        }
+
+        ExpressionNode division = new ExpressionParser("(a + b) / (a - a)").parse();
+        ExpressionDag dag = new ExpressionDag(VariableSchema.of("a", "b").bind(division));
+        assertThrows(ArithmeticException.class, () -> dag.evaluate(new double[]{1.0, 2.0}));
+    }
+
+    /**
+     * Проверяет, что константы с разным знаком нуля не объединяются.
+     */
+    @Test
+    public void testSignedZeroNotMerged() {
+        ExpressionInterner interner = new ExpressionInterner();
+        ExpressionNode zero = interner.intern(new NumberNode(0.0));
+        ExpressionNode negativeZero = interner.intern(new NumberNode(-0.0));
+
+        assertNotSame(zero, negativeZero);
+        assertSame(zero, interner.intern(new NumberNode(0.0)));
+        assertEquals(2, interner.getUniqueNodes());
+    }
+
+    /**
+     * Проверяет хеш-консинг очень глубокой левосторонней суммы, на которой рекурсивный обход переполнил бы стек.
+     */
+    @Test
+    public void testDeepTreeInterned() {
+        int terms = 200_000;
+        ExpressionNode sum = new VariableNode("x");
+        for (int i = 1; i < terms; i++) {
+            sum = new OperationNode(OperationNode.Operation.ADD, sum, new VariableNode("x"));
+        }
+        ExpressionInterner interner = new ExpressionInterner();
+        ExpressionNode interned = interner.intern(sum);
+
+        assertEquals(2L * terms - 1, interner.getNodesSeen());
+        assertEquals(terms, interner.getUniqueNodes());  // Одна переменная и terms - 1 сумм
+        // Все правые операнды и самый левый лист — один и тот же экземпляр переменной
+        ExpressionNode variable = ((OperationNode) interned).getRight();
+        ExpressionNode node = interned;
+        while (node instanceof OperationNode operation) {
+            assertSame(variable, operation.getRight());
+            node = operation.getLeft();
+        }
+        assertSame(variable, node);
+    }
+}
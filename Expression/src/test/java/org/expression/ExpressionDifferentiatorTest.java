@@ -0,0 +1,110 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionDifferentiatorTest {
+
+    /**
+     * Формулы, дифференцируемые в окрестности проверяемых точек.
+     */
+    static final String[] FORMULAS = {
+            "x * x + 3 * x - y", "x * y / (x + y * y)", "(x - y) ^ 3", "x ^ y", "2 ^ (x * y)", "x ^ -2 * y",
+            "sqrt(x * y) + exp(-x) * log(y)", "abs(x - 2 * y) * y", "min(x * x, y) + max(x, 3 * y)",
+            "fma(x, y, x * x) - -(y)"
+    };
+
+    static final double[][] POINTS = {{1.5, 0.4}, {0.7, 2.25}, {3.0, 1.2}};
+
+    /**
+     * Проверяет производные по обеим переменным против центральных конечных разностей.
+     */
+    @Test
+    public void testAgainstFiniteDifferences() {
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        for (String text : FORMULAS) {
+            ExpressionNode ast = new ExpressionParser(text).parse();
+            Map<String, ExpressionNode> gradient = differentiator.gradient(ast);
+            for (double[] p : POINTS) {
+                for (String variable : new String[]{"x", "y"}) {
+                    double h = 1e-6;
+                    double dx = variable.equals("x") ? h : 0;
+                    double dy = variable.equals("y") ? h : 0;
+                    double expected = (ast.evaluate(Map.of("x", p[0] + dx, "y", p[1] + dy))
+                            - ast.evaluate(Map.of("x", p[0] - dx, "y", p[1] - dy))) / (2 * h);
+                    double actual = gradient.get(variable).evaluate(Map.of("x", p[0], "y", p[1]));
+                    assertEquals(expected, actual, 1e-5 * (1 + Math.abs(expected)), text + " по " + variable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет упрощение производных.
+     */
+    @Test
+    public void testSimplified() {
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        ExpressionNode product = new ExpressionParser("x * y + 5").parse();
+        VariableNode y = assertInstanceOf(VariableNode.class, differentiator.derivative(product, "x"));
+        assertEquals("y", y.getName());
+
+        NumberNode zero = assertInstanceOf(NumberNode.class,
+                differentiator.derivative(new ExpressionParser("y / (z - z) + 1").parse(), "x"));
+        assertEquals(0.0, zero.getValue());
+
+        ExpressionNode square = differentiator.derivative(new ExpressionParser("x ^ 2").parse(), "x");
+        assertEquals(3, ExpressionOptimizer.countNodes(square), "2 * x");
+        assertEquals(-6.0, square.evaluate(Map.of("x", -3.0)));
+
+        NumberNode constant = assertInstanceOf(NumberNode.class,
+                differentiator.derivative(new ExpressionParser("3 * x - x / 4").parse(), "x"));
+        assertEquals(2.75, constant.getValue(), 1e-15);
+    }
+
+    /**
+     * Проверяет субградиенты в изломах и ошибку в точке, где производная не определена.
+     */
+    @Test
+    public void testKinksAndUndefinedDerivative() {
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        ExpressionNode abs = differentiator.derivative(new ExpressionParser("abs(x)").parse(), "x");
+        assertEquals(-1.0, abs.evaluate(Map.of("x", -2.0)));
+        assertEquals(0.0, abs.evaluate(Map.of("x", 0.0)));
+        assertEquals(1.0, abs.evaluate(Map.of("x", Double.MIN_VALUE)));
+        assertEquals(-1.0, abs.evaluate(Map.of("x", -Double.MAX_VALUE)));
+
+        ExpressionNode max = differentiator.derivative(new ExpressionParser("max(x, 0)").parse(), "x");
+        assertEquals(0.5, max.evaluate(Map.of("x", 0.0)));
+        assertEquals(1.0, max.evaluate(Map.of("x", 0.25)));
+        ExpressionNode min = differentiator.derivative(new ExpressionParser("min(3 * x, y)").parse(), "x");
+        assertEquals(1.5, min.evaluate(Map.of("x", 1.0, "y", 3.0)));
+        assertEquals(0.0, min.evaluate(Map.of("x", 1.0, "y", 2.0)));
+
+        ExpressionNode sqrt = differentiator.derivative(new ExpressionParser("sqrt(x)").parse(), "x");
+        assertThrows(ArithmeticException.class, () -> sqrt.evaluate(Map.of("x", 0.0)));
+    }
+
+    /**
+     * Проверяет производную частного при знаменателе, квадрат которого теряет порядок:
+     * символьная производная совпадает с прямым режимом, а не выбрасывает деление на ноль.
+     */
+    @Test
+    public void testSmallDenominator() {
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        ExpressionNode ast = new ExpressionParser("x / y").parse();
+        GradientEvaluator evaluator = new GradientEvaluator(VariableSchema.of("x", "y").bind(ast));
+        double[] slots = {3e-200, 1e-200};
+        double[] gradient = new double[2];
+        evaluator.evaluate(slots, gradient);
+
+        Map<String, Double> variables = Map.of("x", slots[0], "y", slots[1]);
+        assertEquals(1e200, differentiator.derivative(ast, "x").evaluate(variables), 1e185);
+        assertEquals(-3e200, differentiator.derivative(ast, "y").evaluate(variables), 1e185);
+        assertEquals(gradient[0], differentiator.derivative(ast, "x").evaluate(variables), 1e185);
+        assertEquals(gradient[1], differentiator.derivative(ast, "y").evaluate(variables), 1e185);
+    }
+}
@@ -0,0 +1,88 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionOptimizerTest {
+
+    /**
+     * Проверяет свёртку констант, удаление нейтральных операций и подсчёт узлов до и после оптимизации.
+     */
+    @Test
+    public void testFoldingAndIdentities() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        ExpressionNode optimized = optimizer.optimize(new ExpressionParser("(2*3)+x*1").parse());
+
+        assertEquals(7, optimizer.getNodesBefore());
+        assertEquals(3, optimizer.getNodesAfter());
+        OperationNode sum = assertInstanceOf(OperationNode.class, optimized);
+        assertEquals(OperationNode.Operation.ADD, sum.getOperation());
+        assertEquals("x", assertInstanceOf(VariableNode.class, sum.getLeft()).getName());
+        assertEquals(6.0, assertInstanceOf(NumberNode.class, sum.getRight()).getValue());
+    }
+
+    /**
+     * Проверяет, что коммутативные операции с переставленными операндами приводятся к одному виду.
+     */
+    @Test
+    public void testCanonicalOrder() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        ExpressionNode a = optimizer.optimize(new ExpressionParser("2 * (y + x)").parse());
+        ExpressionNode b = optimizer.optimize(new ExpressionParser("(x + y) * 2").parse());
+
+        assertEquals(describe(a), describe(b));
+        assertEquals("(MULTIPLY (ADD x y) 2.0)", describe(a));
+    }
+
+    /**
+     * Проверяет, что деление на ноль не сворачивается и по-прежнему выбрасывает исключение при вычислении.
+     */
+    @Test
+    public void testDivisionByZeroPreserved() {
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("x", 1.0);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+
+        ExpressionNode constant = optimizer.optimize(new ExpressionParser("x + 1 / (2 - 2)").parse());
+        assertThrows(ArithmeticException.class, () -> evaluator.evaluate(constant));
+
+        ExpressionNode multiplied = optimizer.optimize(new ExpressionParser("0 * (x / 0)").parse());
+        assertThrows(ArithmeticException.class, () -> evaluator.evaluate(multiplied));
+    }
+
+    /**
+     * Проверяет, что оптимизированное дерево вычисляет те же значения, что и исходное.
+     */
+    @Test
+    public void testSameResults() {
+        String[] expressions = {"x * 1 + 0 * y", "(1 + 2) * (x - 0) / 1 + y * (4 / 2)", "x - y / (3 * 1)", "1 * 1 + 0"};
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("x", 2.5);
+        variables.put("y", -7.0);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+
+        for (String expression : expressions) {
+            ExpressionNode ast = new ExpressionParser(expression).parse();
+            ExpressionNode optimized = optimizer.optimize(ast);
+            assertEquals(evaluator.evaluate(ast), evaluator.evaluate(optimized), expression);
+            assertTrue(optimizer.getNodesAfter() <= optimizer.getNodesBefore(), expression);
+        }
+    }
+
+    private static String describe(ExpressionNode node) {
+        if (node instanceof OperationNode operation) {
+            return "(" + operation.getOperation() + " " + describe(operation.getLeft()) + " "
+                    + describe(operation.getRight()) + ")";
+        }
+        if (node instanceof VariableNode variable) {
+            return variable.getName();
+        }
+        return String.valueOf(((NumberNode) node).getValue());
+    }
+}
@@ -0,0 +1,100 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionParserTest {
+
+    /**
+     * Проверяет, что числовые литералы разбираются так же, как {@link Double#parseDouble(String)},
+     * включая длинные мантиссы, требующие точного округления.
+     */
+    @Test
+    public void testNumberLiterals() {
+        String[] literals = {"0", "7", "3.25", "0.1", "1.", "123456789.987654321", "0.30000000000000004",
+                "9007199254740993", "12345678901234567890.5", "0.000000000000000000000001"};
+        for (String literal : literals) {
+            NumberNode node = assertInstanceOf(NumberNode.class, new ExpressionParser(literal).parse());
+            assertEquals(Double.parseDouble(literal), node.getValue(), literal);
+        }
+    }
+
+    /**
+     * Проверяет, что пробелы, табуляции и переводы строк между лексемами игнорируются.
+     */
+    @Test
+    public void testWhitespace() {
+        ExpressionNode ast = new ExpressionParser(" \t( x +\n 2.5 )*  y ").parse();
+        OperationNode product = assertInstanceOf(OperationNode.class, ast);
+        assertEquals(OperationNode.Operation.MULTIPLY, product.getOperation());
+        assertEquals("y", assertInstanceOf(VariableNode.class, product.getRight()).getName());
+    }
+
+    /**
+     * Проверяет, что одинаковые имена переменных получают один экземпляр строки, в том числе между парсерами.
+     */
+    @Test
+    public void testInternedIdentifiers() {
+        SymbolTable symbols = new SymbolTable();
+        OperationNode first = (OperationNode) new ExpressionParser("alpha + alpha", symbols).parse();
+        OperationNode second = (OperationNode) new ExpressionParser(new StringBuilder("alpha * beta"), symbols).parse();
+
+        String a = ((VariableNode) first.getLeft()).getName();
+        assertSame(a, ((VariableNode) first.getRight()).getName());
+        assertSame(a, ((VariableNode) second.getLeft()).getName());
+        assertEquals(2, symbols.size());
+    }
+
+    /**
+     * Проверяет, что сообщения об ошибках содержат позицию ошибки в исходном тексте.
+     */
+    @Test
+    public void testErrorPositions() {
+        RuntimeException unexpected = assertThrows(RuntimeException.class, () -> new ExpressionParser("x + $").parse());
+        assertEquals("Неожиданный символ: $ (позиция 4)", unexpected.getMessage());
+
+        RuntimeException paren = assertThrows(RuntimeException.class, () -> new ExpressionParser("(x + y").parse());
+        assertEquals("Ожидался символ: ) (позиция 6)", paren.getMessage());
+
+        RuntimeException end = assertThrows(RuntimeException.class, () -> new ExpressionParser("x *").parse());
+        assertEquals("Неожиданный конец выражения (позиция 3)", end.getMessage());
+
+        RuntimeException trailing = assertThrows(RuntimeException.class, () -> new ExpressionParser("x y").parse());
+        assertEquals("Неожиданный символ: y (позиция 2)", trailing.getMessage());
+    }
+
+    /**
+     * Проверяет приоритет унарного минуса и степени, правую ассоциативность степени и вызовы функций.
+     */
+    @Test
+    public void testUnaryPowerAndFunctions() {
+        FunctionNode negated = assertInstanceOf(FunctionNode.class, new ExpressionParser("-x^2").parse());
+        assertEquals(FunctionNode.Function.NEGATE, negated.getFunction());
+        OperationNode square = assertInstanceOf(OperationNode.class, negated.getArgument(0));
+        assertEquals(OperationNode.Operation.POWER, square.getOperation());
+
+        OperationNode tower = assertInstanceOf(OperationNode.class, new ExpressionParser("2^3^2").parse());
+        assertInstanceOf(OperationNode.class, tower.getRight());
+        assertEquals(-2.5, assertInstanceOf(NumberNode.class, new ExpressionParser("--2.5").parse()).getValue() * -1);
+
+        FunctionNode fma = assertInstanceOf(FunctionNode.class, new ExpressionParser("fma(a, b * 2, -c)").parse());
+        assertEquals(FunctionNode.Function.FMA, fma.getFunction());
+        assertEquals(3, fma.getArguments().size());
+    }
+
+    /**
+     * Проверяет ошибки вызова функций.
+     */
+    @Test
+    public void testFunctionErrors() {
+        RuntimeException unknown = assertThrows(RuntimeException.class, () -> new ExpressionParser("foo(x)").parse());
+        assertEquals("Неизвестная функция: foo (позиция 3)", unknown.getMessage());
+
+        RuntimeException tooMany = assertThrows(RuntimeException.class, () -> new ExpressionParser("sqrt(x, y)").parse());
+        assertEquals("Функция sqrt ожидает аргументов: 1 (позиция 6)", tooMany.getMessage());
+
+        RuntimeException tooFew = assertThrows(RuntimeException.class, () -> new ExpressionParser("min(x)").parse());
+        assertEquals("Ожидался символ: , (позиция 5)", tooFew.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionProgramTest {
+
+    /**
+     * Проверяет, что программа вычисляет все выражения так же, как вычисление каждого по отдельности,
+     * и объединяет подвыражения, общие для разных формул.
+     */
+    @Test
+    public void testSharedEvaluation() {
+        Map<String, ExpressionNode> expressions = new LinkedHashMap<>();
+        expressions.put("total", new ExpressionParser("price * volume + fee").parse());
+        expressions.put("average", new ExpressionParser("(price * volume + fee) / volume").parse());
+        expressions.put("share", new ExpressionParser("fee / (price * volume + fee)").parse());
+        ExpressionProgram program = new ExpressionProgram(expressions);
+
+        assertEquals(List.of("total", "average", "share"), program.getNames());
+        assertEquals(List.of("price", "volume", "fee"), program.getSchema().getNames());
+        assertEquals(5 + 7 + 7, program.getTreeNodeCount());
+        assertEquals(7, program.getUniqueNodeCount());
+
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("price", 12.5);
+        variables.put("volume", 4.0);
+        variables.put("fee", 2.0);
+        double[] results = program.evaluate(variables);
+
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+        for (Map.Entry<String, ExpressionNode> entry : expressions.entrySet()) {
+            assertEquals(evaluator.evaluate(entry.getValue()), results[program.indexOf(entry.getKey())], entry.getKey());
+        }
+    }
+
+    /**
+     * Проверяет вычисление по слотам в заданной схеме и ошибки привязки и деления на ноль.
+     */
+    @Test
+    public void testSchemaAndErrors() {
+        Map<String, ExpressionNode> expressions = new LinkedHashMap<>();
+        expressions.put("sum", new ExpressionParser("a + b").parse());
+        expressions.put("ratio", new ExpressionParser("a / b").parse());
+        ExpressionProgram program = new ExpressionProgram(expressions, VariableSchema.of("b", "a"));
+
+        double[] results = new double[2];
+        program.evaluate(new double[]{2.0, 6.0}, results);
+        assertArrayEquals(new double[]{8.0, 3.0}, results);
+
+        assertThrows(ArithmeticException.class, () -> program.evaluate(new double[]{0.0, 6.0}, results));
+        assertThrows(ArithmeticException.class, () -> program.evaluate(Map.of("a", 6.0, "b", 0.0)));
+        assertThrows(RuntimeException.class, () -> new ExpressionProgram(expressions, VariableSchema.of("a")));
+        assertThrows(IllegalArgumentException.class, () -> program.indexOf("missing"));
+    }
+
+    /**
+     * Проверяет, что ошибка в общем подвыражении отмечается у всех зависящих от него выражений,
+     * а NaN, полученный без исключений, ошибкой не считается.
+     */
+    @Test
+    public void testFailuresPerOutput() {
+        Map<String, ExpressionNode> expressions = new LinkedHashMap<>();
+        expressions.put("inverse", new ExpressionParser("1 / (a - b)").parse());
+        expressions.put("scaled", new ExpressionParser("c * (1 / (a - b))").parse());
+        expressions.put("fused", new ExpressionParser("fma(c, 2, 1 / (a - b))").parse());
+        expressions.put("product", new ExpressionParser("a * c").parse());
+        expressions.put("root", new ExpressionParser("sqrt(c)").parse());
+        ExpressionProgram program = new ExpressionProgram(expressions);
+
+        double[] results = new double[5];
+        boolean[] failed = new boolean[5];
+        assertEquals(3, program.evaluate(new double[]{2.0, 2.0, -4.0}, results, failed));
+        assertArrayEquals(new boolean[]{true, true, true, false, false}, failed);
+        assertTrue(Double.isNaN(results[0]));
+        assertTrue(Double.isNaN(results[1]));
+        assertTrue(Double.isNaN(results[2]));
+        assertEquals(-8.0, results[3]);
+        assertTrue(Double.isNaN(results[4]));
+
+        // Следующая запись без ошибок сбрасывает признаки
+        assertEquals(0, program.evaluate(new double[]{3.0, 2.0, 4.0}, results, failed));
+        assertArrayEquals(new boolean[5], failed);
+        assertArrayEquals(new double[]{1.0, 4.0, 9.0, 12.0, 2.0}, results);
+    }
+}
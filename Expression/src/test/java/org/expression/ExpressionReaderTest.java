@@ -0,0 +1,126 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionReaderTest {
+
+    private static final Map<String, String> FORMULAS = new LinkedHashMap<>();
+
+    static {
+        FORMULAS.put("sum", "x + y * 2 - 300000");
+        FORMULAS.put("ratio", "(x - 0.1) / (y + 12345678901234.5) * 2147483648");
+        FORMULAS.put("power", "-x ^ 3 + 2 ^ -1");
+        FORMULAS.put("functions", "fma(x, y, sqrt(abs(x))) + min(exp(y), log(abs(y) + 1)) - max(x, -y)");
+        FORMULAS.put("constant", "7");
+        FORMULAS.put("variable", "y");
+    }
+
+    private static Map<String, ExpressionNode> parseAll() {
+        Map<String, ExpressionNode> expressions = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : FORMULAS.entrySet()) {
+            expressions.put(entry.getKey(), new ExpressionParser(entry.getValue()).parse());
+        }
+        return expressions;
+    }
+
+    /**
+     * Проверяет, что прочитанные выражения вычисляются так же, как исходные, в том числе из файла.
+     */
+    @Test
+    public void testRoundTrip(@TempDir Path directory) throws Exception {
+        Map<String, ExpressionNode> expressions = parseAll();
+        ExpressionWriter writer = new ExpressionWriter();
+        writer.addAll(expressions);
+        Path file = directory.resolve("formulas.bin");
+        writer.write(file);
+
+        ExpressionReader reader = ExpressionReader.open(file);
+        assertEquals(List.copyOf(FORMULAS.keySet()), reader.getNames());
+        Map<String, ExpressionNode> loaded = reader.readAll();
+        assertEquals(List.copyOf(FORMULAS.keySet()), List.copyOf(loaded.keySet()));
+
+        VariableSchema schema = VariableSchema.of("y", "x");
+        Map<String, PostfixExpression> programs = reader.readAllPostfix(schema);
+        assertEquals(List.copyOf(FORMULAS.keySet()), List.copyOf(programs.keySet()));
+
+        double[][] points = {{1.5, -2.0}, {-3.0, 0.5}, {0.1, 7.0}};
+        for (double[] point : points) {
+            Map<String, Double> variables = Map.of("x", point[0], "y", point[1]);
+            for (String name : FORMULAS.keySet()) {
+                double expected = expressions.get(name).evaluate(variables);
+                assertEquals(expected, loaded.get(name).evaluate(variables), name);
+                assertEquals(expected, reader.read(name).evaluate(variables), name);
+                assertEquals(expected, programs.get(name).evaluate(variables), name);
+                assertEquals(expected, reader.readPostfix(name, schema).evaluate(variables), name);
+            }
+        }
+    }
+
+    /**
+     * Проверяет точное сохранение чисел, включая отрицательный ноль, и независимость от позиции буфера.
+     */
+    @Test
+    public void testNumbers() {
+        double[] numbers = {0.0, -0.0, 1.0, -1.0, Integer.MAX_VALUE, Integer.MIN_VALUE, 1e300, Math.PI,
+                Double.MIN_VALUE, Double.NaN, Double.NEGATIVE_INFINITY};
+        ExpressionWriter writer = new ExpressionWriter();
+        for (int i = 0; i < numbers.length; i++) {
+            writer.add("n" + i, new NumberNode(numbers[i]));
+        }
+        byte[] bytes = writer.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.put(new byte[3]).put(bytes).position(3);
+
+        ExpressionReader reader = new ExpressionReader(buffer);
+        for (int i = 0; i < numbers.length; i++) {
+            NumberNode number = assertInstanceOf(NumberNode.class, reader.read("n" + i));
+            assertEquals(Double.doubleToRawLongBits(numbers[i]), Double.doubleToRawLongBits(number.getValue()));
+        }
+        assertEquals(3, buffer.position());
+    }
+
+    /**
+     * Проверяет обработку повреждённых данных и неизвестных имён.
+     */
+    @Test
+    public void testErrors() {
+        ExpressionWriter writer = new ExpressionWriter();
+        writer.addAll(parseAll());
+        assertThrows(IllegalArgumentException.class, () -> writer.add("sum", new NumberNode(1)));
+        byte[] bytes = writer.toByteArray();
+
+        ExpressionReader reader = new ExpressionReader(ByteBuffer.wrap(bytes));
+        assertThrows(IllegalArgumentException.class, () -> reader.read("missing"));
+
+        assertThrows(RuntimeException.class, () -> new ExpressionReader(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        assertThrows(RuntimeException.class,
+                () -> new ExpressionReader(ByteBuffer.wrap(bytes, 0, bytes.length - 1)));
+        byte[] version = bytes.clone();
+        version[4] = 99;
+        assertThrows(RuntimeException.class, () -> new ExpressionReader(ByteBuffer.wrap(version)));
+
+        // Последние два байта — переменная y в теле выражения "variable"; заменяем их операциями без операндов
+        byte[] body = bytes.clone();
+        body[body.length - 2] = (byte) ExpressionWriter.OPERATION;
+        body[body.length - 1] = (byte) ExpressionWriter.OPERATION;
+        ExpressionReader corrupted = new ExpressionReader(ByteBuffer.wrap(body));
+        assertThrows(RuntimeException.class, () -> corrupted.read("variable"));
+        assertEquals(7.0, corrupted.read("constant").evaluate(Map.of()));
+
+        VariableSchema schema = VariableSchema.of("x", "y");
+        assertThrows(RuntimeException.class, () -> corrupted.readPostfix("variable", schema));
+        assertThrows(RuntimeException.class, () -> corrupted.readAllPostfix(schema));
+        assertEquals(7.0, corrupted.readPostfix("constant", schema).evaluate(new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> reader.readPostfix("missing", schema));
+        assertThrows(RuntimeException.class, () -> reader.readPostfix("sum", VariableSchema.of("x")));
+    }
+}
@@ -0,0 +1,129 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunctionNodeTest {
+
+    /**
+     * Выражение и эквивалентный ему код на Java.
+     */
+    private interface Formula {
+        double apply(double x, double y, double z);
+    }
+
+    private static final Map<String, Formula> FORMULAS = new LinkedHashMap<>();
+
+    static {
+        FORMULAS.put("-x + y", (x, y, z) -> -x + y);
+        FORMULAS.put("-x^2", (x, y, z) -> -(x * x));
+        FORMULAS.put("x^3 - y^-2", (x, y, z) -> x * x * x - 1 / (y * y));
+        FORMULAS.put("2^3^2 + z", (x, y, z) -> 512 + z);
+        FORMULAS.put("abs(y)^2.5", (x, y, z) -> Math.pow(Math.abs(y), 2.5));
+        FORMULAS.put("sqrt(x * x + y * y)", (x, y, z) -> Math.sqrt(x * x + y * y));
+        FORMULAS.put("exp(-z) * log(abs(y) + 1)", (x, y, z) -> Math.exp(-z) * Math.log(Math.abs(y) + 1));
+        FORMULAS.put("min(x, y) - max(y, -z)", (x, y, z) -> Math.min(x, y) - Math.max(y, -z));
+        FORMULAS.put("fma(x, y, z) / (1 + abs(z))", (x, y, z) -> Math.fma(x, y, z) / (1 + Math.abs(z)));
+        FORMULAS.put("-(-(x)) * sqrt(4) + abs(-3)", (x, y, z) -> x * 2 + 3);
+    }
+
+    private static final double[][] POINTS = {{1.5, -2.0, 0.25}, {-3.0, 0.5, 2.0}, {0.1, 7.0, -1.0}};
+
+    /**
+     * Проверяет каждый способ вычисления выражений с функциями и степенями против кода на Java.
+     */
+    @Test
+    public void testAllEvaluationPaths() {
+        VariableSchema schema = VariableSchema.of("x", "y", "z");
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
+        for (Map.Entry<String, Formula> entry : FORMULAS.entrySet()) {
+            String text = entry.getKey();
+            ExpressionNode ast = new ExpressionParser(text).parse();
+            BoundExpression bound = schema.bind(ast);
+            CompiledExpression compiled = compiler.compile(ast);
+            assertTrue(ExpressionCompiler.isGenerated(compiled), text);
+            BoundExpression optimized = schema.bind(new ExpressionOptimizer().optimize(ast));
+            ExpressionDag dag = new ExpressionDag(schema.bind(new ExpressionInterner().intern(ast)));
+            PostfixExpression postfix = new PostfixExpression(bound);
+            ParallelExpressionEvaluator parallel = new ParallelExpressionEvaluator(bound, 1, ForkJoinPool.commonPool());
+
+            double[][] columns = new double[3][POINTS.length];
+            for (int row = 0; row < POINTS.length; row++) {
+                for (int slot = 0; slot < 3; slot++) {
+                    columns[slot][row] = POINTS[row][slot];
+                }
+            }
+            double[] vector = new double[POINTS.length];
+            double[] scalar = new double[POINTS.length];
+            new BatchEvaluator(bound).evaluate(columns, vector);
+            new BatchEvaluator(bound, new ScalarBatchKernel()).evaluate(columns, scalar);
+
+            IncrementalEvaluator incremental = new IncrementalEvaluator(bound, POINTS[0]);
+            for (int row = 0; row < POINTS.length; row++) {
+                double[] p = POINTS[row];
+                double expected = entry.getValue().apply(p[0], p[1], p[2]);
+                String message = text + " при " + List.of(p[0], p[1], p[2]);
+                for (int slot = 0; slot < 3; slot++) {
+                    incremental.set(slot, p[slot]);
+                }
+
+                assertEquals(expected, ast.evaluate(Map.of("x", p[0], "y", p[1], "z", p[2])), message);
+                assertEquals(expected, bound.evaluate(p), message);
+                assertEquals(expected, compiled.eval(p), message);
+                assertEquals(expected, compiler.interpret(ast).eval(p), message);
+                assertEquals(expected, optimized.evaluate(p), message);
+                assertEquals(expected, dag.evaluate(p), message);
+                assertEquals(expected, postfix.evaluate(p), message);
+                assertEquals(expected, parallel.evaluate(p), message);
+                assertEquals(expected, incremental.getValue(), message);
+                assertEquals(expected, vector[row], message);
+                assertEquals(expected, scalar[row], message);
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что целая степень, вычисленная умножениями, отличается от {@link Math#pow} не более чем на несколько ulp.
+     */
+    @Test
+    public void testIntegerPower() {
+        double[] bases = {0.0, -0.0, 1.0, -1.0, 0.5, -1.75, 3.0, 10.0, 1e-3, 123.456};
+        for (double base : bases) {
+            for (int n = -OperationNode.MAX_SQUARING_EXPONENT; n <= OperationNode.MAX_SQUARING_EXPONENT; n++) {
+                double expected = Math.pow(base, n);
+                double actual = OperationNode.power(base, n);
+                if (Double.isInfinite(expected) || expected == 0) {
+                    assertEquals(expected, actual, base + "^" + n);
+                } else {
+                    assertEquals(expected, actual, 16 * Math.ulp(expected), base + "^" + n);
+                }
+            }
+        }
+        assertEquals(Math.pow(2.0, 0.5), OperationNode.power(2.0, 0.5));
+        assertEquals(Math.pow(1.0001, 1000), OperationNode.power(1.0001, 1000));
+    }
+
+    /**
+     * Проверяет свёртку констант и упрощения оптимизатора для функций и степеней.
+     */
+    @Test
+    public void testOptimizer() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        NumberNode folded = assertInstanceOf(NumberNode.class,
+                optimizer.optimize(new ExpressionParser("sqrt(16) + 2^10 + max(1, -3)").parse()));
+        assertEquals(4 + 1024 + 1, folded.getValue());
+
+        VariableNode x = assertInstanceOf(VariableNode.class,
+                optimizer.optimize(new ExpressionParser("-(-x) ^ 1").parse()));
+        assertEquals("x", x.getName());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new FunctionNode(FunctionNode.Function.MIN, new NumberNode(1)));
+    }
+}
@@ -0,0 +1,86 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GradientEvaluatorTest {
+
+    /**
+     * Проверяет значение и градиент против обычного вычисления и символьных производных.
+     */
+    @Test
+    public void testAgainstSymbolicDerivatives() {
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        for (String text : ExpressionDifferentiatorTest.FORMULAS) {
+            ExpressionNode ast = new ExpressionParser(text).parse();
+            GradientEvaluator evaluator = new GradientEvaluator(ast);
+            assertEquals(List.of("x", "y"), evaluator.getSchema().getNames(), text);
+            for (double[] p : ExpressionDifferentiatorTest.POINTS) {
+                Map<String, Double> variables = Map.of("x", p[0], "y", p[1]);
+                double[] gradient = new double[2];
+                assertEquals(ast.evaluate(variables), evaluator.evaluate(p, gradient), text);
+                for (int i = 0; i < 2; i++) {
+                    String variable = evaluator.getSchema().getNames().get(i);
+                    double expected = differentiator.derivative(ast, variable).evaluate(variables);
+                    assertEquals(expected, gradient[i], 1e-12 * (1 + Math.abs(expected)), text + " по " + variable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет градиент по карте, разделяемые узлы и ошибки значения.
+     */
+    @Test
+    public void testGradientMap() {
+        ExpressionNode ast = new ExpressionInterner().intern(
+                new ExpressionParser("(a * b + c) * (a * b + c) - min(a, a)").parse());
+        GradientEvaluator evaluator = new GradientEvaluator(ast);
+        // d/da = 2 (ab + c) b - 1, d/db = 2 (ab + c) a, d/dc = 2 (ab + c)
+        Map<String, Double> gradient = evaluator.gradient(Map.of("a", 2.0, "b", 3.0, "c", 1.0));
+        assertEquals(Map.of("a", 41.0, "b", 28.0, "c", 14.0), gradient);
+        assertEquals(List.of("a", "b", "c"), List.copyOf(gradient.keySet()));
+
+        GradientEvaluator division = new GradientEvaluator(new ExpressionParser("x / y").parse());
+        assertThrows(ArithmeticException.class, () -> division.evaluate(new double[]{1, 0}, new double[2]));
+    }
+
+    /**
+     * Проверяет, что в изломах модуля, минимума и максимума прямой режим и символьная производная
+     * выбирают один и тот же субградиент.
+     */
+    @Test
+    public void testKinksMatchSymbolicDerivatives() {
+        String[] formulas = {
+                "max(x, 0)", "min(x, y)", "max(x, y) + min(y, x)", "abs(x - y) * y", "abs(x) + abs(y)",
+                "max(x * x, y) - min(x, 3 * y)", "max(abs(x), y) * x"
+        };
+        double[][] points = {{0, 0}, {1, 1}, {2, 4}, {1.5, 0.5}, {-2, 4}};
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        for (String text : formulas) {
+            ExpressionNode ast = new ExpressionParser(text).parse();
+            GradientEvaluator evaluator = new GradientEvaluator(VariableSchema.of("x", "y").bind(ast));
+            for (double[] p : points) {
+                Map<String, Double> variables = Map.of("x", p[0], "y", p[1]);
+                double[] gradient = new double[2];
+                evaluator.evaluate(p, gradient);
+                for (int i = 0; i < 2; i++) {
+                    String variable = i == 0 ? "x" : "y";
+                    double expected = differentiator.derivative(ast, variable).evaluate(variables);
+                    assertEquals(expected, gradient[i], 0.0, text + " по " + variable + " в " + p[0] + ", " + p[1]);
+                }
+            }
+        }
+
+        // max(x, 0) в нуле: среднее производных 1 и 0; abs в нуле: 0
+        double[] gradient = new double[1];
+        new GradientEvaluator(new ExpressionParser("max(x, 0)").parse()).evaluate(new double[]{0}, gradient);
+        assertEquals(0.5, gradient[0]);
+        new GradientEvaluator(new ExpressionParser("abs(x)").parse()).evaluate(new double[]{0}, gradient);
+        assertEquals(0.0, gradient[0]);
+    }
+}
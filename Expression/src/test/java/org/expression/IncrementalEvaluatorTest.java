@@ -0,0 +1,98 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalEvaluatorTest {
+
+    /**
+     * Проверяет, что после изменения одной переменной пересчитывается только путь от неё к корню.
+     */
+    @Test
+    public void testRecomputesDirtyPath() {
+        // ((a + b) * (c - d)) + ((e / f) - g): 13 узлов
+        ExpressionNode ast = new ExpressionParser("(a + b) * (c - d) + (e / f - g)").parse();
+        Map<String, Double> variables = new HashMap<>();
+        for (String name : new String[]{"a", "b", "c", "d", "e", "f", "g"}) {
+            variables.put(name, 2.0 + variables.size());
+        }
+        IncrementalEvaluator incremental = new IncrementalEvaluator(VariableSchema.from(ast).bind(ast), variables);
+        assertEquals(13, incremental.getNodeCount());
+        assertEquals(13, incremental.getLastRecomputedCount());  // Начальное вычисление — все узлы
+
+        incremental.set("a", 10.0);
+        variables.put("a", 10.0);
+        assertEquals(new ExpressionEvaluator(variables).evaluate(ast), incremental.getValue());
+        assertEquals(4, incremental.getLastRecomputedCount());   // a, a + b, произведение, корень
+
+        incremental.set("a", 10.0);
+        incremental.getValue();
+        assertEquals(0, incremental.getLastRecomputedCount());   // Значение не изменилось
+
+        incremental.set("d", 1.0);
+        incremental.set("g", 1.0);
+        variables.put("d", 1.0);
+        variables.put("g", 1.0);
+        assertEquals(new ExpressionEvaluator(variables).evaluate(ast), incremental.getValue());
+        assertEquals(6, incremental.getLastRecomputedCount());   // Общий корень пересчитывается один раз
+    }
+
+    /**
+     * Проверяет совпадение с полным вычислением на последовательности случайных обновлений
+     * и количество пересчитанных узлов в выражении с 50 переменными.
+     */
+    @Test
+    public void testRandomUpdates() {
+        StringBuilder text = new StringBuilder();
+        String[] names = new String[50];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "" + (char) ('a' + i / 26) + (char) ('a' + i % 26);
+            if (i > 0) {
+                text.append(i % 3 == 0 ? " - " : " + ");
+            }
+            text.append(names[i]).append(" * ").append(i + 1);
+        }
+        ExpressionNode ast = new ExpressionParser(text).parse();
+        Random random = new Random(42);
+        Map<String, Double> variables = new HashMap<>();
+        for (String name : names) {
+            variables.put(name, random.nextDouble());
+        }
+        IncrementalEvaluator incremental = new IncrementalEvaluator(VariableSchema.of(names).bind(ast), variables);
+
+        for (int tick = 0; tick < 1000; tick++) {
+            String name = names[random.nextInt(names.length)];
+            double value = random.nextDouble();
+            incremental.set(name, value);
+            variables.put(name, value);
+
+            assertEquals(new ExpressionEvaluator(variables).evaluate(ast), incremental.getValue(), 1e-9);
+            assertTrue(incremental.getLastRecomputedCount() <= names.length + 1);
+        }
+        assertTrue(incremental.getTotalRecomputedCount() < 1000L * incremental.getNodeCount() / 2);
+    }
+
+    /**
+     * Проверяет, что после деления на ноль узлы остаются помеченными и пересчитываются после исправления.
+     */
+    @Test
+    public void testDivisionByZero() {
+        ExpressionNode ast = new ExpressionParser("x / y + z").parse();
+        IncrementalEvaluator incremental = new IncrementalEvaluator(VariableSchema.of("x", "y", "z").bind(ast),
+                new double[]{6.0, 3.0, 1.0});
+        assertEquals(3.0, incremental.getValue());
+
+        incremental.set("y", 0.0);
+        assertThrows(ArithmeticException.class, incremental::getValue);
+        assertThrows(ArithmeticException.class, incremental::getValue);
+
+        incremental.set("y", 2.0);
+        assertEquals(4.0, incremental.getValue());
+        assertThrows(RuntimeException.class, () -> incremental.set("w", 1.0));
+    }
+}
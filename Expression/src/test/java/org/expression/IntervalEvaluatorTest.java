@@ -0,0 +1,94 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalEvaluatorTest {
+
+    /**
+     * Проверяет, что значения выражений в случайных точках интервалов не выходят за вычисленные границы.
+     */
+    @Test
+    public void testBoundsContainValues() {
+        String[] expressions = {
+                "x + y * 3 - 0.1", "x * y - y * y", "(x - y) / (y + 2.5)", "1 / x", "x / y",
+                "x ^ 2 - y ^ 3", "x ^ -2", "abs(x) ^ 0.5 + abs(y) ^ y", "sqrt(x) + log(y) * exp(x / 4)",
+                "min(x, y) * max(x, -y) + abs(x - y)", "fma(x, y, 0.3) / (1 + abs(x))", "-(x * 0.1) ^ 7"
+        };
+        double[][] ranges = {{-2, 3}, {0, 2}, {-5, -0.5}, {1.5, 1.5}, {0.1, 0.2}, {-1, 0}, {-1e6, 1e6}};
+        Random random = new Random(16);
+        for (String text : expressions) {
+            ExpressionNode ast = new ExpressionParser(text).parse();
+            for (double[] x : ranges) {
+                for (double[] y : ranges) {
+                    Interval bound = new IntervalEvaluator(Map.of(
+                            "x", Interval.of(x[0], x[1]), "y", Interval.of(y[0], y[1]))).evaluate(ast);
+                    for (int i = 0; i < 200; i++) {
+                        // Границы интервалов проверяются в первую очередь, затем — случайные точки
+                        double xv = i < 2 ? x[i] : x[0] + (x[1] - x[0]) * random.nextDouble();
+                        double yv = i < 2 ? y[1 - i] : y[0] + (y[1] - y[0]) * random.nextDouble();
+                        double value;
+                        try {
+                            value = ast.evaluate(Map.of("x", xv, "y", yv));
+                        } catch (ArithmeticException e) {
+                            continue;
+                        }
+                        if (!Double.isNaN(value)) {
+                            assertTrue(bound.contains(value), text + " при x = " + xv + ", y = " + yv
+                                    + ": " + value + " вне " + bound);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет деление на интервалы, содержащие ноль.
+     */
+    @Test
+    public void testDivisionByIntervalWithZero() {
+        Interval x = Interval.of(1, 3);
+        assertEquals(Interval.ENTIRE, x.divide(Interval.of(-1, 1)));
+        assertEquals(Interval.ENTIRE, x.divide(Interval.point(0)));
+        assertEquals(Interval.ENTIRE, Interval.of(-1, 1).divide(Interval.of(0, 2)));
+
+        Interval positive = x.divide(Interval.of(0, 2));
+        assertEquals(Double.POSITIVE_INFINITY, positive.getUpper());
+        assertTrue(positive.getLower() <= 0.5 && positive.getLower() > 0.4999999);
+        Interval negative = x.divide(Interval.of(-2, 0));
+        assertEquals(Double.NEGATIVE_INFINITY, negative.getLower());
+        assertTrue(negative.getUpper() >= -0.5 && negative.getUpper() < -0.4999999);
+
+        Interval tight = x.divide(Interval.of(2, 4));
+        assertTrue(tight.contains(0.25) && tight.contains(1.5));
+        assertTrue(tight.getLower() > 0.2499999 && tight.getUpper() < 1.5000001);
+    }
+
+    /**
+     * Проверяет отсечение раздела по порогу и обработку ошибок.
+     */
+    @Test
+    public void testPruning() {
+        ExpressionNode filter = new ExpressionParser("price * quantity - discount").parse();
+        Map<String, Interval> partition = Map.of(
+                "price", Interval.of(10, 20), "quantity", Interval.of(1, 5), "discount", Interval.of(0, 15));
+        Interval bound = new IntervalEvaluator(partition).evaluate(filter);
+        assertTrue(bound.getUpper() < 100.0001 && bound.getLower() > -5.0001);
+        assertFalse(bound.getUpper() > 1000, "раздел можно пропустить для фильтра > 1000");
+
+        Interval square = new IntervalEvaluator(Map.of("x", Interval.of(-2, 1)))
+                .evaluate(new ExpressionParser("x ^ 2").parse());
+        assertEquals(0.0, square.getLower());
+        assertTrue(square.getUpper() >= 4 && square.getUpper() < 4.0000001);
+
+        assertThrows(IllegalArgumentException.class, () -> Interval.of(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> Interval.point(Double.NaN));
+        assertThrows(RuntimeException.class,
+                () -> new IntervalEvaluator(Map.of()).evaluate(new ExpressionParser("x + 1").parse()));
+    }
+}
@@ -0,0 +1,122 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelExpressionEvaluatorTest {
+
+    /**
+     * Проверяет, что параллельное вычисление большого сбалансированного дерева совпадает с последовательным.
+     */
+    @Test
+    public void testSameResults() {
+        Random random = new Random(7);
+        ExpressionNode tree = balancedTree(random, 14);
+        BoundExpression bound = VariableSchema.of("x", "y", "z").bind(tree);
+        double[] slots = {1.5, -0.25, 3.0};
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int threshold : new int[]{1, 64, 1024, 1 << 20}) {
+                ParallelExpressionEvaluator evaluator = new ParallelExpressionEvaluator(bound, threshold, pool);
+                assertEquals((1 << 15) - 1, evaluator.getNodeCount());
+                assertEquals(bound.evaluate(slots), evaluator.evaluate(slots), "threshold " + threshold);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет разбиение по аргументам функций: большие аргументы {@code max} и {@code fma}
+     * вычисляются отдельными задачами.
+     */
+    @Test
+    public void testFunctionArguments() {
+        Random random = new Random(11);
+        ExpressionNode tree = new FunctionNode(FunctionNode.Function.FMA,
+                balancedTree(random, 10),
+                new FunctionNode(FunctionNode.Function.MAX, balancedTree(random, 10), balancedTree(random, 10)),
+                balancedTree(random, 10));
+        BoundExpression bound = VariableSchema.of("x", "y", "z").bind(tree);
+        double[] slots = {0.5, 2.0, -1.25};
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelExpressionEvaluator evaluator = new ParallelExpressionEvaluator(bound, 256, pool);
+            assertEquals(bound.evaluate(slots), evaluator.evaluate(slots));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет, что длинная разобранная сумма {@code xa + xb + ...}, которую парсер строит левой цепочкой,
+     * делится на группы, вычисляемые отдельными задачами, и что результат совпадает с последовательным до бита.
+     */
+    @Test
+    public void testLeftLeaningChain() {
+        int terms = 2000;
+        StringJoiner sum = new StringJoiner(" + ");
+        StringJoiner product = new StringJoiner(" * ");
+        double[] slots = new double[terms];
+        Random random = new Random(13);
+        for (int i = 0; i < terms; i++) {
+            sum.add(name(i));
+            product.add("(1 + " + name(i) + " / 10000)");
+            slots[i] = random.nextDouble() * 1e3 - 5e2;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String text : new String[]{sum.toString(), product.toString()}) {
+                ExpressionNode ast = new ExpressionParser(text).parse();
+                BoundExpression bound = VariableSchema.from(ast).bind(ast);
+                ParallelExpressionEvaluator evaluator = new ParallelExpressionEvaluator(bound, 64, pool);
+
+                assertEquals(bound.evaluate(slots), evaluator.evaluate(slots));
+                assertTrue(evaluator.getForkedTaskCount() > 0, "цепочка вычислена без разбиения");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет обработку деления на ноль в отдельной задаче и проверку порога.
+     */
+    @Test
+    public void testErrors() {
+        ExpressionNode ast = new ExpressionParser("(x + y) / (y - y) + (x * y - x)").parse();
+        BoundExpression bound = VariableSchema.of("x", "y").bind(ast);
+        ParallelExpressionEvaluator evaluator = new ParallelExpressionEvaluator(bound, 2, ForkJoinPool.commonPool());
+
+        assertThrows(ArithmeticException.class, () -> evaluator.evaluate(new double[]{1.0, 2.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelExpressionEvaluator(bound, 0, ForkJoinPool.commonPool()));
+    }
+
+    private static String name(int index) {
+        StringBuilder name = new StringBuilder("x");
+        do {
+            name.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return name.toString();
+    }
+
+    private static ExpressionNode balancedTree(Random random, int depth) {
+        if (depth == 0) {
+            return random.nextBoolean()
+                    ? new VariableNode(new String[]{"x", "y", "z"}[random.nextInt(3)])
+                    : new NumberNode(random.nextInt(9) + 1);
+        }
+        OperationNode.Operation operation = OperationNode.Operation.values()[random.nextInt(3)];
+        return new OperationNode(operation, balancedTree(random, depth - 1), balancedTree(random, depth - 1));
+    }
+}
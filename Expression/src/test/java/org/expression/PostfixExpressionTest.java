@@ -0,0 +1,99 @@
+package org.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostfixExpressionTest {
+
+    /**
+     * Проверяет, что стековая машина вычисляет те же значения, что и обход дерева.
+     */
+    @Test
+    public void testSameResults() {
+        String[] expressions = {"x + y", "(x + y) * z", "x - y - z", "x / (y - z) * 2.5", "7", "z",
+                "x ^ 2 - y / 4 + z ^ x", "2 - x", "8 / x / y", "fma(x, 2, y * z) - min(x, 3) + abs(z)",
+                "max(x, y) * fma(x, y, 1 + z)"};
+        Map<String, Double> variables = new HashMap<>();
+        variables.put("x", 3.0);
+        variables.put("y", 5.0);
+        variables.put("z", -2.0);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+
+        for (String expression : expressions) {
+            ExpressionNode ast = new ExpressionParser(expression).parse();
+            PostfixExpression postfix = new PostfixExpression(VariableSchema.of("x", "y", "z").bind(ast));
+            assertEquals(evaluator.evaluate(ast), postfix.evaluate(variables), expression);
+        }
+    }
+
+    /**
+     * Проверяет обработку деления на ноль.
+     */
+    @Test
+    public void testDivisionByZero() {
+        ExpressionNode ast = new ExpressionParser("x / (y - y)").parse();
+        PostfixExpression postfix = new PostfixExpression(ast, VariableSchema.of("x", "y"));
+
+        assertThrows(ArithmeticException.class, () -> postfix.evaluate(new double[]{1.0, 2.0}));
+    }
+
+    /**
+     * Проверяет вычисление очень длинной суммы, на которой рекурсивный обход дерева переполняет стек потока.
+     */
+    @Test
+    public void testLongLeftLeaningSum() {
+        int terms = 200_000;
+        StringBuilder expression = new StringBuilder("x");
+        for (int i = 1; i < terms; i++) {
+            expression.append(i % 2 == 0 ? " + x" : " - y");
+        }
+        ExpressionNode ast = new ExpressionParser(expression).parse();
+        PostfixExpression postfix = new PostfixExpression(ast, VariableSchema.of("x", "y"));
+
+        assertEquals(1, postfix.getMaxStackDepth());  // Каждый правый операнд объединён со своей операцией
+        assertEquals(100_000.0 * 3 - 100_000.0 * 1, postfix.evaluate(new double[]{3.0, 1.0}));
+        assertThrows(StackOverflowError.class, () -> ast.evaluate(Map.of("x", 3.0, "y", 1.0)));
+    }
+
+    /**
+     * Проверяет вычисление глубокого правоассоциативного дерева, где стек операндов растёт с глубиной.
+     */
+    @Test
+    public void testDeepRightLeaningTree() {
+        int depth = 200_000;
+        ExpressionNode node = new VariableNode("x");
+        for (int i = 0; i < depth; i++) {
+            node = new OperationNode(OperationNode.Operation.ADD, new NumberNode(1), node);
+        }
+        PostfixExpression postfix = new PostfixExpression(node, VariableSchema.of("x"));
+
+        assertEquals(depth, postfix.getMaxStackDepth());  // Самая глубокая операция объединена с x
+        assertEquals(depth + 0.5, postfix.evaluate(new double[]{0.5}));
+    }
+
+    /**
+     * Проверяет объединение операций с константой или переменной справа и вычисление
+     * со стеком операндов, заданным вызывающим кодом.
+     */
+    @Test
+    public void testFusedInstructionsAndScratch() {
+        ExpressionNode ast = new ExpressionParser("x * 2.5 + y * x - (x - 1) / y").parse();
+        PostfixExpression postfix = new PostfixExpression(ast, VariableSchema.of("x", "y"));
+
+        // x, *2.5, y, *x, +, x, -1, /y, -
+        assertEquals(9, postfix.getInstructionCount());
+        assertEquals(2, postfix.getMaxStackDepth());
+        double[] stack = new double[postfix.getMaxStackDepth()];
+        for (double x = -2; x <= 2; x += 0.5) {
+            double[] slots = {x, 4.0};
+            double expected = x * 2.5 + 4.0 * x - (x - 1) / 4.0;
+            assertEquals(expected, postfix.evaluate(slots, stack));
+            assertEquals(expected, postfix.evaluate(slots));
+        }
+        assertThrows(ArithmeticException.class, () -> postfix.evaluate(new double[]{1.0, 0.0}, stack));
+    }
+}
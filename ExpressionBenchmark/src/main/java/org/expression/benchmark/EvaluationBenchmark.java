@@ -0,0 +1,116 @@
+package org.expression.benchmark;
+
+import org.expression.BoundExpression;
+import org.expression.CompiledExpression;
+import org.expression.EvaluationProfiler;
+import org.expression.ExpressionEvaluator;
+import org.expression.ExpressionNode;
+import org.expression.ExpressionParser;
+import org.expression.VariableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Основной набор бенчмарков модуля {@code org.expression} для отслеживания регрессий:
+ * разбор текста {@link ExpressionParser} и одно вычисление выражения через {@link ExpressionEvaluator}
+ * (по карте переменных, в том числе с включённым {@link EvaluationProfiler}), привязанное дерево
+ * и скомпилированный байт-код.
+ *
+ * Выражения создаются {@link ExpressionGenerator} с фиксированным зерном, поэтому запуски сравнимы между версиями.
+ * Параметры: форма дерева {@code shape}, количество операций {@code operations} и количество переменных
+ * в карте {@code variables} (выражение использует все переменные, если хватает листьев).
+ * Запуск подмножества: {@code java -jar target/benchmarks.jar EvaluationBenchmark -p shape=DEEP -p variables=4}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class EvaluationBenchmark {
+
+    /**
+     * Форма дерева выражения.
+     */
+    @Param({"SHALLOW", "DEEP", "WIDE"})
+    public ExpressionGenerator.Shape shape;
+
+    /**
+     * Количество бинарных операций в выражении.
+     */
+    @Param({"15", "255", "4095"})
+    public int operations;
+
+    /**
+     * Количество переменных в карте.
+     */
+    @Param({"4", "64", "1024"})
+    public int variables;
+
+    private String text;
+    private ExpressionNode ast;
+    private ExpressionEvaluator evaluator;
+    private ExpressionEvaluator profiled;
+    private BoundExpression bound;
+    private CompiledExpression compiled;
+    private double[] slots;
+
+    @Setup
+    public void setUp() {
+        String[] names = ExpressionGenerator.names(variables);
+        text = new ExpressionGenerator(operations * 31L + variables, names).generate(shape, operations);
+        ast = new ExpressionParser(text).parse();
+
+        Random random = new Random(variables);
+        Map<String, Double> values = new HashMap<>();
+        for (String name : names) {
+            values.put(name, 1 + random.nextDouble());  // Не меньше 1: делители-переменные не обращаются в ноль
+        }
+        evaluator = new ExpressionEvaluator(values);
+        profiled = new ExpressionEvaluator(values);
+        profiled.setProfiler(new EvaluationProfiler());
+        VariableSchema schema = VariableSchema.of(names);
+        bound = schema.bind(ast);
+        compiled = bound.compile();
+        slots = schema.toSlots(values);
+    }
+
+    @Benchmark
+    public ExpressionNode parse() {
+        return new ExpressionParser(text).parse();
+    }
+
+    @Benchmark
+    public double evaluateMap() {
+        return evaluator.evaluate(ast);
+    }
+
+    @Benchmark
+    public double evaluateProfiled() {
+        return profiled.evaluate(ast);
+    }
+
+    @Benchmark
+    public double evaluateBound() {
+        return bound.evaluate(slots);
+    }
+
+    @Benchmark
+    public double evaluateCompiled() {
+        return compiled.eval(slots);
+    }
+}
@@ -0,0 +1,117 @@
+package org.expression.benchmark;
+
+import java.util.Random;
+
+/**
+ * Генератор случайных выражений заданной формы для бенчмарков.
+ * Листья — переменные из заданного набора имён или числа от 1 до 10; делитель всегда лист,
+ * а значения переменных в бенчмарках не меньше 1, поэтому деления на ноль не возникает.
+ * Генерация детерминирована для одного и того же зерна {@link Random}.
+ */
+public class ExpressionGenerator {
+
+    /**
+     * Форма дерева выражения.
+     */
+    public enum Shape {
+        SHALLOW,  // Сбалансированное дерево глубиной около log2(n)
+        DEEP,     // Вложенные скобки: цепочка глубиной около n
+        WIDE      // Плоская сумма коротких слагаемых, как в типичных формулах
+    }
+
+    private static final String[] OPERATORS = {" + ", " - ", " * "};
+
+    private final Random random;
+    private final String[] names;
+
+    /**
+     * Конструктор генератора.
+     *
+     * @param seed Зерно генератора случайных чисел.
+     * @param names Имена переменных, используемых в выражениях.
+     */
+    public ExpressionGenerator(long seed, String[] names) {
+        this.random = new Random(seed);
+        this.names = names;
+    }
+
+    /**
+     * Создаёт имена переменных из латинских букв: {@code a}, {@code b}, ..., {@code z}, {@code ba}, {@code bb}, ...
+     *
+     * @param count Количество имён.
+     * @return Массив различных имён.
+     */
+    public static String[] names(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            int value = i;
+            do {
+                name.insert(0, (char) ('a' + value % 26));
+                value /= 26;
+            } while (value > 0);
+            names[i] = name.toString();
+        }
+        return names;
+    }
+
+    /**
+     * Генерирует текст выражения заданной формы.
+     *
+     * @param shape Форма дерева.
+     * @param operations Количество бинарных операций в выражении.
+     * @return Текст выражения.
+     */
+    public String generate(Shape shape, int operations) {
+        StringBuilder text = new StringBuilder();
+        switch (shape) {
+            case SHALLOW:
+                balanced(text, operations);
+                break;
+            case DEEP:
+                for (int i = 0; i < operations; i++) {
+                    leaf(text);
+                    text.append(OPERATORS[random.nextInt(OPERATORS.length)]).append('(');
+                }
+                leaf(text);
+                text.append(")".repeat(operations));
+                break;
+            case WIDE:
+                // Слагаемые из двух операций: лист * лист или лист / лист
+                int terms = Math.max(1, (operations + 1) / 3);
+                for (int i = 0; i < terms; i++) {
+                    if (i > 0) {
+                        text.append(random.nextBoolean() ? " + " : " - ");
+                    }
+                    leaf(text);
+                    text.append(random.nextInt(4) == 0 ? " / " : " * ");
+                    leaf(text);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестная форма: " + shape);
+        }
+        return text.toString();
+    }
+
+    private void balanced(StringBuilder text, int operations) {
+        if (operations == 0) {
+            leaf(text);
+            return;
+        }
+        int left = (operations - 1) / 2;
+        text.append('(');
+        balanced(text, left);
+        text.append(OPERATORS[random.nextInt(OPERATORS.length)]);
+        balanced(text, operations - 1 - left);
+        text.append(')');
+    }
+
+    private void leaf(StringBuilder text) {
+        if (random.nextInt(3) == 0) {
+            text.append(random.nextInt(9) + 1).append('.').append(random.nextInt(10));
+        } else {
+            text.append(names[random.nextInt(names.length)]);
+        }
+    }
+}
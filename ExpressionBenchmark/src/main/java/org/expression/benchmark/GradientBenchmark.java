@@ -0,0 +1,105 @@
+package org.expression.benchmark;
+
+import org.expression.BoundExpression;
+import org.expression.ExpressionDifferentiator;
+import org.expression.ExpressionNode;
+import org.expression.ExpressionParser;
+import org.expression.GradientEvaluator;
+import org.expression.VariableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение способов получить градиент выражения: центральные конечные разности ({@code 2N} вычислений
+ * привязанного дерева), деревья символьных производных {@link ExpressionDifferentiator} и один проход
+ * дуальными числами {@link GradientEvaluator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class GradientBenchmark {
+
+    private static final double STEP = 1e-6;
+
+    /**
+     * Количество переменных выражения.
+     */
+    @Param({"4", "16", "64"})
+    public int variables;
+
+    /**
+     * Количество бинарных операций в выражении.
+     */
+    @Param({"255"})
+    public int operations;
+
+    private BoundExpression bound;
+    private BoundExpression[] derivatives;
+    private GradientEvaluator dual;
+    private double[] slots;
+    private double[] gradient;
+
+    @Setup
+    public void setUp() {
+        String[] names = ExpressionGenerator.names(variables);
+        ExpressionNode ast = new ExpressionParser(
+                new ExpressionGenerator(variables, names).generate(ExpressionGenerator.Shape.WIDE, operations)).parse();
+        VariableSchema schema = VariableSchema.of(names);
+        bound = schema.bind(ast);
+        derivatives = new BoundExpression[names.length];
+        ExpressionDifferentiator differentiator = new ExpressionDifferentiator();
+        for (int i = 0; i < names.length; i++) {
+            derivatives[i] = schema.bind(differentiator.derivative(ast, names[i]));
+        }
+        dual = new GradientEvaluator(bound);
+        Random random = new Random(variables);
+        slots = new double[names.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = 1 + random.nextDouble();  // Не меньше 1: делители-переменные не обращаются в ноль
+        }
+        gradient = new double[names.length];
+    }
+
+    @Benchmark
+    public double[] finiteDifferences() {
+        for (int i = 0; i < slots.length; i++) {
+            double value = slots[i];
+            slots[i] = value + STEP;
+            double forward = bound.evaluate(slots);
+            slots[i] = value - STEP;
+            double backward = bound.evaluate(slots);
+            slots[i] = value;
+            gradient[i] = (forward - backward) / (2 * STEP);
+        }
+        return gradient;
+    }
+
+    @Benchmark
+    public double[] symbolic() {
+        for (int i = 0; i < derivatives.length; i++) {
+            gradient[i] = derivatives[i].evaluate(slots);
+        }
+        return gradient;
+    }
+
+    @Benchmark
+    public double[] dualNumbers() {
+        dual.evaluate(slots, gradient);
+        return gradient;
+    }
+}
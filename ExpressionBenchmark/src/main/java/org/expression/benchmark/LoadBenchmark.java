@@ -0,0 +1,90 @@
+package org.expression.benchmark;
+
+import org.expression.ExpressionNode;
+import org.expression.ExpressionParser;
+import org.expression.ExpressionReader;
+import org.expression.ExpressionWriter;
+import org.expression.PostfixExpression;
+import org.expression.VariableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение загрузки библиотеки формул разбором текста и чтением двоичного формата {@link ExpressionReader}.
+ * Двоичная библиотека лежит в прямом буфере, как при отображении файла в память. {@code load} строит деревья,
+ * {@code loadPostfix} — программы {@link PostfixExpression} без создания узлов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class LoadBenchmark {
+
+    /**
+     * Количество формул в библиотеке.
+     */
+    @Param({"10000", "50000"})
+    public int formulas;
+
+    /**
+     * Количество бинарных операций в каждой формуле.
+     */
+    @Param({"15"})
+    public int operations;
+
+    private Map<String, String> texts;
+    private ByteBuffer binary;
+    private VariableSchema schema;
+
+    @Setup
+    public void setUp() {
+        String[] names = ExpressionGenerator.names(formulas);
+        String[] variables = ExpressionGenerator.names(16);
+        ExpressionGenerator generator = new ExpressionGenerator(formulas, variables);
+        schema = VariableSchema.of(variables);
+        texts = new LinkedHashMap<>();
+        ExpressionWriter writer = new ExpressionWriter();
+        for (String name : names) {
+            String text = generator.generate(ExpressionGenerator.Shape.WIDE, operations);
+            texts.put(name, text);
+            writer.add(name, new ExpressionParser(text).parse());
+        }
+        byte[] bytes = writer.toByteArray();
+        binary = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    @Benchmark
+    public Map<String, ExpressionNode> parse() {
+        Map<String, ExpressionNode> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            result.put(entry.getKey(), new ExpressionParser(entry.getValue()).parse());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, ExpressionNode> load() {
+        return new ExpressionReader(binary).readAll();
+    }
+
+    @Benchmark
+    public Map<String, PostfixExpression> loadPostfix() {
+        return new ExpressionReader(binary).readAllPostfix(schema);
+    }
+}
@@ -0,0 +1,91 @@
+package org.expression.benchmark;
+
+import org.expression.BoundExpression;
+import org.expression.ExpressionNode;
+import org.expression.NumberNode;
+import org.expression.OperationNode;
+import org.expression.ParallelExpressionEvaluator;
+import org.expression.VariableNode;
+import org.expression.VariableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск точки, начиная с которой {@link ParallelExpressionEvaluator} быстрее последовательного обхода.
+ * Дерево сбалансированное, глубина {@code depth} соответствует {@code 2^(depth+1) - 1} узлам.
+ * Порог разбиения задаётся параметром {@code threshold}; результат зависит от числа ядер,
+ * поэтому сравнивать стоит запуски на целевой машине, например
+ * {@code java -jar target/benchmarks.jar ParallelBenchmark -p threshold=4096}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ParallelBenchmark {
+
+    private static final String[] NAMES = {"x", "y", "z", "w"};
+
+    /**
+     * Глубина сбалансированного дерева.
+     */
+    @Param({"8", "11", "14", "17", "20"})
+    public int depth;
+
+    /**
+     * Минимальный размер поддерева, вычисляемого отдельной задачей.
+     */
+    @Param({"1024", "4096", "16384"})
+    public int threshold;
+
+    private BoundExpression bound;
+    private ParallelExpressionEvaluator parallel;
+    private double[] slots;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(depth);
+        ExpressionNode tree = balancedTree(random, depth);
+        bound = VariableSchema.of(NAMES).bind(tree);
+        parallel = new ParallelExpressionEvaluator(bound, threshold, ForkJoinPool.commonPool());
+        slots = new double[NAMES.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double sequential() {
+        return bound.evaluate(slots);
+    }
+
+    @Benchmark
+    public double parallel() {
+        return parallel.evaluate(slots);
+    }
+
+    private static ExpressionNode balancedTree(Random random, int depth) {
+        if (depth == 0) {
+            return random.nextBoolean()
+                    ? new VariableNode(NAMES[random.nextInt(NAMES.length)])
+                    : new NumberNode(random.nextInt(9) + 1);
+        }
+        // Без деления, чтобы случайное дерево не делило на ноль
+        OperationNode.Operation operation = OperationNode.Operation.values()[random.nextInt(3)];
+        return new OperationNode(operation, balancedTree(random, depth - 1), balancedTree(random, depth - 1));
+    }
+}
@@ -0,0 +1,83 @@
+package org.expression.benchmark;
+
+import org.expression.ExpressionNode;
+import org.expression.ExpressionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение разбора длинных выражений текущим {@link ExpressionParser} (лексер без копирования текста)
+ * и прежней реализацией {@link LegacyExpressionParser}. Аллокации удобно сравнивать с профилировщиком
+ * {@code -prof gc}: {@code java -jar target/benchmarks.jar ParserBenchmark -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ParserBenchmark {
+
+    private static final String[] NAMES = {"alpha", "beta", "gamma", "delta", "price", "volume", "rate", "x", "y", "z"};
+
+    /**
+     * Количество слагаемых в выражении.
+     */
+    @Param({"10", "1000", "10000"})
+    public int terms;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(terms);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < terms; i++) {
+            if (i > 0) {
+                text.append(random.nextBoolean() ? " + " : " - ");
+            }
+            appendFactor(text, random);
+            text.append(random.nextBoolean() ? " * " : " / ");
+            if (random.nextInt(4) == 0) {
+                text.append('(');
+                appendFactor(text, random);
+                text.append(" + ");
+                appendFactor(text, random);
+                text.append(')');
+            } else {
+                appendFactor(text, random);
+            }
+        }
+        expression = text.toString();
+    }
+
+    @Benchmark
+    public ExpressionNode lexerParser() {
+        return new ExpressionParser(expression).parse();
+    }
+
+    @Benchmark
+    public ExpressionNode legacyParser() {
+        return new LegacyExpressionParser(expression).parse();
+    }
+
+    private static void appendFactor(StringBuilder text, Random random) {
+        if (random.nextBoolean()) {
+            text.append(NAMES[random.nextInt(NAMES.length)]);
+        } else {
+            text.append(random.nextInt(1000)).append('.').append(random.nextInt(100) + 1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.expression.benchmark;
+
+import org.expression.BoundExpression;
+import org.expression.ExpressionNode;
+import org.expression.ExpressionParser;
+import org.expression.PostfixExpression;
+import org.expression.VariableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение рекурсивного обхода дерева (по карте переменных и по слотам) со стековой машиной
+ * {@link PostfixExpression} на суммах произведений разной длины. {@code postfixSlots} берёт стек операндов
+ * из буфера потока, {@code postfixScratch} — из переданного массива.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PostfixBenchmark {
+
+    private static final String[] NAMES = {"a", "b", "c", "d", "e", "f", "g", "h"};
+
+    /**
+     * Количество слагаемых в выражении.
+     */
+    @Param({"10", "100", "1000"})
+    public int terms;
+
+    private ExpressionNode tree;
+    private BoundExpression bound;
+    private PostfixExpression postfix;
+    private Map<String, Double> variables;
+    private double[] slots;
+    private double[] stack;  // Стек операндов, заданный вызывающим кодом
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(terms);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < terms; i++) {
+            if (i > 0) {
+                text.append(random.nextBoolean() ? " + " : " - ");
+            }
+            text.append(NAMES[random.nextInt(NAMES.length)]).append(" * ")
+                    .append(random.nextInt(100) + 1).append(".5");
+        }
+        tree = new ExpressionParser(text).parse();
+        VariableSchema schema = VariableSchema.of(NAMES);
+        bound = schema.bind(tree);
+        postfix = new PostfixExpression(bound);
+        stack = new double[postfix.getMaxStackDepth()];
+
+        variables = new HashMap<>();
+        for (String name : NAMES) {
+            variables.put(name, random.nextDouble());
+        }
+        slots = schema.toSlots(variables);
+    }
+
+    @Benchmark
+    public double treeMap() {
+        return tree.evaluate(variables);
+    }
+
+    @Benchmark
+    public double treeSlots() {
+        return bound.evaluate(slots);
+    }
+
+    @Benchmark
+    public double postfixSlots() {
+        return postfix.evaluate(slots);
+    }
+
+    @Benchmark
+    public double postfixScratch() {
+        return postfix.evaluate(slots, stack);
+    }
+}
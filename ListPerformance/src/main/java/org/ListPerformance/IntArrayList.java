@@ -0,0 +1,203 @@
+package org.ListPerformance;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Список целых чисел на одном массиве {@code int[]}, аналог {@link java.util.ArrayList} без упаковки элементов.
+ * Массив растёт в полтора раза при заполнении; вставка и удаление в середине сдвигают хвост массива.
+ *
+ * Элемент занимает 4 байта вместо ссылки и объекта {@link Integer} у {@link java.util.ArrayList}.
+ * Не является потокобезопасным.
+ */
+public class IntArrayList extends AbstractList<Integer> implements IntList, RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Создаёт пустой список с начальной ёмкостью по умолчанию.
+     */
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создаёт пустой список с заданной начальной ёмкостью.
+     *
+     * @param capacity Начальная ёмкость.
+     * @throws IllegalArgumentException Если ёмкость отрицательна.
+     */
+    public IntArrayList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Отрицательная ёмкость: " + capacity);
+        }
+        this.elements = new int[capacity];
+    }
+
+    @Override
+    public void addInt(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+        modCount++;
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    @Override
+    public int setInt(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        addInt(value);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", размер: " + size);
+        }
+        int unboxed = value;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = unboxed;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        checkIndex(index);
+        int previous = elements[index];
+        removeRange(index, index + 1);
+        return previous;
+    }
+
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Диапазон: [" + fromIndex + ", " + toIndex + "), размер: " + size);
+        }
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    /**
+     * Удаляет элементы, удовлетворяющие условию, одним проходом со сдвигом оставшихся элементов
+     * вместо удаления по одному через итератор. Условие проверяется для всех элементов до изменения списка,
+     * поэтому исключение в условии оставляет список без изменений.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+        Objects.requireNonNull(filter);
+        long[] removed = null;  // Битовая маска удаляемых элементов
+        for (int i = 0; i < size; i++) {
+            if (filter.test(elements[i])) {
+                if (removed == null) {
+                    removed = new long[(size + 63) >>> 6];
+                }
+                removed[i >>> 6] |= 1L << i;
+            }
+        }
+        if (removed == null) {
+            return false;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((removed[i >>> 6] & (1L << i)) == 0) {
+                elements[kept++] = elements[i];
+            }
+        }
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        removeRange(0, size);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private final int expectedModCount = modCount;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return elements[index++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Увеличивает ёмкость так, чтобы поместилось не меньше заданного количества элементов.
+     *
+     * @param capacity Требуемая ёмкость.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            grow(capacity);
+        }
+    }
+
+    private void grow(int capacity) {
+        elements = Arrays.copyOf(elements, Math.max(capacity, elements.length + (elements.length >> 1) + 1));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", размер: " + size);
+        }
+    }
+}
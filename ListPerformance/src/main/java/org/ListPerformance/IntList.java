@@ -0,0 +1,56 @@
+package org.ListPerformance;
+
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+/**
+ * Список целых чисел, хранящий значения без упаковки в {@link Integer}.
+ * Методы {@link List} остаются доступны как представление (значения упаковываются и распаковываются при обращении),
+ * а примитивные методы работают с {@code int} напрямую.
+ */
+public interface IntList extends List<Integer> {
+
+    /**
+     * Добавляет значение в конец списка без упаковки.
+     *
+     * @param value Значение.
+     */
+    void addInt(int value);
+
+    /**
+     * Получает значение по индексу без упаковки.
+     *
+     * @param index Индекс элемента.
+     * @return Значение.
+     * @throws IndexOutOfBoundsException Если индекс выходит за пределы списка.
+     */
+    int getInt(int index);
+
+    /**
+     * Заменяет значение по индексу без упаковки.
+     *
+     * @param index Индекс элемента.
+     * @param value Новое значение.
+     * @return Прежнее значение.
+     * @throws IndexOutOfBoundsException Если индекс выходит за пределы списка.
+     */
+    int setInt(int index, int value);
+
+    /**
+     * Удаляет элементы с индексами от {@code fromIndex} включительно до {@code toIndex} исключительно
+     * одним сдвигом хвоста списка.
+     *
+     * @param fromIndex Индекс первого удаляемого элемента.
+     * @param toIndex Индекс элемента, следующего за последним удаляемым.
+     * @throws IndexOutOfBoundsException Если границы выходят за пределы списка или {@code fromIndex > toIndex}.
+     */
+    void removeRange(int fromIndex, int toIndex);
+
+    /**
+     * Возвращает итератор значений без упаковки. Как и итератор {@link List}, он выбрасывает
+     * {@link java.util.ConcurrentModificationException}, если список изменён во время обхода не через него.
+     *
+     * @return Итератор значений от первого до последнего.
+     */
+    PrimitiveIterator.OfInt intIterator();
+}
@@ -0,0 +1,236 @@
+package org.ListPerformance;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Список целых чисел из страниц {@code int[]} фиксированного размера без упаковки элементов.
+ *
+ * Индекс элемента делится на номер страницы и смещение в ней сдвигом и маской, поэтому доступ по индексу
+ * остаётся быстрым. Добавление в конец никогда не копирует уже записанные элементы: при заполнении выделяется
+ * новая страница, а растёт только небольшой массив ссылок на страницы. Поэтому список подходит для миллионов
+ * элементов, где {@link IntArrayList} при росте временно держит в памяти два больших массива.
+ * Вставка и удаление в середине сдвигают хвост постранично; освободившиеся страницы в конце отпускаются.
+ *
+ * Не является потокобезопасным.
+ */
+public class IntSegmentList extends AbstractList<Integer> implements IntList, RandomAccess {
+
+    /**
+     * Двоичный логарифм размера страницы: 4096 элементов, 16 КиБ.
+     */
+    static final int PAGE_SHIFT = 12;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private int[][] pages = new int[4][];
+    private int pageCount;  // Количество выделенных страниц
+    private int size;
+
+    @Override
+    public void addInt(int value) {
+        int page = size >>> PAGE_SHIFT;
+        if (page == pageCount) {
+            allocatePage();
+        }
+        pages[page][size & PAGE_MASK] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index);
+        return pages[index >>> PAGE_SHIFT][index & PAGE_MASK];
+    }
+
+    @Override
+    public int setInt(int index, int value) {
+        checkIndex(index);
+        int[] page = pages[index >>> PAGE_SHIFT];
+        int previous = page[index & PAGE_MASK];
+        page[index & PAGE_MASK] = value;
+        return previous;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        addInt(value);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", размер: " + size);
+        }
+        int unboxed = value;
+        int last = size;
+        addInt(0);  // Место под сдвиг хвоста
+        move(index, index + 1, last - index);
+        pages[index >>> PAGE_SHIFT][index & PAGE_MASK] = unboxed;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        int previous = getInt(index);
+        removeRange(index, index + 1);
+        return previous;
+    }
+
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Диапазон: [" + fromIndex + ", " + toIndex + "), размер: " + size);
+        }
+        move(toIndex, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        // Страницы за концом списка больше не нужны
+        int needed = (size + PAGE_MASK) >>> PAGE_SHIFT;
+        for (int page = needed; page < pageCount; page++) {
+            pages[page] = null;
+        }
+        pageCount = needed;
+        modCount++;
+    }
+
+    /**
+     * Удаляет элементы, удовлетворяющие условию, одним проходом со сдвигом оставшихся элементов
+     * вместо удаления по одному через итератор. Условие проверяется для всех элементов до изменения списка,
+     * поэтому исключение в условии оставляет список без изменений.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+        Objects.requireNonNull(filter);
+        long[] removed = null;  // Битовая маска удаляемых элементов
+        for (int i = 0; i < size; i++) {
+            if (filter.test(pages[i >>> PAGE_SHIFT][i & PAGE_MASK])) {
+                if (removed == null) {
+                    removed = new long[(size + 63) >>> 6];
+                }
+                removed[i >>> 6] |= 1L << i;
+            }
+        }
+        if (removed == null) {
+            return false;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((removed[i >>> 6] & (1L << i)) == 0) {
+                pages[kept >>> PAGE_SHIFT][kept & PAGE_MASK] = pages[i >>> PAGE_SHIFT][i & PAGE_MASK];
+                kept++;
+            }
+        }
+        removeRange(kept, size);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        removeRange(0, size);
+    }
+
+    /**
+     * Итератор проходит страницы подряд и не делит индекс на номер страницы и смещение для каждого элемента.
+     */
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private final int expectedModCount = modCount;
+            private int index;
+            private int[] page;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                int offset = index & PAGE_MASK;
+                if (offset == 0) {
+                    page = pages[index >>> PAGE_SHIFT];
+                }
+                index++;
+                return page[offset];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Получает количество выделенных страниц.
+     *
+     * @return Количество страниц по {@value #PAGE_SIZE} элементов.
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    private void allocatePage() {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, pageCount * 2);
+        }
+        pages[pageCount++] = new int[PAGE_SIZE];
+    }
+
+    /**
+     * Копирует {@code length} элементов с позиции {@code from} на позицию {@code to} кусками, не пересекающими
+     * границ страниц; при сдвиге вправо копирование идёт с конца, чтобы не затереть ещё не скопированные элементы.
+     */
+    private void move(int from, int to, int length) {
+        if (to < from) {
+            while (length > 0) {
+                int chunk = Math.min(length, PAGE_SIZE - Math.max(from & PAGE_MASK, to & PAGE_MASK));
+                System.arraycopy(pages[from >>> PAGE_SHIFT], from & PAGE_MASK,
+                        pages[to >>> PAGE_SHIFT], to & PAGE_MASK, chunk);
+                from += chunk;
+                to += chunk;
+                length -= chunk;
+            }
+        } else if (to > from) {
+            int fromEnd = from + length;
+            int toEnd = to + length;
+            while (length > 0) {
+                int chunk = Math.min(length, Math.min(((fromEnd - 1) & PAGE_MASK) + 1, ((toEnd - 1) & PAGE_MASK) + 1));
+                fromEnd -= chunk;
+                toEnd -= chunk;
+                System.arraycopy(pages[fromEnd >>> PAGE_SHIFT], fromEnd & PAGE_MASK,
+                        pages[toEnd >>> PAGE_SHIFT], toEnd & PAGE_MASK, chunk);
+                length -= chunk;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", размер: " + size);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.ListPerformance;
 
+import java.lang.ref.Reference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -8,26 +10,54 @@ import java.util.stream.Collectors;
  * Класс для проведения тестов производительности операций с коллекциями List.
  * Реализует интерфейс {@link ListPerformanceInterface} для тестирования добавления,
  * получения и удаления элементов в различных реализациях List.
+ *
+ * Кроме времени, для каждой операции записываются байты, выделенные текущим потоком, и сборки мусора,
+ * произошедшие за время операции. По запросу ({@link #ListPerformance(boolean)}) после добавления элементов
+ * измеряется и прирост занятой кучи после сборки мусора — память, которую удерживает коллекция. Для этого
+ * до и после добавления запрашивается до десяти полных сборок; они выполняются вне
+ * замеряемого участка, но замедляют прогон и оставляют следующую операцию сразу после полной сборки,
+ * поэтому по умолчанию измерение выключено.
  */
 public class ListPerformance implements ListPerformanceInterface {
     // Список для хранения результатов тестов
     private final List<ListPerformanceResult> results = new ArrayList<>();
+    private final boolean measureRetained;  // Измерять ли удерживаемую память после добавления
+
+    /**
+     * Создаёт тестер без измерения удерживаемой памяти.
+     */
+    public ListPerformance() {
+        this(false);
+    }
+
+    /**
+     * Создаёт тестер.
+     *
+     * @param measureRetained Измерять ли после добавления элементов удерживаемую списком память
+     *                        с помощью полных сборок мусора.
+     */
+    public ListPerformance(boolean measureRetained) {
+        this.measureRetained = measureRetained;
+    }
 
     /**
      * Тестирует операцию добавления элементов в список.
-     * Измеряет время, затраченное на добавление {@code iterations} элементов в список.
+     * Измеряет время, затраченное на добавление {@code iterations} элементов в список,
+     * выделенную за это время память и, если измерение включено, память, которую список удерживает после добавления.
      *
      * @param list       Список, в который добавляются элементы.
      * @param iterations Количество элементов для добавления.
      */
     @Override
     public void testAdd(List<Integer> list, int iterations) {
-        long startTime = System.nanoTime();  // Время начала выполнения
+        long heapBefore = measureRetained ? ResourceUsage.usedHeapAfterGc() : 0;  // Занятая куча до заполнения
+        ResourceUsage start = ResourceUsage.start();  // Время начала выполнения и счётчики памяти
         for (int i = 0; i < iterations; i++) {
             list.add(i);  // Добавление элементов в список
         }
-        long endTime = System.nanoTime();  // Время окончания выполнения
-        results.add(new ListPerformanceResult("add", endTime - startTime));  // Сохранение результата теста
+        ResourceUsage end = ResourceUsage.end();  // Время окончания выполнения и счётчики памяти
+        long retained = measureRetained ? retained(heapBefore, list) : ListPerformanceResult.NOT_MEASURED;
+        results.add(start.until(end, "add", iterations, retained));  // Сохранение результата теста
     }
 
     /**
@@ -39,12 +69,13 @@ public class ListPerformance implements ListPerformanceInterface {
      */
     @Override
     public void testGet(List<Integer> list, int iterations) {
-        long startTime = System.nanoTime();  // Время начала выполнения
+        ResourceUsage start = ResourceUsage.start();  // Время начала выполнения и счётчики памяти
         for (int i = 0; i < iterations; i++) {
             list.get(i);  // Получение элементов из списка
         }
-        long endTime = System.nanoTime();  // Время окончания выполнения
-        results.add(new ListPerformanceResult("get", endTime - startTime));  // Сохранение результата теста
+        ResourceUsage end = ResourceUsage.end();  // Время окончания выполнения и счётчики памяти
+        // Сохранение результата теста
+        results.add(start.until(end, "get", iterations, ListPerformanceResult.NOT_MEASURED));
     }
 
     /**
@@ -56,29 +87,115 @@ public class ListPerformance implements ListPerformanceInterface {
      */
     @Override
     public void testRemove(List<Integer> list, int iterations) {
-        long startTime = System.nanoTime();  // Время начала выполнения
+        ResourceUsage start = ResourceUsage.start();  // Время начала выполнения и счётчики памяти
         if (iterations > 0) {
             list.subList(0, iterations).clear();  // Удаление элементов из списка
         }
-        long endTime = System.nanoTime();  // Время окончания выполнения
-        results.add(new ListPerformanceResult("remove", endTime - startTime));  // Сохранение результата теста
+        ResourceUsage end = ResourceUsage.end();  // Время окончания выполнения и счётчики памяти
+        // Сохранение результата теста
+        results.add(start.until(end, "remove", iterations, ListPerformanceResult.NOT_MEASURED));
+    }
+
+    /**
+     * Тестирует добавление элементов в примитивный список без упаковки.
+     * Измеряет время, затраченное на добавление {@code iterations} элементов методом {@link IntList#addInt(int)},
+     * выделенную за это время память и, если измерение включено, память, которую список удерживает после добавления.
+     *
+     * @param list       Список, в который добавляются элементы.
+     * @param iterations Количество элементов для добавления.
+     */
+    @Override
+    public void testAddInt(IntList list, int iterations) {
+        long heapBefore = measureRetained ? ResourceUsage.usedHeapAfterGc() : 0;  // Занятая куча до заполнения
+        ResourceUsage start = ResourceUsage.start();  // Время начала выполнения и счётчики памяти
+        for (int i = 0; i < iterations; i++) {
+            list.addInt(i);  // Добавление элементов без упаковки
+        }
+        ResourceUsage end = ResourceUsage.end();  // Время окончания выполнения и счётчики памяти
+        long retained = measureRetained ? retained(heapBefore, list) : ListPerformanceResult.NOT_MEASURED;
+        results.add(start.until(end, "addInt", iterations, retained));  // Сохранение результата теста
+    }
+
+    /**
+     * Тестирует получение элементов из примитивного списка без распаковки.
+     * Измеряет время, затраченное на получение {@code iterations} элементов методом {@link IntList#getInt(int)}.
+     *
+     * @param list       Список, из которого получаются элементы.
+     * @param iterations Количество элементов для получения.
+     */
+    @Override
+    public void testGetInt(IntList list, int iterations) {
+        ResourceUsage start = ResourceUsage.start();  // Время начала выполнения и счётчики памяти
+        for (int i = 0; i < iterations; i++) {
+            list.getInt(i);  // Получение элементов без распаковки
+        }
+        ResourceUsage end = ResourceUsage.end();  // Время окончания выполнения и счётчики памяти
+        // Сохранение результата теста
+        results.add(start.until(end, "getInt", iterations, ListPerformanceResult.NOT_MEASURED));
     }
 
     /**
-     * Отображает результаты всех тестов в виде таблицы.
+     * Добавляет результат, измеренный вне этого класса (например, бенчмарком JMH),
+     * чтобы он попал в общую таблицу результатов.
+     *
+     * @param result Результат тестирования операции.
+     */
+    public void addResult(ListPerformanceResult result) {
+        results.add(result);
+    }
+
+    /**
+     * Получает результаты всех выполненных тестов для экспорта.
+     *
+     * @return Неизменяемый список результатов в порядке выполнения.
+     */
+    @Override
+    public List<ListPerformanceResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Отображает результаты всех тестов в виде таблицы: время, выделенная и удерживаемая память,
+     * удерживаемая память на элемент, количество и время сборок мусора. Неизмеренные показатели
+     * отображаются прочерком.
      */
     @Override
     public void displayResults() {
         // Формирование строки таблицы с результатами
         String table = results.stream()
-                .map(result -> String.format("| %-10s | %15d нс |", result.getOperation(), result.getDuration()))
+                .map(result -> String.format("| %-10s | %15d нс | %14s | %14s | %9s | %6s | %8s |",
+                        result.getOperation(), result.getDuration(),
+                        format(result.getAllocatedBytes()), format(result.getRetainedBytes()),
+                        Double.isNaN(result.getRetainedBytesPerElement())
+                                ? "—" : String.format("%.1f", result.getRetainedBytesPerElement()),
+                        format(result.getGcCount()),
+                        result.getGcTime() == ListPerformanceResult.NOT_MEASURED ? "—" : result.getGcTime() + " мс"))
                 .collect(Collectors.joining("\n"));
 
         // Вывод заголовка таблицы и данных
-        System.out.println("+------------+---------------------+");
-        System.out.println("| Операция   | Время выполнения    |");
-        System.out.println("+------------+---------------------+");
+        String border = "+------------+---------------------+----------------+----------------+"
+                + "-----------+--------+----------+";
+        System.out.println(border);
+        System.out.println("| Операция   | Время выполнения    | Выделено, Б    | Удержано, Б    "
+                + "| Б/элемент | Сборки | Паузы    |");
+        System.out.println(border);
         System.out.println(table);
-        System.out.println("+------------+---------------------+");
+        System.out.println(border);
+    }
+
+    /**
+     * Получает прирост занятой кучи после заполнения списка. Ссылка на список удерживается до окончания
+     * измерения, чтобы список не был собран раньше. Если сборка освободила больше, чем занял список,
+     * прирост отрицателен и не совпадает по смыслу с удерживаемой памятью, поэтому он ограничивается нулём
+     * (в том числе чтобы не совпасть с {@link ListPerformanceResult#NOT_MEASURED}).
+     */
+    private static long retained(long heapBefore, List<Integer> list) {
+        long retained = ResourceUsage.usedHeapAfterGc() - heapBefore;
+        Reference.reachabilityFence(list);
+        return Math.max(0, retained);
+    }
+
+    private static String format(long value) {
+        return value == ListPerformanceResult.NOT_MEASURED ? "—" : String.valueOf(value);
     }
 }
\ No newline at end of file
@@ -11,7 +11,8 @@ public interface ListPerformanceInterface {
 
     /**
      * Тестирует операцию добавления элементов в список.
-     * Измеряет время, затраченное на добавление {@code iterations} элементов в список.
+     * Измеряет время, затраченное на добавление {@code iterations} элементов в список,
+     * выделенную за это время память и, если это включено, память, которую список удерживает после добавления.
      *
      * @param list       Список, в который добавляются элементы.
      * @param iterations Количество элементов для добавления.
@@ -37,7 +38,33 @@ public interface ListPerformanceInterface {
     void testRemove(List<Integer> list, int iterations);
 
     /**
-     * Отображает результаты всех тестов в виде таблицы.
+     * Тестирует добавление элементов в примитивный список без упаковки.
+     * Измеряет время, затраченное на добавление {@code iterations} элементов методом {@link IntList#addInt(int)},
+     * выделенную за это время память и, если это включено, память, которую список удерживает после добавления.
+     *
+     * @param list       Список, в который добавляются элементы.
+     * @param iterations Количество элементов для добавления.
+     */
+    void testAddInt(IntList list, int iterations);
+
+    /**
+     * Тестирует получение элементов из примитивного списка без распаковки.
+     * Измеряет время, затраченное на получение {@code iterations} элементов методом {@link IntList#getInt(int)}.
+     *
+     * @param list       Список, из которого получаются элементы.
+     * @param iterations Количество элементов для получения.
+     */
+    void testGetInt(IntList list, int iterations);
+
+    /**
+     * Получает результаты всех выполненных тестов для экспорта.
+     *
+     * @return Неизменяемый список результатов в порядке выполнения.
+     */
+    List<ListPerformanceResult> getResults();
+
+    /**
+     * Отображает результаты всех тестов в виде таблицы, включая показатели памяти и сборки мусора.
      */
     void displayResults();
 }
\ No newline at end of file
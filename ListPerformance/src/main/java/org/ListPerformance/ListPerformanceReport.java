@@ -0,0 +1,591 @@
+package org.ListPerformance;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Отчёт о тестировании производительности для машинной обработки: результаты всех списков вместе
+ * с описанием окружения (версия и сборщик мусора JVM, количество ядер, размер кучи, количество итераций),
+ * выгружаемые в CSV или JSON, и сравнение с ранее сохранённым базовым отчётом.
+ *
+ * Каждая строка отчёта — одна операция одного списка заданного размера. Строка одиночного прогона содержит
+ * показатели {@link ListPerformanceResult}, строка режима повторных прогонов — статистику
+ * {@link OperationStatistics}; время строки ({@code duration_ns}) — одиночный замер или медиана. Неизмеренные показатели в CSV
+ * остаются пустыми, а в JSON записываются как {@code null}.
+ *
+ * Формат CSV: строки окружения вида {@code # ключ=значение}, затем заголовок и строки результатов.
+ * Базовый отчёт для сравнения читается из CSV или из JSON, если имя файла оканчивается на {@code .json}.
+ */
+public class ListPerformanceReport {
+
+    private static final String[] COLUMNS = {
+            "list", "operation", "elements", "duration_ns", "allocated_bytes", "retained_bytes", "gc_count",
+            "gc_time_ms", "samples", "min_ns", "median_ns", "p90_ns", "p99_ns", "max_ns", "stddev_ns"
+    };
+
+    private final int iterations;                   // Количество элементов в операциях
+    private final Map<String, String> environment;  // Описание окружения
+    private final List<Row> rows = new ArrayList<>();
+
+    /**
+     * Строка отчёта: результат одиночного прогона или статистика повторных прогонов.
+     */
+    private static final class Row {
+        final String list;
+        final String operation;
+        final int elements;
+        final ListPerformanceResult result;
+        final OperationStatistics statistics;
+
+        Row(String list, String operation, int elements, ListPerformanceResult result,
+            OperationStatistics statistics) {
+            this.list = list;
+            this.operation = operation;
+            this.elements = elements;
+            this.result = result;
+            this.statistics = statistics;
+        }
+
+        long duration() {
+            return result != null ? result.getDuration() : statistics.getMedian();
+        }
+    }
+
+    /**
+     * Конструктор отчёта. Описание окружения текущей JVM снимается сразу.
+     *
+     * @param iterations Количество элементов, над которыми выполнялись операции.
+     */
+    public ListPerformanceReport(int iterations) {
+        this.iterations = iterations;
+        this.environment = new LinkedHashMap<>();
+        environment.put("java.version", System.getProperty("java.version"));
+        environment.put("java.vendor", System.getProperty("java.vendor"));
+        environment.put("java.vm.name", System.getProperty("java.vm.name"));
+        environment.put("gc", ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .map(GarbageCollectorMXBean::getName)
+                .collect(Collectors.joining("; ")));
+        environment.put("processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        environment.put("max.heap.bytes", String.valueOf(Runtime.getRuntime().maxMemory()));
+        environment.put("os.name", System.getProperty("os.name"));
+        environment.put("os.arch", System.getProperty("os.arch"));
+        environment.put("iterations", String.valueOf(iterations));
+        environment.put("timestamp", Instant.now().toString());
+    }
+
+    /**
+     * Добавляет в описание окружения произвольное значение (например, количество прогонов).
+     *
+     * @param key Ключ без переводов строк и знака {@code =}.
+     * @param value Значение без переводов строк.
+     */
+    public void putEnvironment(String key, String value) {
+        environment.put(key, value);
+    }
+
+    /**
+     * Получает описание окружения.
+     *
+     * @return Неизменяемая карта в порядке добавления.
+     */
+    public Map<String, String> getEnvironment() {
+        return Collections.unmodifiableMap(environment);
+    }
+
+    /**
+     * Добавляет результаты одиночного прогона списка.
+     *
+     * @param list Название списка.
+     * @param results Результаты операций.
+     */
+    public void addResults(String list, List<ListPerformanceResult> results) {
+        for (ListPerformanceResult result : results) {
+            rows.add(new Row(list, result.getOperation(), result.getElements(), result, null));
+        }
+    }
+
+    /**
+     * Добавляет статистику повторных прогонов списка над количеством элементов отчёта.
+     *
+     * @param list Название списка.
+     * @param statistics Статистика операций.
+     */
+    public void addStatistics(String list, List<OperationStatistics> statistics) {
+        addStatistics(list, iterations, statistics);
+    }
+
+    /**
+     * Добавляет статистику повторных прогонов списка заданного размера.
+     *
+     * @param list Название списка.
+     * @param elements Количество элементов, над которыми выполнялись операции.
+     * @param statistics Статистика операций.
+     */
+    public void addStatistics(String list, int elements, List<OperationStatistics> statistics) {
+        for (OperationStatistics operation : statistics) {
+            rows.add(new Row(list, operation.getOperation(), elements, null, operation));
+        }
+    }
+
+    /**
+     * Сохраняет отчёт в файл: в JSON, если имя файла оканчивается на {@code .json}, иначе в CSV.
+     *
+     * @param path Путь к файлу.
+     * @throws IOException Если файл не удаётся записать.
+     */
+    public void save(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (path(path).endsWith(".json")) {
+                writeJson(writer);
+            } else {
+                writeCsv(writer);
+            }
+        }
+    }
+
+    /**
+     * Записывает отчёт в формате CSV.
+     *
+     * @param writer Получатель текста.
+     * @throws IOException Если запись не удалась.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        for (Map.Entry<String, String> entry : environment.entrySet()) {
+            writer.write("# " + entry.getKey() + "=" + entry.getValue() + "\n");
+        }
+        writer.write(String.join(",", COLUMNS) + "\n");
+        for (Row row : rows) {
+            List<String> values = new ArrayList<>();
+            values.add(csv(row.list));
+            values.add(csv(row.operation));
+            for (Object value : values(row).values()) {
+                values.add(value == null ? "" : String.valueOf(value));
+            }
+            writer.write(String.join(",", values) + "\n");
+        }
+    }
+
+    /**
+     * Записывает отчёт в формате JSON: объект с полями {@code environment} и {@code results}.
+     *
+     * @param writer Получатель текста.
+     * @throws IOException Если запись не удалась.
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\n  \"environment\": {");
+        String separator = "\n";
+        for (Map.Entry<String, String> entry : environment.entrySet()) {
+            writer.write(separator + "    " + json(entry.getKey()) + ": " + json(entry.getValue()));
+            separator = ",\n";
+        }
+        writer.write("\n  },\n  \"results\": [");
+        separator = "\n";
+        for (Row row : rows) {
+            StringBuilder object = new StringBuilder("    {\"list\": ").append(json(row.list))
+                    .append(", \"operation\": ").append(json(row.operation));
+            for (Map.Entry<String, Object> value : values(row).entrySet()) {
+                object.append(", ").append(json(value.getKey())).append(": ").append(value.getValue());
+            }
+            writer.write(separator + object.append('}'));
+            separator = ",\n";
+        }
+        writer.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Сравнивает отчёт с базовым: операция считается регрессией, если её время больше базового
+     * более чем на {@code threshold}. Строки сопоставляются по списку, операции, количеству элементов
+     * и номеру повторения операции; операции, которых нет в базовом отчёте, не сравниваются. Строки базового
+     * отчёта, которых нет в текущем, тоже считаются регрессией, чтобы выпавшая операция не проходила проверку.
+     *
+     * Одиночные замеры сильно зашумлены, поэтому для сравнения лучше сохранять отчёты режима повторных прогонов,
+     * в которых время — медиана.
+     *
+     * @param baseline Путь к базовому отчёту в формате CSV или JSON (по расширению {@code .json}).
+     * @param threshold Допустимое относительное замедление (например, 0.1 — 10%).
+     * @return Описания регрессий; пустой список, если регрессий нет.
+     * @throws IOException Если файл не удаётся прочитать.
+     * @throws IllegalArgumentException Если файл не является отчётом ListPerformance.
+     */
+    public List<String> compare(Path baseline, double threshold) throws IOException {
+        Map<String, BaselineRow> expected = path(baseline).endsWith(".json")
+                ? loadJsonBaseline(baseline) : loadBaseline(baseline);
+        List<String> regressions = new ArrayList<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Row row : rows) {
+            BaselineRow before = expected.remove(key(row.list, row.operation, row.elements, occurrences));
+            long after = row.duration();
+            if (before != null && after > before.duration * (1 + threshold)) {
+                regressions.add(String.format("%s / %s: %d нс против %d нс в базовом отчёте (%+.1f%%)",
+                        row.list, row.operation, after, before.duration,
+                        (after - before.duration) * 100.0 / before.duration));
+            }
+        }
+        for (BaselineRow missing : expected.values()) {
+            regressions.add(String.format("%s / %s (%d элементов): нет в текущем отчёте",
+                    missing.list, missing.operation, missing.elements));
+        }
+        return regressions;
+    }
+
+    /**
+     * Строка базового отчёта, нужная для сравнения.
+     */
+    private record BaselineRow(String list, String operation, int elements, long duration) {
+    }
+
+    /**
+     * Читает время операций из отчёта в формате CSV.
+     *
+     * @param path Путь к отчёту.
+     * @return Строки в порядке файла по ключам списка, операции, количества элементов и номера повторения.
+     */
+    private static Map<String, BaselineRow> loadBaseline(Path path) throws IOException {
+        Map<String, BaselineRow> baseline = new LinkedHashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<String> header = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                List<String> values = parseCsv(line);
+                if (header == null) {
+                    header = values;
+                    if (!header.contains("list") || !header.contains("operation") || !header.contains("duration_ns")) {
+                        throw new IllegalArgumentException("Файл не является отчётом ListPerformance в формате CSV: "
+                                + path);
+                    }
+                    continue;
+                }
+                if (values.size() != header.size()) {
+                    throw new IllegalArgumentException("Некорректная строка отчёта " + path + ": " + line);
+                }
+                try {
+                    int elements = header.contains("elements")
+                            ? Integer.parseInt(values.get(header.indexOf("elements"))) : 0;
+                    add(baseline, occurrences, new BaselineRow(values.get(header.indexOf("list")),
+                            values.get(header.indexOf("operation")), elements,
+                            Long.parseLong(values.get(header.indexOf("duration_ns")))));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Некорректное время в отчёте " + path + ": " + line, e);
+                }
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Читает время операций из отчёта в формате JSON, записанного {@link #writeJson(Writer)}.
+     *
+     * @param path Путь к отчёту.
+     * @return Строки в порядке файла по ключам списка, операции, количества элементов и номера повторения.
+     */
+    private static Map<String, BaselineRow> loadJsonBaseline(Path path) throws IOException {
+        Object document;
+        try {
+            document = new JsonParser(Files.readString(path, StandardCharsets.UTF_8)).parse();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный JSON в отчёте " + path + ": " + e.getMessage(), e);
+        }
+        if (!(document instanceof Map<?, ?> report) || !(report.get("results") instanceof List<?> results)) {
+            throw new IllegalArgumentException("Файл не является отчётом ListPerformance в формате JSON: " + path);
+        }
+        Map<String, BaselineRow> baseline = new LinkedHashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Object result : results) {
+            if (!(result instanceof Map<?, ?> row) || !(row.get("list") instanceof String list)
+                    || !(row.get("operation") instanceof String operation)
+                    || !(row.get("duration_ns") instanceof Long duration)) {
+                throw new IllegalArgumentException("Некорректная строка отчёта " + path + ": " + result);
+            }
+            int elements = row.get("elements") instanceof Long value ? value.intValue() : 0;
+            add(baseline, occurrences, new BaselineRow(list, operation, elements, duration));
+        }
+        return baseline;
+    }
+
+    private static void add(Map<String, BaselineRow> baseline, Map<String, Integer> occurrences, BaselineRow row) {
+        baseline.put(key(row.list, row.operation, row.elements, occurrences), row);
+    }
+
+    private static String path(Path path) {
+        return path.getFileName().toString().toLowerCase();
+    }
+
+    /**
+     * Числовые поля строки в порядке столбцов после списка и операции; {@code null} — неизмеренный показатель.
+     */
+    private Map<String, Object> values(Row row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        ListPerformanceResult result = row.result;
+        OperationStatistics statistics = row.statistics;
+        values.put("elements", row.elements);
+        values.put("duration_ns", row.duration());
+        values.put("allocated_bytes", result != null ? measured(result.getAllocatedBytes()) : null);
+        values.put("retained_bytes", result != null ? measured(result.getRetainedBytes()) : null);
+        values.put("gc_count", result != null ? measured(result.getGcCount()) : null);
+        values.put("gc_time_ms", result != null ? measured(result.getGcTime()) : null);
+        values.put("samples", statistics != null ? statistics.getCount() : 1);
+        values.put("min_ns", statistics != null ? statistics.getMin() : null);
+        values.put("median_ns", statistics != null ? statistics.getMedian() : null);
+        values.put("p90_ns", statistics != null ? statistics.getPercentile(90) : null);
+        values.put("p99_ns", statistics != null ? statistics.getPercentile(99) : null);
+        values.put("max_ns", statistics != null ? statistics.getMax() : null);
+        values.put("stddev_ns", statistics != null ? Math.round(statistics.getStandardDeviation()) : null);
+        return values;
+    }
+
+    private static Long measured(long value) {
+        return value == ListPerformanceResult.NOT_MEASURED ? null : value;
+    }
+
+    /**
+     * Ключ строки: у примитивных списков одна операция может выполняться несколько раз за прогон.
+     */
+    private static String key(String list, String operation, int elements, Map<String, Integer> occurrences) {
+        String key = list + "/" + operation + "/" + elements;
+        return key + "#" + occurrences.merge(key, 1, Integer::sum);
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Разбирает строку CSV, в которой значения могут быть заключены в кавычки.
+     */
+    private static List<String> parseCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');  // Экранированная кавычка
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder result = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * Разбор JSON, достаточный для отчётов: объекты ({@link LinkedHashMap}), массивы ({@link List}), строки,
+     * целые числа ({@link Long}), дробные числа ({@link Double}), логические значения и {@code null}.
+     */
+    private static final class JsonParser {
+        private final String text;
+        private int index;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        Object parse() {
+            Object value = value();
+            skipWhitespace();
+            if (index != text.length()) {
+                throw error("лишние символы");
+            }
+            return value;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (index >= text.length()) {
+                throw error("неожиданный конец");
+            }
+            char c = text.charAt(index);
+            if (c == '{') {
+                Map<String, Object> object = new LinkedHashMap<>();
+                index++;
+                if (!consume('}')) {
+                    do {
+                        skipWhitespace();
+                        if (index >= text.length() || text.charAt(index) != '"') {
+                            throw error("ожидалось имя поля");
+                        }
+                        String name = string();
+                        expect(':');
+                        object.put(name, value());
+                    } while (consume(','));
+                    expect('}');
+                }
+                return object;
+            } else if (c == '[') {
+                List<Object> array = new ArrayList<>();
+                index++;
+                if (!consume(']')) {
+                    do {
+                        array.add(value());
+                    } while (consume(','));
+                    expect(']');
+                }
+                return array;
+            } else if (c == '"') {
+                return string();
+            } else if (text.startsWith("null", index)) {
+                index += 4;
+                return null;
+            } else if (text.startsWith("true", index)) {
+                index += 4;
+                return true;
+            } else if (text.startsWith("false", index)) {
+                index += 5;
+                return false;
+            }
+            return number();
+        }
+
+        private String string() {
+            StringBuilder value = new StringBuilder();
+            index++;  // Открывающая кавычка
+            while (index < text.length()) {
+                char c = text.charAt(index++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (index >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(index++);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(index, index + 4), 16));
+                        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                            throw error("некорректная escape-последовательность");
+                        }
+                        index += 4;
+                        break;
+                    default:
+                        value.append(escaped);  // \" \\ \/
+                }
+            }
+            throw error("незакрытая строка");
+        }
+
+        private Object number() {
+            int start = index;
+            boolean fraction = false;
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    fraction = true;
+                } else if (!Character.isDigit(c) && c != '-' && c != '+') {
+                    break;
+                }
+                index++;
+            }
+            String number = text.substring(start, index);
+            try {
+                return fraction ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                throw error("ожидалось значение");
+            }
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (index < text.length() && text.charAt(index) == expected) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (!consume(expected)) {
+                throw error("ожидался символ '" + expected + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " (позиция " + index + ")");
+        }
+    }
+}
@@ -2,22 +2,55 @@ package org.ListPerformance;
 
 /**
  * Класс, представляющий результат тестирования производительности операции с коллекцией.
- * Содержит информацию о выполненной операции и времени, затраченном на её выполнение.
+ * Содержит информацию о выполненной операции, времени, затраченном на её выполнение,
+ * а также о памяти и сборках мусора во время операции.
  */
 public class ListPerformanceResult {
 
-    private final String operation;  // Операция, которую тестировали (например, "add", "get", "remove")
-    private final long duration;     // Время выполнения операции в наносекундах
+    /**
+     * Значение показателя, который не измерялся (например, для результата, полученного вне
+     * {@link ListPerformance}, или если JVM не поддерживает счётчик выделенной памяти).
+     */
+    public static final long NOT_MEASURED = -1;
+
+    private final String operation;     // Операция, которую тестировали (например, "add", "get", "remove")
+    private final long duration;        // Время выполнения операции в наносекундах
+    private final int elements;         // Количество элементов, над которыми выполнялась операция
+    private final long allocatedBytes;  // Байты, выделенные потоком во время операции
+    private final long retainedBytes;   // Прирост занятой кучи после операции
+    private final long gcCount;         // Количество сборок мусора во время операции
+    private final long gcTime;          // Суммарное время сборок мусора во время операции в миллисекундах
 
     /**
-     * Конструктор для создания результата тестирования.
+     * Конструктор для создания результата тестирования без измерения памяти.
      *
      * @param operation Операция, которую тестировали (например, "add", "get", "remove").
      * @param duration Время выполнения операции в наносекундах.
      */
     public ListPerformanceResult(String operation, long duration) {
+        this(operation, duration, 0, NOT_MEASURED, NOT_MEASURED, NOT_MEASURED, NOT_MEASURED);
+    }
+
+    /**
+     * Конструктор для создания результата тестирования с показателями памяти и сборки мусора.
+     *
+     * @param operation Операция, которую тестировали (например, "add", "get", "remove").
+     * @param duration Время выполнения операции в наносекундах.
+     * @param elements Количество элементов, над которыми выполнялась операция.
+     * @param allocatedBytes Байты, выделенные во время операции, или {@link #NOT_MEASURED}.
+     * @param retainedBytes Прирост занятой кучи после операции или {@link #NOT_MEASURED}.
+     * @param gcCount Количество сборок мусора во время операции или {@link #NOT_MEASURED}.
+     * @param gcTime Суммарное время сборок мусора в миллисекундах или {@link #NOT_MEASURED}.
+     */
+    public ListPerformanceResult(String operation, long duration, int elements, long allocatedBytes,
+                                 long retainedBytes, long gcCount, long gcTime) {
         this.operation = operation;
         this.duration = duration;
+        this.elements = elements;
+        this.allocatedBytes = allocatedBytes;
+        this.retainedBytes = retainedBytes;
+        this.gcCount = gcCount;
+        this.gcTime = gcTime;
     }
 
     /**
@@ -37,4 +70,60 @@ public class ListPerformanceResult {
     public long getDuration() {
         return duration;
     }
-}
\ No newline at end of file
+
+    /**
+     * Получает количество элементов, над которыми выполнялась операция.
+     *
+     * @return Количество элементов; 0, если неизвестно.
+     */
+    public int getElements() {
+        return elements;
+    }
+
+    /**
+     * Получает объём памяти, выделенной потоком во время операции, включая уже собранные объекты.
+     *
+     * @return Байты или {@link #NOT_MEASURED}.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Получает прирост занятой кучи после операции, измеренный после сборки мусора, — память,
+     * которую удерживает коллекция. Измеряется только для добавления элементов и только по запросу
+     * ({@link ListPerformance#ListPerformance(boolean)}).
+     *
+     * @return Байты или {@link #NOT_MEASURED}.
+     */
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * Получает удерживаемую память в пересчёте на элемент.
+     *
+     * @return Байты на элемент или {@link Double#NaN}, если память не измерялась или количество элементов неизвестно.
+     */
+    public double getRetainedBytesPerElement() {
+        return retainedBytes == NOT_MEASURED || elements == 0 ? Double.NaN : (double) retainedBytes / elements;
+    }
+
+    /**
+     * Получает количество сборок мусора во время операции.
+     *
+     * @return Количество сборок или {@link #NOT_MEASURED}.
+     */
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Получает суммарное время сборок мусора во время операции по данным сборщиков.
+     *
+     * @return Время в миллисекундах или {@link #NOT_MEASURED}.
+     */
+    public long getGcTime() {
+        return gcTime;
+    }
+}
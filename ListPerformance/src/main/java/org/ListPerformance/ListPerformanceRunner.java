@@ -1,69 +1,182 @@
 package org.ListPerformance;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Supplier;
 
 /**
- * Класс для тестирования производительности различных коллекций List (ArrayList и LinkedList).
+ * Класс для тестирования производительности различных коллекций List (ArrayList, LinkedList
+ * и примитивных списков IntArrayList и IntSegmentList).
  * Позволяет пользователю выбрать количество итераций и выполняет тесты для добавления, получения и удаления элементов.
+ * При нескольких измеряемых прогонах выводит статистику по прогонам ({@link ListPerformanceTrials})
+ * и отмечает результаты со слишком большим разбросом. Результаты можно сохранить в CSV или JSON
+ * и сравнить с базовым отчётом ({@link ListPerformanceReport}); при регрессии программа завершается с кодом 1.
+ * С аргументами командной строки запуск передаётся {@link ListPerformanceScenarioRunner}.
  */
 public class ListPerformanceRunner {
     public static void main(String[] args) {
+        // С аргументами командной строки сценарии выполняются без ввода с консоли
+        if (args.length > 0) {
+            ListPerformanceScenarioRunner.main(args);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         // Просим пользователя ввести количество итераций
         System.out.print("Введите количество итераций для тестирования: ");
-        int iterations;
+        int iterations = readInt(scanner, 1);
 
-        // Проверка корректности ввода
-        while (true) {
-            if (scanner.hasNextInt()) {
-                iterations = scanner.nextInt();
-                if (iterations > 0) {
-                    break;
-                } else {
-                    System.out.print("Пожалуйста, введите положительное число: ");
-                }
-            } else {
-                System.out.print("Некорректный ввод! Попробуйте ещё раз: ");
-                scanner.next();
-            }
+        // Количество прогонов: один прогон выводит одиночные замеры, несколько — статистику
+        System.out.print("Введите количество измеряемых прогонов (1 — один прогон без статистики): ");
+        int measurementIterations = readInt(scanner, 1);
+        ListPerformanceTrials trials = null;
+        if (measurementIterations > 1) {
+            System.out.print("Введите количество прогревочных прогонов: ");
+            trials = new ListPerformanceTrials(readInt(scanner, 0), measurementIterations);
         }
 
         System.out.println("\nСравнение производительности коллекций");
         System.out.println("=======================================");
 
-        // Тестирование ArrayList
-        System.out.println("\nРезультаты для ArrayList:");
-        testListPerformance(new ArrayList<>(), iterations);
+        // Тестирование примитивных списков: сначала через упаковывающее представление List<Integer>,
+        // затем теми же операциями без упаковки
+        Map<String, Supplier<List<Integer>>> lists = new LinkedHashMap<>();
+        lists.put("ArrayList", ArrayList::new);
+        lists.put("LinkedList", LinkedList::new);
+        lists.put("IntArrayList", IntArrayList::new);
+        lists.put("IntSegmentList", IntSegmentList::new);
+        ListPerformanceReport report = new ListPerformanceReport(iterations);
+        report.putEnvironment("measurement.iterations", String.valueOf(measurementIterations));
+        for (Map.Entry<String, Supplier<List<Integer>>> entry : lists.entrySet()) {
+            System.out.println("\nРезультаты для " + entry.getKey() + ":");
+            if (trials == null) {
+                report.addResults(entry.getKey(), testListPerformance(entry.getValue().get(), iterations));
+            } else {
+                List<OperationStatistics> statistics = trials.run(entry.getValue(), iterations);
+                trials.displayStatistics(statistics);
+                report.addStatistics(entry.getKey(), statistics);
+            }
+        }
 
-        // Тестирование LinkedList
-        System.out.println("\nРезультаты для LinkedList:");
-        testListPerformance(new LinkedList<>(), iterations);
+        // Выгрузка отчёта и сравнение с базовым отчётом
+        readLine(scanner);  // Остаток строки после последнего числа
+        System.out.print("\nВведите путь для сохранения отчёта (.csv или .json, пустая строка — не сохранять): ");
+        String output = readLine(scanner);
+        System.out.print("Введите путь к базовому отчёту .csv или .json для сравнения (пустая строка — без сравнения): ");
+        String baseline = readLine(scanner);
+        double threshold = 0;
+        if (!baseline.isEmpty()) {
+            System.out.print("Введите допустимое замедление в процентах: ");
+            threshold = readInt(scanner, 0) / 100.0;
+        }
 
         // Закрытие ресурса scanner
         scanner.close();
+
+        int status = saveAndCompare(report, output, baseline, threshold);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Сохраняет отчёт и сравнивает его с базовым отчётом, выводя найденные регрессии.
+     *
+     * @param report Отчёт.
+     * @param output Путь для сохранения отчёта; пустая строка — не сохранять.
+     * @param baseline Путь к базовому отчёту; пустая строка — без сравнения.
+     * @param threshold Допустимое относительное замедление (например, 0.1 — 10%).
+     * @return Код завершения: 0 — успешно, 1 — есть регрессии, 2 — ошибка работы с файлами.
+     */
+    static int saveAndCompare(ListPerformanceReport report, String output, String baseline, double threshold) {
+        try {
+            if (!output.isEmpty()) {
+                report.save(Path.of(output));
+                System.out.println("Отчёт сохранён: " + output);
+            }
+            if (baseline.isEmpty()) {
+                return 0;
+            }
+            // Регрессии завершают программу с ненулевым кодом, чтобы их можно было проверять в сценариях сборки
+            List<String> regressions = report.compare(Path.of(baseline), threshold);
+            if (regressions.isEmpty()) {
+                System.out.println("Регрессий относительно базового отчёта нет.");
+                return 0;
+            }
+            System.out.println("Регрессии относительно базового отчёта:");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            return 1;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Ошибка работы с отчётом: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Считывает строку ввода без пробелов по краям.
+     *
+     * @param scanner Источник ввода.
+     * @return Введённая строка; пустая, если ввод закончился.
+     */
+    private static String readLine(Scanner scanner) {
+        return scanner.hasNextLine() ? scanner.nextLine().trim() : "";
+    }
+
+    /**
+     * Считывает целое число не меньше {@code min}, повторяя запрос при некорректном вводе.
+     *
+     * @param scanner Источник ввода.
+     * @param min Наименьшее допустимое значение.
+     * @return Введённое число.
+     */
+    private static int readInt(Scanner scanner, int min) {
+        // Проверка корректности ввода
+        while (true) {
+            if (scanner.hasNextInt()) {
+                int value = scanner.nextInt();
+                if (value >= min) {
+                    return value;
+                }
+                System.out.print("Пожалуйста, введите число не меньше " + min + ": ");
+            } else {
+                System.out.print("Некорректный ввод! Попробуйте ещё раз: ");
+                scanner.next();
+            }
+        }
     }
 
     /**
      * Метод для выполнения тестирования производительности коллекции.
-     * Тестирует операции добавления, получения и удаления элементов в коллекции.
+     * Тестирует операции добавления, получения и удаления элементов в коллекции;
+     * для примитивного списка дополнительно — добавление и получение без упаковки.
      *
-     * @param list Коллекция, которую нужно протестировать (ArrayList или LinkedList).
+     * @param list Коллекция, которую нужно протестировать.
      * @param iterations Количество итераций для выполнения операций.
+     * @return Результаты тестов.
      */
-    private static void testListPerformance(List<Integer> list, int iterations) {
-        // Создание экземпляра для тестирования
-        ListPerformance tester = new ListPerformance();
+    private static List<ListPerformanceResult> testListPerformance(List<Integer> list, int iterations) {
+        // Создание экземпляра для тестирования; одиночный прогон выводит и удерживаемую память
+        ListPerformance tester = new ListPerformance(true);
 
         // Выполнение тестов
         tester.testAdd(list, iterations);
         tester.testGet(list, iterations);
         tester.testRemove(list, iterations);
+        if (list instanceof IntList intList) {
+            tester.testAddInt(intList, iterations);
+            tester.testGetInt(intList, iterations);
+            tester.testRemove(intList, iterations);
+        }
 
         // Вывод результатов
         tester.displayResults();
+        return tester.getResults();
     }
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+package org.ListPerformance;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Неинтерактивный запуск сценариев доступа ({@link ListScenario}) для нескольких списков и размеров
+ * с параметрами из командной строки или файла настроек, без ввода с консоли.
+ *
+ * Параметры задаются в виде {@code --ключ=значение}; файл настроек ({@code --config=путь}) — файл свойств
+ * с теми же ключами без {@code --}. Параметры командной строки переопределяют файл настроек.
+ * <ul>
+ *     <li>{@code lists} — списки через запятую ({@code ArrayList,LinkedList,IntArrayList,IntSegmentList});</li>
+ *     <li>{@code scenarios} — сценарии через запятую ({@code random-get,middle-insert,iterate,remove-if,mixed});</li>
+ *     <li>{@code sizes} — размеры списков через запятую, с суффиксами {@code K} и {@code M}
+ *     ({@code 1K,100K,1M}; для {@code 100M} нужна куча в несколько гигабайт);</li>
+ *     <li>{@code operations} — количество операций случайного чтения и смешанного сценария ({@code 10000});</li>
+ *     <li>{@code insert-operations} — количество вставок в середину ({@code 1000});</li>
+ *     <li>{@code read-ratio} — доля чтений смешанного сценария от 0 до 1 ({@code 0.9});</li>
+ *     <li>{@code warmup} и {@code runs} — количество прогревочных и измеряемых прогонов ({@code 1} и {@code 5});</li>
+ *     <li>{@code seed} — начальное значение генератора случайных индексов ({@code 42});</li>
+ *     <li>{@code output} — путь для сохранения отчёта {@code .csv} или {@code .json};</li>
+ *     <li>{@code baseline} и {@code threshold} — базовый отчёт {@code .csv} или {@code .json} и допустимое замедление в процентах
+ *     ({@code 10}).</li>
+ * </ul>
+ *
+ * Перед каждым прогоном изменяющего сценария список заполняется заново, вне замера. У {@link LinkedList}
+ * чтение по индексу и вставка в середину проходят половину списка, поэтому на миллионах элементов эти сценарии
+ * выполняются минутами; такие сочетания стоит запускать отдельно с меньшим {@code operations}.
+ * Если список не помещается в кучу, оставшиеся сценарии этого списка и размера пропускаются.
+ *
+ * Код завершения: 0 — успешно, 1 — регрессия относительно базового отчёта, 2 — ошибка параметров или файлов.
+ */
+public class ListPerformanceScenarioRunner {
+
+    private static final Map<String, Supplier<List<Integer>>> LISTS = new LinkedHashMap<>();
+
+    static {
+        LISTS.put("ArrayList", ArrayList::new);
+        LISTS.put("LinkedList", LinkedList::new);
+        LISTS.put("IntArrayList", IntArrayList::new);
+        LISTS.put("IntSegmentList", IntSegmentList::new);
+    }
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("lists", String.join(",", LISTS.keySet()));
+        DEFAULTS.put("scenarios", "random-get,middle-insert,iterate,remove-if,mixed");
+        DEFAULTS.put("sizes", "1K,100K,1M");
+        DEFAULTS.put("operations", "10000");
+        DEFAULTS.put("insert-operations", "1000");
+        DEFAULTS.put("read-ratio", "0.9");
+        DEFAULTS.put("warmup", "1");
+        DEFAULTS.put("runs", "5");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("output", "");
+        DEFAULTS.put("baseline", "");
+        DEFAULTS.put("threshold", "10");
+    }
+
+    private final Map<String, String> settings;  // Параметры запуска в порядке DEFAULTS
+    private final List<String> lists;
+    private final List<ListScenario> scenarios;
+    private final List<Integer> sizes;
+    private final int operations;
+    private final int insertOperations;
+    private final double readRatio;
+    private final int warmup;
+    private final int runs;
+    private final long seed;
+    private long checksum;  // Сумма контрольных значений сценариев, чтобы их результат был использован
+
+    /**
+     * Конструктор запуска с параметрами.
+     *
+     * @param settings Параметры запуска; отсутствующие берутся по умолчанию.
+     * @throws IllegalArgumentException Если параметр неизвестен или его значение некорректно.
+     */
+    public ListPerformanceScenarioRunner(Map<String, String> settings) {
+        this.settings = new LinkedHashMap<>(DEFAULTS);
+        for (Map.Entry<String, String> entry : settings.entrySet()) {
+            if (!DEFAULTS.containsKey(entry.getKey())) {
+                throw new IllegalArgumentException("Неизвестный параметр: " + entry.getKey());
+            }
+            this.settings.put(entry.getKey(), entry.getValue().trim());
+        }
+        this.lists = new ArrayList<>();
+        for (String list : split("lists")) {
+            if (!LISTS.containsKey(list)) {
+                throw new IllegalArgumentException("Неизвестный список: " + list);
+            }
+            lists.add(list);
+        }
+        this.scenarios = new ArrayList<>();
+        for (String scenario : split("scenarios")) {
+            scenarios.add(ListScenario.fromName(scenario));
+        }
+        this.sizes = new ArrayList<>();
+        for (String size : split("sizes")) {
+            sizes.add(parseSize(size));
+        }
+        this.operations = parseInt("operations", 1);
+        this.insertOperations = parseInt("insert-operations", 1);
+        this.warmup = parseInt("warmup", 0);
+        this.runs = parseInt("runs", 1);
+        this.readRatio = parseDouble("read-ratio");
+        if (readRatio < 0 || readRatio > 1) {
+            throw new IllegalArgumentException("Доля чтений должна быть от 0 до 1: " + readRatio);
+        }
+        if (parseDouble("threshold") < 0) {
+            throw new IllegalArgumentException("Допустимое замедление не может быть отрицательным");
+        }
+        try {
+            this.seed = Long.parseLong(this.settings.get("seed"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра seed: " + this.settings.get("seed"));
+        }
+    }
+
+    /**
+     * Разбирает аргументы командной строки вида {@code --ключ=значение}; параметр {@code --config=путь}
+     * загружает файл настроек, значения которого переопределяются остальными аргументами.
+     *
+     * @param args Аргументы командной строки.
+     * @return Запуск с заданными параметрами.
+     * @throws IllegalArgumentException Если аргумент не имеет вида {@code --ключ=значение} или параметр некорректен.
+     * @throws IOException Если файл настроек не удаётся прочитать.
+     */
+    public static ListPerformanceScenarioRunner fromArguments(String[] args) throws IOException {
+        Map<String, String> settings = new LinkedHashMap<>();
+        Map<String, String> arguments = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Аргумент должен иметь вид --ключ=значение: " + arg);
+            }
+            arguments.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        String config = arguments.remove("config");
+        if (config != null) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(Path.of(config), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                settings.put(key, properties.getProperty(key));
+            }
+        }
+        settings.putAll(arguments);
+        return new ListPerformanceScenarioRunner(settings);
+    }
+
+    /**
+     * Запускает сценарии по аргументам командной строки, сохраняет отчёт и сравнивает его с базовым.
+     *
+     * @param args Аргументы командной строки.
+     */
+    public static void main(String[] args) {
+        ListPerformanceScenarioRunner runner;
+        try {
+            runner = fromArguments(args);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Ошибка параметров: " + e.getMessage());
+            System.out.println("Параметры по умолчанию: " + DEFAULTS);
+            System.exit(2);
+            return;
+        }
+        ListPerformanceReport report = runner.run();
+        int status = ListPerformanceRunner.saveAndCompare(report, runner.settings.get("output"),
+                runner.settings.get("baseline"), runner.parseDouble("threshold") / 100);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Выполняет все сочетания размеров, списков и сценариев и выводит таблицу по каждому размеру.
+     *
+     * @return Отчёт со статистикой по каждому сочетанию; количество итераций отчёта — {@code operations}.
+     */
+    public ListPerformanceReport run() {
+        ListPerformanceReport report = new ListPerformanceReport(operations);
+        checksum = 0;
+        settings.forEach((key, value) -> {
+            if (!key.equals("output") && !key.equals("baseline")) {
+                report.putEnvironment("scenario." + key, value);
+            }
+        });
+        String border = "+----------------+---------------+--------+--------------+--------------+--------------+"
+                + "--------------+---+";
+        for (int size : sizes) {
+            System.out.printf("%nРазмер списка: %d%n", size);
+            System.out.println(border);
+            System.out.printf("| %-14s | %-13s | %6s | %12s | %12s | %12s | %12s |   |%n",
+                    "Список", "Сценарий", "Прогон", "Мин, нс", "Медиана, нс", "p90, нс", "Макс, нс");
+            System.out.println(border);
+            for (String list : lists) {
+                List<OperationStatistics> statistics = new ArrayList<>();
+                try {
+                    for (ListScenario scenario : scenarios) {
+                        OperationStatistics result = measure(LISTS.get(list), size, scenario);
+                        statistics.add(result);
+                        System.out.printf("| %-14s | %-13s | %6d | %12d | %12d | %12d | %12d | %s |%n",
+                                list, scenario.getName(), result.getCount(), result.getMin(), result.getMedian(),
+                                result.getPercentile(90), result.getMax(),
+                                result.isHighVariance(ListPerformanceTrials.DEFAULT_VARIANCE_THRESHOLD) ? "!" : " ");
+                    }
+                } catch (OutOfMemoryError e) {
+                    // Список больше кучи: ссылки на него уже потеряны, память освобождается следующей сборкой
+                    System.out.printf("| %-14s | пропущено: недостаточно памяти для %d элементов, увеличьте -Xmx%n",
+                            list, size);
+                }
+                report.addStatistics(list, size, statistics);
+            }
+            System.out.println(border);
+        }
+        System.out.printf("! Разброс выше %.0f%% от среднего: результату нельзя доверять.%n",
+                ListPerformanceTrials.DEFAULT_VARIANCE_THRESHOLD * 100);
+        // Контрольная сумма зависит только от параметров, поэтому её расхождение между запусками
+        // означает, что сценарии выполнили разную работу
+        System.out.println("Контрольная сумма сценариев: " + checksum);
+        report.putEnvironment("scenario.checksum", String.valueOf(checksum));
+        return report;
+    }
+
+    /**
+     * Выполняет прогревочные и измеряемые прогоны одного сценария. Генератор каждого прогона создаётся
+     * из общего начального значения и номера прогона, поэтому все списки получают одинаковые индексы.
+     */
+    private OperationStatistics measure(Supplier<List<Integer>> factory, int size, ListScenario scenario) {
+        int count = scenario == ListScenario.MIDDLE_INSERT ? insertOperations : operations;
+        long[] samples = new long[runs];
+        List<Integer> list = null;
+        for (int run = -warmup; run < runs; run++) {
+            if (list == null || scenario.isMutating()) {
+                list = null;  // Прежний список не должен занимать кучу во время заполнения нового
+                list = fill(factory.get(), size);
+            }
+            SplittableRandom random = new SplittableRandom(seed + run);
+            long startTime = System.nanoTime();  // Время начала выполнения
+            checksum += scenario.run(list, count, readRatio, random);
+            long endTime = System.nanoTime();  // Время окончания выполнения
+            if (run >= 0) {
+                samples[run] = endTime - startTime;
+            }
+        }
+        return new OperationStatistics(scenario.getName(), samples);
+    }
+
+    private static List<Integer> fill(List<Integer> list, int size) {
+        if (list instanceof IntList ints) {
+            for (int i = 0; i < size; i++) {
+                ints.addInt(i);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+        }
+        return list;
+    }
+
+    private List<String> split(String key) {
+        List<String> values = new ArrayList<>();
+        for (String value : settings.get(key).split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Параметр " + key + " не может быть пустым");
+        }
+        return values;
+    }
+
+    /**
+     * Разбирает размер с необязательным десятичным суффиксом {@code K} (тысячи) или {@code M} (миллионы).
+     */
+    private static int parseSize(String size) {
+        String digits = size.toUpperCase();
+        long multiplier = 1;
+        if (digits.endsWith("K")) {
+            multiplier = 1_000;
+        } else if (digits.endsWith("M")) {
+            multiplier = 1_000_000;
+        }
+        if (multiplier > 1) {
+            digits = digits.substring(0, digits.length() - 1);
+        }
+        try {
+            long value = Long.parseLong(digits) * multiplier;
+            if (value < 1 || value > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Размер списка вне допустимого диапазона: " + size);
+            }
+            return (int) value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный размер списка: " + size);
+        }
+    }
+
+    private int parseInt(String key, int min) {
+        try {
+            int value = Integer.parseInt(settings.get(key));
+            if (value < min) {
+                throw new IllegalArgumentException("Параметр " + key + " должен быть не меньше " + min);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра " + key + ": " + settings.get(key));
+        }
+    }
+
+    private double parseDouble(String key) {
+        try {
+            return Double.parseDouble(settings.get(key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра " + key + ": " + settings.get(key));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.ListPerformance;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Режим повторных прогонов: операции {@link ListPerformance} выполняются многократно над новыми списками,
+ * и для каждой операции вместо одного замера собирается статистика по всем прогонам.
+ *
+ * Сначала выполняются прогревочные прогоны, результаты которых отбрасываются (за это время JIT-компилятор
+ * успевает скомпилировать код операций), затем измеряемые. Один прогон — это добавление, получение и удаление
+ * {@code iterations} элементов в новом списке, а для {@link IntList} — ещё добавление и получение без упаковки
+ * в другом новом списке.
+ */
+public class ListPerformanceTrials {
+
+    /**
+     * Порог коэффициента вариации по умолчанию, выше которого результат считается недостоверным.
+     */
+    public static final double DEFAULT_VARIANCE_THRESHOLD = 0.1;
+
+    private final int warmupIterations;       // Количество прогревочных прогонов
+    private final int measurementIterations;  // Количество измеряемых прогонов
+    private final double varianceThreshold;   // Наибольший допустимый коэффициент вариации
+
+    /**
+     * Конструктор с порогом разброса по умолчанию ({@value #DEFAULT_VARIANCE_THRESHOLD}).
+     *
+     * @param warmupIterations Количество прогревочных прогонов.
+     * @param measurementIterations Количество измеряемых прогонов.
+     * @throws IllegalArgumentException Если прогревочных прогонов меньше нуля или измеряемых меньше одного.
+     */
+    public ListPerformanceTrials(int warmupIterations, int measurementIterations) {
+        this(warmupIterations, measurementIterations, DEFAULT_VARIANCE_THRESHOLD);
+    }
+
+    /**
+     * Конструктор режима повторных прогонов.
+     *
+     * @param warmupIterations Количество прогревочных прогонов.
+     * @param measurementIterations Количество измеряемых прогонов.
+     * @param varianceThreshold Наибольший допустимый коэффициент вариации (например, 0.1 — 10%).
+     * @throws IllegalArgumentException Если прогревочных прогонов меньше нуля, измеряемых меньше одного
+     *                                  или порог не положителен.
+     */
+    public ListPerformanceTrials(int warmupIterations, int measurementIterations, double varianceThreshold) {
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException("Количество прогревочных прогонов не может быть отрицательным");
+        }
+        if (measurementIterations < 1) {
+            throw new IllegalArgumentException("Нужен хотя бы один измеряемый прогон");
+        }
+        if (!(varianceThreshold > 0)) {
+            throw new IllegalArgumentException("Порог разброса должен быть положительным");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.varianceThreshold = varianceThreshold;
+    }
+
+    /**
+     * Выполняет прогревочные и измеряемые прогоны над списками, созданными фабрикой.
+     *
+     * @param factory Фабрика новых пустых списков одного типа.
+     * @param iterations Количество элементов в каждой операции.
+     * @return Статистика по операциям в порядке их выполнения.
+     */
+    public List<OperationStatistics> run(Supplier<? extends List<Integer>> factory, int iterations) {
+        for (int i = 0; i < warmupIterations; i++) {
+            runOnce(factory, iterations);
+        }
+        Map<String, long[]> samples = new LinkedHashMap<>();
+        for (int i = 0; i < measurementIterations; i++) {
+            int trial = i;
+            for (ListPerformanceResult result : runOnce(factory, iterations)) {
+                samples.computeIfAbsent(result.getOperation(), operation -> new long[measurementIterations])[trial] =
+                        result.getDuration();
+            }
+        }
+        List<OperationStatistics> statistics = new ArrayList<>();
+        samples.forEach((operation, durations) -> statistics.add(new OperationStatistics(operation, durations)));
+        return statistics;
+    }
+
+    /**
+     * Проверяет, слишком ли велик разброс замеров операции, чтобы доверять результату.
+     *
+     * @param statistics Статистика операции.
+     * @return {@code true}, если коэффициент вариации больше порога этого режима.
+     */
+    public boolean isHighVariance(OperationStatistics statistics) {
+        return statistics.isHighVariance(varianceThreshold);
+    }
+
+    /**
+     * Отображает статистику в виде таблицы. Операции с недостоверным результатом отмечаются восклицательным знаком.
+     *
+     * @param statistics Статистика по операциям.
+     */
+    public void displayStatistics(List<OperationStatistics> statistics) {
+        String border = "+------------+--------+--------------+--------------+--------------+--------------+"
+                + "--------------+--------------+---+";
+        System.out.println(border);
+        System.out.printf("| %-10s | %6s | %12s | %12s | %12s | %12s | %12s | %12s |   |%n",
+                "Операция", "Прогон", "Мин, нс", "Медиана, нс", "p90, нс", "p99, нс", "Макс, нс", "СКО, нс");
+        System.out.println(border);
+        boolean unreliable = false;
+        for (OperationStatistics operation : statistics) {
+            boolean high = isHighVariance(operation);
+            unreliable |= high;
+            System.out.printf("| %-10s | %6d | %12d | %12d | %12d | %12d | %12d | %12.0f | %s |%n",
+                    operation.getOperation(), operation.getCount(), operation.getMin(), operation.getMedian(),
+                    operation.getPercentile(90), operation.getPercentile(99), operation.getMax(),
+                    operation.getStandardDeviation(), high ? "!" : " ");
+        }
+        System.out.println(border);
+        if (unreliable) {
+            System.out.printf("! Разброс выше %.0f%% от среднего: результату нельзя доверять. "
+                    + "Увеличьте количество прогонов или элементов.%n", varianceThreshold * 100);
+        }
+    }
+
+    private static List<ListPerformanceResult> runOnce(Supplier<? extends List<Integer>> factory, int iterations) {
+        ListPerformance tester = new ListPerformance();
+        List<Integer> list = factory.get();
+        tester.testAdd(list, iterations);
+        tester.testGet(list, iterations);
+        tester.testRemove(list, iterations);
+        if (factory.get() instanceof IntList intList) {
+            tester.testAddInt(intList, iterations);
+            tester.testGetInt(intList, iterations);
+        }
+        return tester.getResults();
+    }
+}
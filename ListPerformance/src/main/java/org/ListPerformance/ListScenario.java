@@ -0,0 +1,164 @@
+package org.ListPerformance;
+
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+
+/**
+ * Сценарий доступа к заполненному списку для {@link ListPerformanceScenarioRunner}.
+ *
+ * Случайные индексы берутся из генератора, переданного в сценарий, поэтому при одинаковом начальном значении
+ * все списки получают одну и ту же последовательность обращений. Списки {@link IntList} читаются и изменяются
+ * примитивными методами, остальные — через упаковку. Каждый сценарий возвращает контрольное значение,
+ * зависящее от прочитанных элементов, чтобы JIT-компилятор не мог исключить чтение.
+ */
+public enum ListScenario {
+
+    /**
+     * Чтение по случайным индексам.
+     */
+    RANDOM_GET("random-get", false) {
+        @Override
+        long run(List<Integer> list, int operations, double readRatio, SplittableRandom random) {
+            int size = list.size();
+            long sum = 0;
+            if (list instanceof IntList ints) {
+                for (int i = 0; i < operations; i++) {
+                    sum += ints.getInt(random.nextInt(size));
+                }
+            } else {
+                for (int i = 0; i < operations; i++) {
+                    sum += list.get(random.nextInt(size));
+                }
+            }
+            return sum;
+        }
+    },
+
+    /**
+     * Вставка в середину списка.
+     */
+    MIDDLE_INSERT("middle-insert", true) {
+        @Override
+        long run(List<Integer> list, int operations, double readRatio, SplittableRandom random) {
+            for (int i = 0; i < operations; i++) {
+                list.add(list.size() / 2, i);
+            }
+            return list.size();
+        }
+    },
+
+    /**
+     * Последовательный обход всех элементов итератором списка: {@link IntList#intIterator()} без упаковки
+     * у {@link IntList} и {@link List#iterator()} у остальных списков.
+     */
+    ITERATE("iterate", false) {
+        @Override
+        long run(List<Integer> list, int operations, double readRatio, SplittableRandom random) {
+            long sum = 0;
+            if (list instanceof IntList ints) {
+                PrimitiveIterator.OfInt iterator = ints.intIterator();
+                while (iterator.hasNext()) {
+                    sum += iterator.nextInt();
+                }
+            } else {
+                for (int value : list) {
+                    sum += value;
+                }
+            }
+            return sum;
+        }
+    },
+
+    /**
+     * Удаление всех чётных значений методом {@link List#removeIf}.
+     */
+    REMOVE_IF("remove-if", true) {
+        @Override
+        long run(List<Integer> list, int operations, double readRatio, SplittableRandom random) {
+            list.removeIf(value -> (value & 1) == 0);
+            return list.size();
+        }
+    },
+
+    /**
+     * Смесь чтений и замен по случайным индексам; доля чтений задаётся параметром {@code readRatio}.
+     */
+    MIXED("mixed", true) {
+        @Override
+        long run(List<Integer> list, int operations, double readRatio, SplittableRandom random) {
+            int size = list.size();
+            long sum = 0;
+            IntList ints = list instanceof IntList intList ? intList : null;
+            for (int i = 0; i < operations; i++) {
+                int index = random.nextInt(size);
+                boolean read = random.nextDouble() < readRatio;
+                if (ints != null) {
+                    if (read) {
+                        sum += ints.getInt(index);
+                    } else {
+                        ints.setInt(index, i);
+                    }
+                } else if (read) {
+                    sum += list.get(index);
+                } else {
+                    list.set(index, i);
+                }
+            }
+            return sum;
+        }
+    };
+
+    private final String name;       // Название сценария в параметрах запуска
+    private final boolean mutating;  // Изменяет ли сценарий список
+
+    ListScenario(String name, boolean mutating) {
+        this.name = name;
+        this.mutating = mutating;
+    }
+
+    /**
+     * Получает название сценария, используемое в параметрах запуска и отчётах.
+     *
+     * @return Название сценария.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Проверяет, изменяет ли сценарий список; для такого сценария список заполняется заново перед каждым прогоном.
+     *
+     * @return {@code true}, если сценарий изменяет список.
+     */
+    public boolean isMutating() {
+        return mutating;
+    }
+
+    /**
+     * Находит сценарий по названию.
+     *
+     * @param name Название сценария (например, {@code random-get}).
+     * @return Сценарий.
+     * @throws IllegalArgumentException Если сценария с таким названием нет.
+     */
+    public static ListScenario fromName(String name) {
+        for (ListScenario scenario : values()) {
+            if (scenario.name.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный сценарий: " + name);
+    }
+
+    /**
+     * Выполняет сценарий над заполненным списком.
+     *
+     * @param list Список.
+     * @param operations Количество операций; обход и удаление по условию обрабатывают весь список.
+     * @param readRatio Доля чтений для смешанного сценария.
+     * @param random Генератор случайных индексов.
+     * @return Контрольное значение.
+     */
+    abstract long run(List<Integer> list, int operations, double readRatio, SplittableRandom random);
+}
@@ -0,0 +1,143 @@
+package org.ListPerformance;
+
+import java.util.Arrays;
+
+/**
+ * Статистика времени выполнения одной операции по нескольким прогонам: минимум, медиана, перцентили,
+ * максимум, среднее и стандартное отклонение.
+ *
+ * Хранятся все замеры, поэтому перцентили точные (метод ближайшего ранга), а не приближённые, как у гистограмм:
+ * количество прогонов невелико, а сами замеры — миллисекунды, поэтому память и время на сортировку несущественны.
+ */
+public final class OperationStatistics {
+
+    private final String operation;  // Операция, которую тестировали
+    private final long[] samples;    // Замеры в наносекундах, отсортированные по возрастанию
+
+    /**
+     * Конструктор статистики.
+     *
+     * @param operation Название операции.
+     * @param samples Замеры времени в наносекундах; массив копируется.
+     * @throws IllegalArgumentException Если замеров нет.
+     */
+    public OperationStatistics(String operation, long[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("Нет замеров для операции " + operation);
+        }
+        this.operation = operation;
+        this.samples = samples.clone();
+        Arrays.sort(this.samples);
+    }
+
+    /**
+     * Получает название операции.
+     *
+     * @return Название операции.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Получает количество замеров.
+     *
+     * @return Количество замеров.
+     */
+    public int getCount() {
+        return samples.length;
+    }
+
+    /**
+     * Получает наименьший замер.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getMin() {
+        return samples[0];
+    }
+
+    /**
+     * Получает наибольший замер.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getMax() {
+        return samples[samples.length - 1];
+    }
+
+    /**
+     * Получает медиану замеров.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getMedian() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Получает перцентиль замеров методом ближайшего ранга: наименьший замер, не меньше которого
+     * {@code percentile} процентов замеров.
+     *
+     * @param percentile Перцентиль от 0 до 100.
+     * @return Время в наносекундах.
+     * @throws IllegalArgumentException Если перцентиль вне диапазона от 0 до 100.
+     */
+    public long getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Перцентиль должен быть от 0 до 100: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100 * samples.length);
+        return samples[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Получает среднее значение замеров.
+     *
+     * @return Время в наносекундах.
+     */
+    public double getMean() {
+        double sum = 0;
+        for (long sample : samples) {
+            sum += sample;
+        }
+        return sum / samples.length;
+    }
+
+    /**
+     * Получает выборочное стандартное отклонение замеров.
+     *
+     * @return Стандартное отклонение в наносекундах; 0 для одного замера.
+     */
+    public double getStandardDeviation() {
+        if (samples.length < 2) {
+            return 0;
+        }
+        double mean = getMean();
+        double sum = 0;
+        for (long sample : samples) {
+            sum += (sample - mean) * (sample - mean);
+        }
+        return Math.sqrt(sum / (samples.length - 1));
+    }
+
+    /**
+     * Получает коэффициент вариации — отношение стандартного отклонения к среднему.
+     *
+     * @return Коэффициент вариации; 0, если среднее равно нулю.
+     */
+    public double getCoefficientOfVariation() {
+        double mean = getMean();
+        return mean == 0 ? 0 : getStandardDeviation() / mean;
+    }
+
+    /**
+     * Проверяет, слишком ли велик разброс замеров, чтобы доверять результату.
+     *
+     * @param threshold Наибольший допустимый коэффициент вариации (например, 0.1 — 10%).
+     * @return {@code true}, если коэффициент вариации больше порога.
+     */
+    public boolean isHighVariance(double threshold) {
+        return getCoefficientOfVariation() > threshold;
+    }
+}
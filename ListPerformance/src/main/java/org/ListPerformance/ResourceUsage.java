@@ -0,0 +1,117 @@
+package org.ListPerformance;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Снимок счётчиков ресурсов текущего потока и JVM на момент начала или окончания операции:
+ * времени, байтов, выделенных потоком, а также количества и суммарного времени сборок мусора.
+ *
+ * Счётчик выделенной памяти берётся из {@link com.sun.management.ThreadMXBean}; если JVM его не поддерживает
+ * или он отключён, вместо значений возвращается {@link ListPerformanceResult#NOT_MEASURED}.
+ */
+final class ResourceUsage {
+
+    // Количество попыток дождаться стабильного размера кучи после сборки мусора
+    private static final int GC_ATTEMPTS = 10;
+
+    private final long time;            // Время в наносекундах
+    private final long allocatedBytes;  // Байты, выделенные текущим потоком с его запуска
+    private final long gcCount;         // Количество сборок мусора со старта JVM
+    private final long gcTime;          // Суммарное время сборок мусора со старта JVM в миллисекундах
+
+    private ResourceUsage(long time, long allocatedBytes, long gcCount, long gcTime) {
+        this.time = time;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcTime = gcTime;
+    }
+
+    /**
+     * Снимает счётчики перед операцией; время читается последним, чтобы чтение остальных счётчиков
+     * не попало в замер.
+     *
+     * @return Снимок счётчиков.
+     */
+    static ResourceUsage start() {
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long allocatedBytes = allocatedBytes();
+        return new ResourceUsage(System.nanoTime(), allocatedBytes, gcCount, gcTime);
+    }
+
+    /**
+     * Снимает счётчики после операции; время читается первым.
+     *
+     * @return Снимок счётчиков.
+     */
+    static ResourceUsage end() {
+        long time = System.nanoTime();
+        long allocatedBytes = allocatedBytes();
+        return new ResourceUsage(time, allocatedBytes, gcCount(), gcTime());
+    }
+
+    /**
+     * Составляет результат операции, выполненной между этим снимком и снимком {@code end}.
+     *
+     * @param end Снимок после операции.
+     * @param operation Название операции.
+     * @param elements Количество элементов, над которыми выполнялась операция.
+     * @param retainedBytes Прирост занятой кучи после операции или {@link ListPerformanceResult#NOT_MEASURED}.
+     * @return Результат операции.
+     */
+    ListPerformanceResult until(ResourceUsage end, String operation, int elements, long retainedBytes) {
+        long allocated = allocatedBytes == ListPerformanceResult.NOT_MEASURED
+                ? ListPerformanceResult.NOT_MEASURED : end.allocatedBytes - allocatedBytes;
+        return new ListPerformanceResult(operation, end.time - time, elements, allocated, retainedBytes,
+                end.gcCount - gcCount, end.gcTime - gcTime);
+    }
+
+    /**
+     * Получает объём занятой кучи после полной сборки мусора. Сборка запрашивается, пока два измерения подряд
+     * не совпадут, но не более {@value #GC_ATTEMPTS} раз, поскольку {@link System#gc()} — лишь запрос,
+     * а часть объектов (например, достижимых через очереди ссылок) освобождается только следующей сборкой.
+     *
+     * @return Занятая куча в байтах.
+     */
+    static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = -1;
+        for (int attempt = 0; attempt < GC_ATTEMPTS; attempt++) {
+            System.gc();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current == used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return ListPerformanceResult.NOT_MEASURED;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());  // -1, если сборщик не ведёт счётчик
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+}
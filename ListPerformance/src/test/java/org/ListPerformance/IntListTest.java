@@ -0,0 +1,160 @@
+package org.ListPerformance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для примитивных списков IntArrayList и IntSegmentList:
+ * каждая операция сверяется с ArrayList на одних и тех же данных.
+ */
+public class IntListTest {
+
+    // Размер больше нескольких страниц IntSegmentList, чтобы сдвиги пересекали границы страниц
+    private static final int SIZE = IntSegmentList.PAGE_SIZE * 3 + 17;
+
+    private static final List<Supplier<IntList>> IMPLEMENTATIONS = List.of(IntArrayList::new, IntSegmentList::new);
+
+    /**
+     * Тестирует добавление и получение элементов примитивными методами и через представление List.
+     */
+    @Test
+    void testAddAndGet() {
+        for (Supplier<IntList> implementation : IMPLEMENTATIONS) {
+            IntList list = implementation.get();
+            for (int i = 0; i < SIZE; i++) {
+                if (i % 2 == 0) {
+                    list.addInt(i);
+                } else {
+                    list.add(i);
+                }
+            }
+            assertEquals(SIZE, list.size());
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(i, list.getInt(i));
+                assertEquals(i, list.get(i));
+            }
+            assertEquals(5, list.setInt(5, -5));
+            assertEquals(-5, list.set(5, 7));
+            assertEquals(7, list.getInt(5));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.getInt(SIZE));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.getInt(-1));
+        }
+    }
+
+    /**
+     * Тестирует примитивный итератор: порядок значений через границы страниц, конец обхода
+     * и обнаружение изменения списка во время обхода.
+     */
+    @Test
+    void testIntIterator() {
+        for (Supplier<IntList> implementation : IMPLEMENTATIONS) {
+            IntList list = implementation.get();
+            for (int i = 0; i < SIZE; i++) {
+                list.addInt(i * 3);
+            }
+            PrimitiveIterator.OfInt iterator = list.intIterator();
+            for (int i = 0; i < SIZE; i++) {
+                assertTrue(iterator.hasNext());
+                assertEquals(i * 3, iterator.nextInt());
+            }
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::nextInt);
+
+            PrimitiveIterator.OfInt stale = list.intIterator();
+            list.removeRange(0, 1);
+            assertThrows(ConcurrentModificationException.class, stale::nextInt);
+        }
+    }
+
+    /**
+     * Тестирует вставку и удаление в случайных позициях, групповое удаление и итератор, сверяя с ArrayList.
+     */
+    @Test
+    void testInsertAndRemoveMatchArrayList() {
+        for (Supplier<IntList> implementation : IMPLEMENTATIONS) {
+            IntList list = implementation.get();
+            List<Integer> expected = new ArrayList<>();
+            Random random = new Random(42);
+            for (int i = 0; i < SIZE; i++) {
+                list.addInt(i);
+                expected.add(i);
+            }
+            for (int i = 0; i < 200; i++) {
+                int index = random.nextInt(expected.size() + 1);
+                list.add(index, -i);
+                expected.add(index, -i);
+                int removed = random.nextInt(expected.size());
+                assertEquals(expected.remove(removed), list.remove(removed));
+            }
+            assertEquals(expected, list);
+
+            list.removeRange(10, IntSegmentList.PAGE_SIZE * 2 + 3);
+            expected.subList(10, IntSegmentList.PAGE_SIZE * 2 + 3).clear();
+            assertEquals(expected, list);
+
+            list.subList(0, 5).clear();
+            expected.subList(0, 5).clear();
+            assertEquals(expected, list);
+            assertEquals(expected.hashCode(), list.hashCode());
+
+            assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(3, 2));
+            list.clear();
+            assertTrue(list.isEmpty());
+            list.addInt(1);
+            assertEquals(List.of(1), list);
+        }
+    }
+
+    /**
+     * Тестирует удаление по условию одним проходом: результат совпадает с ArrayList, а исключение в условии
+     * оставляет список без изменений.
+     */
+    @Test
+    void testRemoveIf() {
+        for (Supplier<IntList> implementation : IMPLEMENTATIONS) {
+            IntList list = implementation.get();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < SIZE; i++) {
+                list.addInt(i);
+                expected.add(i);
+            }
+            assertFalse(list.removeIf(value -> value < 0));
+            assertTrue(list.removeIf(value -> value % 3 != 1));
+            expected.removeIf(value -> value % 3 != 1);
+            assertEquals(expected, list);
+
+            assertThrows(IllegalStateException.class, () -> list.removeIf(value -> {
+                if (value > 1000) {
+                    throw new IllegalStateException();
+                }
+                return true;
+            }));
+            assertEquals(expected, list);
+        }
+    }
+
+    /**
+     * Тестирует освобождение страниц IntSegmentList после удаления элементов с конца.
+     */
+    @Test
+    void testSegmentPagesReleased() {
+        IntSegmentList list = new IntSegmentList();
+        for (int i = 0; i < SIZE; i++) {
+            list.addInt(i);
+        }
+        assertEquals(4, list.getPageCount());
+        list.removeRange(IntSegmentList.PAGE_SIZE, SIZE);
+        assertEquals(1, list.getPageCount());
+        list.clear();
+        assertEquals(0, list.getPageCount());
+    }
+}
@@ -0,0 +1,116 @@
+package org.ListPerformance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для выгрузки отчёта ListPerformanceReport в CSV и JSON и сравнения с базовым отчётом.
+ */
+public class ListPerformanceReportTest {
+
+    private static ListPerformanceReport report(long addDuration) {
+        ListPerformanceReport report = new ListPerformanceReport(1000);
+        report.addResults("ArrayList", List.of(
+                new ListPerformanceResult("add", addDuration, 1000, 20000, 16000, 0, 0),
+                new ListPerformanceResult("get", 500)));
+        report.addStatistics("IntArrayList", List.of(new OperationStatistics("getInt", new long[]{30, 10, 20})));
+        return report;
+    }
+
+    /**
+     * Тестирует формат CSV: окружение в комментариях, заголовок, пустые значения неизмеренных показателей
+     * и медиана в качестве времени строки повторных прогонов.
+     */
+    @Test
+    void testCsv() throws IOException {
+        StringWriter writer = new StringWriter();
+        report(1000).writeCsv(writer);
+        List<String> lines = writer.toString().lines().toList();
+
+        assertTrue(lines.contains("# java.version=" + System.getProperty("java.version")));
+        assertTrue(lines.contains("# iterations=1000"));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("# gc=")));
+        int header = lines.indexOf("list,operation,elements,duration_ns,allocated_bytes,retained_bytes,gc_count,"
+                + "gc_time_ms,samples,min_ns,median_ns,p90_ns,p99_ns,max_ns,stddev_ns");
+        assertTrue(header > 0, "Заголовок должен следовать за окружением");
+        assertEquals("ArrayList,add,1000,1000,20000,16000,0,0,1,,,,,,", lines.get(header + 1));
+        assertEquals("ArrayList,get,0,500,,,,,1,,,,,,", lines.get(header + 2));
+        assertEquals("IntArrayList,getInt,1000,20,,,,,3,10,20,30,30,30,10", lines.get(header + 3));
+    }
+
+    /**
+     * Тестирует формат JSON: окружение, строки результатов и {@code null} у неизмеренных показателей.
+     */
+    @Test
+    void testJson() throws IOException {
+        StringWriter writer = new StringWriter();
+        report(1000).writeJson(writer);
+        String json = writer.toString();
+
+        assertTrue(json.startsWith("{\n  \"environment\": {"));
+        assertTrue(json.contains("\"processors\": \"" + Runtime.getRuntime().availableProcessors() + "\""));
+        assertTrue(json.contains("{\"list\": \"ArrayList\", \"operation\": \"add\", \"elements\": 1000, "
+                + "\"duration_ns\": 1000, \"allocated_bytes\": 20000, \"retained_bytes\": 16000"));
+        assertTrue(json.contains("\"operation\": \"get\", \"elements\": 0, \"duration_ns\": 500, "
+                + "\"allocated_bytes\": null"));
+        assertTrue(json.contains("\"median_ns\": 20"));
+        assertTrue(json.endsWith("  ]\n}\n"));
+    }
+
+    /**
+     * Тестирует сравнение с базовым отчётом: замедление выше порога считается регрессией, в пределах порога — нет.
+     */
+    @Test
+    void testCompare(@TempDir Path directory) throws IOException {
+        Path baseline = directory.resolve("baseline.csv");
+        report(1000).save(baseline);
+        report(1000).save(directory.resolve("report.json"));
+        assertTrue(Files.readString(directory.resolve("report.json")).startsWith("{"));
+
+        assertEquals(List.of(), report(1000).compare(baseline, 0.1));
+        assertEquals(List.of(), report(1050).compare(baseline, 0.1));
+        List<String> regressions = report(1500).compare(baseline, 0.1);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("ArrayList / add: 1500 нс против 1000 нс"));
+
+        // Операции без базового значения не сравниваются
+        ListPerformanceReport extended = report(1000);
+        extended.addResults("LinkedList", List.of(new ListPerformanceResult("add", 1_000_000)));
+        assertEquals(List.of(), extended.compare(baseline, 0.1));
+
+        Path invalid = directory.resolve("invalid.csv");
+        Files.writeString(invalid, "a,b\n1,2\n");
+        assertThrows(IllegalArgumentException.class, () -> report(1000).compare(invalid, 0.1));
+    }
+
+    /**
+     * Тестирует базовый отчёт в формате JSON и строки базового отчёта, которых нет в текущем.
+     */
+    @Test
+    void testCompareJsonAndMissingRows(@TempDir Path directory) throws IOException {
+        Path baseline = directory.resolve("baseline.json");
+        ListPerformanceReport saved = report(1000);
+        saved.putEnvironment("path", "C:\\bench \"ночь\"\n");
+        saved.addResults("LinkedList", List.of(new ListPerformanceResult("add", 2000, 1000, 0, 0, 0, 0)));
+        saved.save(baseline);
+
+        List<String> regressions = report(1500).compare(baseline, 0.1);
+        assertEquals(2, regressions.size());
+        assertTrue(regressions.get(0).startsWith("ArrayList / add: 1500 нс против 1000 нс"));
+        assertEquals("LinkedList / add (1000 элементов): нет в текущем отчёте", regressions.get(1));
+
+        Path invalid = directory.resolve("invalid.json");
+        Files.writeString(invalid, "{\"results\": [");
+        assertThrows(IllegalArgumentException.class, () -> report(1000).compare(invalid, 0.1));
+        Files.writeString(invalid, "{\"environment\": {}}");
+        assertThrows(IllegalArgumentException.class, () -> report(1000).compare(invalid, 0.1));
+    }
+}
@@ -0,0 +1,73 @@
+package org.ListPerformance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для неинтерактивного запуска сценариев ListPerformanceScenarioRunner.
+ */
+public class ListPerformanceScenarioRunnerTest {
+
+    /**
+     * Тестирует запуск по аргументам: отчёт содержит строку на каждое сочетание списка, размера и сценария.
+     */
+    @Test
+    void testRun() throws IOException {
+        ListPerformanceScenarioRunner runner = ListPerformanceScenarioRunner.fromArguments(new String[]{
+                "--lists=ArrayList,IntSegmentList", "--scenarios=random-get,remove-if", "--sizes=1K,2000",
+                "--operations=500", "--warmup=0", "--runs=2"});
+        ListPerformanceReport report = runner.run();
+        assertEquals("2", report.getEnvironment().get("scenario.runs"));
+
+        StringWriter writer = new StringWriter();
+        report.writeCsv(writer);
+        List<String> rows = writer.toString().lines().filter(line -> !line.startsWith("#")).skip(1).toList();
+        assertEquals(8, rows.size());
+        assertTrue(rows.get(0).startsWith("ArrayList,random-get,1000,"));
+        assertTrue(rows.get(7).startsWith("IntSegmentList,remove-if,2000,"));
+        assertTrue(rows.stream().allMatch(row -> row.contains(",2,")), "У каждой строки два прогона");
+        assertEquals(report.getEnvironment().get("scenario.checksum"),
+                runner.run().getEnvironment().get("scenario.checksum"), "Сценарии выполнили ту же работу");
+    }
+
+    /**
+     * Тестирует файл настроек и переопределение его значений аргументами командной строки.
+     */
+    @Test
+    void testConfig(@TempDir Path directory) throws IOException {
+        Path config = directory.resolve("scenarios.properties");
+        Files.writeString(config, "lists=IntArrayList\nscenarios=iterate\nsizes=1K\nruns=3\nwarmup=0\n");
+        ListPerformanceReport report = ListPerformanceScenarioRunner.fromArguments(
+                new String[]{"--config=" + config, "--runs=2"}).run();
+        assertEquals("IntArrayList", report.getEnvironment().get("scenario.lists"));
+        assertEquals("2", report.getEnvironment().get("scenario.runs"));
+    }
+
+    /**
+     * Тестирует проверку параметров.
+     */
+    @Test
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ListPerformanceScenarioRunner.fromArguments(new String[]{"runs=2"}));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceScenarioRunner(Map.of("repeat", "2")));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceScenarioRunner(Map.of("lists", "Vector")));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceScenarioRunner(Map.of("sizes", "1G")));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceScenarioRunner(Map.of("sizes", "0")));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceScenarioRunner(Map.of("runs", "0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListPerformanceScenarioRunner(Map.of("read-ratio", "1.5")));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListPerformanceScenarioRunner(Map.of("scenarios", "sort")));
+        assertDoesNotThrow(() -> new ListPerformanceScenarioRunner(Map.of("sizes", "100M", "read-ratio", "0.5")));
+    }
+}
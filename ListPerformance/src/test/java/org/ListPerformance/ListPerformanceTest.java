@@ -1,13 +1,17 @@
 package org.ListPerformance;
 
+import com.sun.management.HotSpotDiagnosticMXBean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Модульные тесты для класса ListPerformance, проверяющие производительность
@@ -161,4 +165,106 @@ public class ListPerformanceTest {
         assertEquals(iterations, arrayList.size(),
                 "Размер ArrayList должен совпадать с количеством итераций");
     }
-}
\ No newline at end of file
+
+    /**
+     * Тестирует экспорт результатов: результаты тестов и добавленные извне результаты
+     * возвращаются в порядке выполнения, а список результатов нельзя изменить снаружи.
+     */
+    @Test
+    void testResultsExport() {
+        List<Integer> arrayList = new ArrayList<>();
+        tester.testAdd(arrayList, 10);
+        tester.testGet(arrayList, 10);
+        tester.addResult(new ListPerformanceResult("remove", 42));
+
+        List<ListPerformanceResult> results = tester.getResults();
+        assertEquals(3, results.size(), "Должно быть три результата");
+        assertEquals("add", results.get(0).getOperation());
+        assertEquals("get", results.get(1).getOperation());
+        assertEquals(42, results.get(2).getDuration());
+        assertThrows(UnsupportedOperationException.class, () -> results.add(new ListPerformanceResult("add", 1)),
+                "Список результатов должен быть неизменяемым");
+    }
+
+    /**
+     * Тестирует примитивные методы {@code testAddInt} и {@code testGetInt} для обоих примитивных списков.
+     */
+    @Test
+    void testPrimitiveOperations() {
+        for (IntList list : List.of(new IntArrayList(), new IntSegmentList())) {
+            tester.testAddInt(list, 10_000);
+            assertEquals(10_000, list.size(), "Размер списка должен совпадать с количеством итераций");
+            tester.testGetInt(list, 10_000);
+            tester.testRemove(list, 10_000);
+            assertTrue(list.isEmpty(), "Список должен быть пуст после удаления");
+        }
+        List<ListPerformanceResult> results = tester.getResults();
+        assertEquals("addInt", results.get(0).getOperation());
+        assertEquals("getInt", results.get(1).getOperation());
+        assertEquals(6, results.size(), "Должно быть по три результата на список");
+    }
+
+    /**
+     * Тестирует измерение памяти: список из упакованных значений выделяет и удерживает больше памяти,
+     * чем примитивный, LinkedList удерживает больше, чем ArrayList, а чтение без упаковки почти не выделяет памяти.
+     */
+    @Test
+    void testMemoryMeasurement() {
+        // Порядок величин имеет смысл, только если JVM считает выделения потока и выполняет System.gc()
+        ListPerformance probe = new ListPerformance();
+        probe.testGetInt(new IntArrayList(), 0);
+        assumeTrue(probe.getResults().get(0).getAllocatedBytes() != ListPerformanceResult.NOT_MEASURED,
+                "JVM не поддерживает счётчик выделенной памяти потока");
+        assumeFalse(isExplicitGcDisabled(), "System.gc() отключён параметром -XX:+DisableExplicitGC");
+
+        tester = new ListPerformance(true);
+        int iterations = 100_000;
+        List<Integer> arrayList = new ArrayList<>();
+        List<Integer> linkedList = new LinkedList<>();
+        IntList intList = new IntArrayList();
+        tester.testAdd(arrayList, iterations);
+        tester.testAdd(linkedList, iterations);
+        tester.testAddInt(intList, iterations);
+        tester.testGetInt(intList, iterations);
+
+        List<ListPerformanceResult> results = tester.getResults();
+        ListPerformanceResult boxed = results.get(0);
+        ListPerformanceResult linked = results.get(1);
+        ListPerformanceResult primitive = results.get(2);
+        assertEquals(iterations, boxed.getElements());
+        // Каждое значение вне кэша Integer — отдельный объект, а ссылки на них хранятся в массиве
+        assertTrue(boxed.getRetainedBytesPerElement() > 4, "ArrayList должен удерживать больше 4 байт на элемент");
+        assertTrue(linked.getRetainedBytes() > boxed.getRetainedBytes(),
+                "LinkedList должен удерживать больше памяти, чем ArrayList");
+        assertTrue(primitive.getRetainedBytes() < boxed.getRetainedBytes(),
+                "Примитивный список должен удерживать меньше памяти, чем ArrayList");
+        assertTrue(primitive.getAllocatedBytes() < boxed.getAllocatedBytes(),
+                "Примитивный список должен выделять меньше памяти, чем ArrayList");
+        assertTrue(results.get(3).getAllocatedBytes() < iterations, "Чтение без упаковки не должно выделять память");
+        assertTrue(boxed.getGcCount() >= 0);
+
+        // Результат, полученный извне, не содержит показателей памяти
+        ListPerformanceResult external = new ListPerformanceResult("get", 1);
+        assertEquals(ListPerformanceResult.NOT_MEASURED, external.getAllocatedBytes());
+        assertTrue(Double.isNaN(external.getRetainedBytesPerElement()));
+        tester.addResult(external);
+        assertDoesNotThrow(() -> tester.displayResults());
+    }
+
+    /**
+     * Тестирует, что удерживаемая память по умолчанию не измеряется.
+     */
+    @Test
+    void testRetainedNotMeasuredByDefault() {
+        tester.testAdd(new ArrayList<>(), 1000);
+        tester.testAddInt(new IntArrayList(), 1000);
+        for (ListPerformanceResult result : tester.getResults()) {
+            assertEquals(ListPerformanceResult.NOT_MEASURED, result.getRetainedBytes());
+        }
+    }
+
+    private static boolean isExplicitGcDisabled() {
+        HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        return bean != null && Boolean.parseBoolean(bean.getVMOption("DisableExplicitGC").getValue());
+    }
+}
@@ -0,0 +1,64 @@
+package org.ListPerformance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для режима повторных прогонов ListPerformanceTrials и статистики OperationStatistics.
+ */
+public class ListPerformanceTrialsTest {
+
+    /**
+     * Тестирует статистику на известных замерах: перцентили по методу ближайшего ранга и стандартное отклонение.
+     */
+    @Test
+    void testStatistics() {
+        long[] samples = new long[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = 100 - i;  // Порядок замеров не важен
+        }
+        OperationStatistics statistics = new OperationStatistics("add", samples);
+        assertEquals(100, statistics.getCount());
+        assertEquals(1, statistics.getMin());
+        assertEquals(50, statistics.getMedian());
+        assertEquals(90, statistics.getPercentile(90));
+        assertEquals(99, statistics.getPercentile(99));
+        assertEquals(100, statistics.getMax());
+        assertEquals(50.5, statistics.getMean(), 1e-9);
+        assertEquals(29.011, statistics.getStandardDeviation(), 1e-3);
+        assertTrue(statistics.isHighVariance(0.1));
+        assertEquals(100, samples[0], "Исходный массив не должен изменяться");
+
+        OperationStatistics stable = new OperationStatistics("get", new long[]{100, 101, 99, 100});
+        assertFalse(stable.isHighVariance(0.1));
+        assertEquals(0, new OperationStatistics("get", new long[]{7}).getStandardDeviation());
+
+        assertThrows(IllegalArgumentException.class, () -> new OperationStatistics("add", new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentile(101));
+    }
+
+    /**
+     * Тестирует прогоны: по каждой операции собирается по замеру на измеряемый прогон,
+     * для примитивного списка добавляются операции без упаковки.
+     */
+    @Test
+    void testRun() {
+        ListPerformanceTrials trials = new ListPerformanceTrials(1, 5);
+        List<OperationStatistics> boxed = trials.run(ArrayList::new, 1000);
+        assertEquals(List.of("add", "get", "remove"), boxed.stream().map(OperationStatistics::getOperation).toList());
+        boxed.forEach(operation -> assertEquals(5, operation.getCount()));
+
+        List<OperationStatistics> primitive = trials.run(IntArrayList::new, 1000);
+        assertEquals(List.of("add", "get", "remove", "addInt", "getInt"),
+                primitive.stream().map(OperationStatistics::getOperation).toList());
+        assertDoesNotThrow(() -> trials.displayStatistics(primitive));
+
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceTrials(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceTrials(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ListPerformanceTrials(0, 5, 0));
+    }
+}
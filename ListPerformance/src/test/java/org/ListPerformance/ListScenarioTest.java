@@ -0,0 +1,64 @@
+package org.ListPerformance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для сценариев доступа ListScenario: при одинаковом генераторе все списки
+ * дают одинаковые контрольные значения и одинаковое содержимое после сценария.
+ */
+public class ListScenarioTest {
+
+    private static final List<Supplier<List<Integer>>> LISTS =
+            List.of(ArrayList::new, LinkedList::new, IntArrayList::new, IntSegmentList::new);
+
+    private static List<Integer> filled(Supplier<List<Integer>> factory, int size) {
+        List<Integer> list = factory.get();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    /**
+     * Тестирует, что каждый сценарий одинаково работает со всеми списками.
+     */
+    @Test
+    void testScenariosMatchAcrossLists() {
+        for (ListScenario scenario : ListScenario.values()) {
+            List<Integer> expected = filled(ArrayList::new, 5000);
+            long checksum = scenario.run(expected, 2000, 0.5, new SplittableRandom(7));
+            for (Supplier<List<Integer>> factory : LISTS) {
+                List<Integer> list = filled(factory, 5000);
+                assertEquals(checksum, scenario.run(list, 2000, 0.5, new SplittableRandom(7)),
+                        scenario.getName() + " для " + list.getClass().getSimpleName());
+                assertEquals(expected, list, scenario.getName() + " для " + list.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Тестирует результат отдельных сценариев и поиск сценария по названию.
+     */
+    @Test
+    void testScenarios() {
+        List<Integer> list = filled(IntArrayList::new, 10);
+        assertEquals(45, ListScenario.ITERATE.run(list, 0, 0, new SplittableRandom(1)));
+        assertEquals(5, ListScenario.REMOVE_IF.run(list, 0, 0, new SplittableRandom(1)));
+        assertEquals(List.of(1, 3, 5, 7, 9), list);
+        assertEquals(8, ListScenario.MIDDLE_INSERT.run(list, 3, 0, new SplittableRandom(1)));
+        assertEquals(List.of(1, 3, 0, 2, 1, 5, 7, 9), list);
+
+        assertEquals(ListScenario.MIXED, ListScenario.fromName("mixed"));
+        assertTrue(ListScenario.MIXED.isMutating());
+        assertFalse(ListScenario.RANDOM_GET.isMutating());
+        assertThrows(IllegalArgumentException.class, () -> ListScenario.fromName("sort"));
+    }
+}
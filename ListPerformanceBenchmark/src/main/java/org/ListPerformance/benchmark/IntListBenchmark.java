@@ -0,0 +1,147 @@
+package org.ListPerformance.benchmark;
+
+import org.ListPerformance.IntArrayList;
+import org.ListPerformance.IntList;
+import org.ListPerformance.IntSegmentList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость упаковки: те же операции, что в {@link ListBenchmark}, для {@link ArrayList ArrayList&lt;Integer&gt;}
+ * и для примитивных {@link IntArrayList} и {@link IntSegmentList} через методы {@link IntList} без упаковки.
+ *
+ * Добавление в {@link ArrayList} упаковывает каждое значение (кроме кэшированных {@code -128..127}),
+ * а чтение сводит значения в сумму, поэтому распаковка и обход ссылок входят в замер.
+ * Выделение памяти на операцию показывает профилировщик сборщика мусора:
+ * {@code java -jar target/benchmarks.jar IntListBenchmark -prof gc} (строка {@code gc.alloc.rate.norm},
+ * байт на вызов, то есть на {@code size} элементов). У {@link #removeRange(Removable)} в это число входит
+ * и заполнение списков перед вызовом.
+ * Перед каждым вызовом {@link #removeRange(Removable)} заполняются {@link ListBenchmark#REMOVE_BATCH} списков,
+ * поэтому при больших размерах форкам может понадобиться больше памяти ({@code -jvmArgs -Xmx4g}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IntListBenchmark {
+
+    /**
+     * Тестируемая коллекция.
+     */
+    public enum Implementation {
+        ARRAY_LIST,
+        INT_ARRAY_LIST,
+        INT_SEGMENT_LIST
+    }
+
+    /**
+     * Коллекция.
+     */
+    @Param({"ARRAY_LIST", "INT_ARRAY_LIST", "INT_SEGMENT_LIST"})
+    public Implementation implementation;
+
+    /**
+     * Количество элементов, над которыми выполняется операция.
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Integer> filled;  // Заполненная коллекция для чтения
+
+    /**
+     * Заполненные коллекции для удаления, пересоздаются перед каждым вызовом {@link #removeRange(Removable)}.
+     * Как и в {@link ListBenchmark}, вызов обрабатывает {@link ListBenchmark#REMOVE_BATCH} коллекций, чтобы
+     * накладные расходы JMH на {@link Level#Invocation} не сравнивались со сдвигом 500 элементов.
+     */
+    @State(Scope.Thread)
+    public static class Removable {
+        final List<?>[] lists = new List<?>[ListBenchmark.REMOVE_BATCH];
+
+        @Setup(Level.Invocation)
+        public void setUp(IntListBenchmark benchmark) {
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = benchmark.add();
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filled = add();
+    }
+
+    @Benchmark
+    public List<Integer> add() {
+        switch (implementation) {
+            case ARRAY_LIST: {
+                List<Integer> list = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    list.add(i);  // Упаковка
+                }
+                return list;
+            }
+            case INT_ARRAY_LIST:
+                return addInt(new IntArrayList());
+            default:
+                return addInt(new IntSegmentList());
+        }
+    }
+
+    @Benchmark
+    public long get() {
+        long sum = 0;
+        if (filled instanceof IntList list) {
+            for (int i = 0; i < size; i++) {
+                sum += list.getInt(i);
+            }
+        } else {
+            List<Integer> list = filled;
+            for (int i = 0; i < size; i++) {
+                sum += list.get(i);  // Распаковка
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Удаление первой половины списка одним сдвигом хвоста.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ListBenchmark.REMOVE_BATCH)
+    public int removeRange(Removable removable) {
+        int remaining = 0;
+        for (List<?> list : removable.lists) {
+            if (list instanceof IntList intList) {
+                intList.removeRange(0, size / 2);
+            } else {
+                list.subList(0, size / 2).clear();
+            }
+            remaining += list.size();
+        }
+        return remaining;
+    }
+
+    private IntList addInt(IntList list) {
+        for (int i = 0; i < size; i++) {
+            list.addInt(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,243 @@
+package org.ListPerformance.benchmark;
+
+import org.ListPerformance.IntArrayList;
+import org.ListPerformance.IntSegmentList;
+import org.container.Container;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки тех же операций, что и {@link org.ListPerformance.ListPerformance}, для {@link ArrayList},
+ * {@link LinkedList}, {@link Container} и упаковывающих представлений примитивных {@link IntArrayList}
+ * и {@link IntSegmentList}, с прогревом, несколькими форками и передачей результатов в {@link Blackhole}.
+ * Те же примитивные списки без упаковки измеряются в {@link IntListBenchmark}.
+ *
+ * Каждая операция выполняется над {@code size} элементами, как один вызов {@code testAdd}, {@code testGet}
+ * или {@code testRemove} с {@code iterations = size}: добавление в конец, чтение по индексу подряд
+ * и удаление с начала списка ({@code subList(0, size).clear()} у {@link List}, {@code remove(0)} в цикле
+ * у {@link Container}, в котором нет группового удаления).
+ *
+ * {@link Container#add(Object)} и {@link Container#get(int)}, как и {@link LinkedList#get(int)}, проходят список
+ * от начала, поэтому время операций над ними растёт квадратично; большие размеры задаются явно:
+ * {@code java -jar target/benchmarks.jar ListBenchmark -p size=100000 -p implementation=ARRAY_LIST}.
+ * Перед каждым вызовом {@link #remove(Removable)} заполняются {@link #REMOVE_BATCH} коллекций, поэтому при больших
+ * размерах форкам может понадобиться больше памяти ({@code -jvmArgs -Xmx4g}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ListBenchmark {
+
+    /**
+     * Тестируемая коллекция.
+     */
+    public enum Implementation {
+        ARRAY_LIST {
+            @Override
+            Target create() {
+                return new ListTarget(new ArrayList<>());
+            }
+        },
+        LINKED_LIST {
+            @Override
+            Target create() {
+                return new ListTarget(new LinkedList<>());
+            }
+        },
+        CONTAINER {
+            @Override
+            Target create() {
+                return new ContainerTarget();
+            }
+        },
+        INT_ARRAY_LIST {
+            @Override
+            Target create() {
+                return new ListTarget(new IntArrayList());
+            }
+        },
+        INT_SEGMENT_LIST {
+            @Override
+            Target create() {
+                return new ListTarget(new IntSegmentList());
+            }
+        };
+
+        /**
+         * Создаёт пустую коллекцию.
+         *
+         * @return Обёртка над новой коллекцией.
+         */
+        abstract Target create();
+    }
+
+    /**
+     * Общий набор операций для коллекций с разными интерфейсами.
+     */
+    public interface Target {
+        void add(Integer value);
+
+        Integer get(int index);
+
+        void removeFirst(int count);
+
+        int size();
+    }
+
+    private static final class ListTarget implements Target {
+        private final List<Integer> list;
+
+        ListTarget(List<Integer> list) {
+            this.list = list;
+        }
+
+        @Override
+        public void add(Integer value) {
+            list.add(value);
+        }
+
+        @Override
+        public Integer get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public void removeFirst(int count) {
+            list.subList(0, count).clear();
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+
+    private static final class ContainerTarget implements Target {
+        private final Container<Integer> container = new Container<>();
+
+        @Override
+        public void add(Integer value) {
+            container.add(value);
+        }
+
+        @Override
+        public Integer get(int index) {
+            return container.get(index);
+        }
+
+        @Override
+        public void removeFirst(int count) {
+            for (int i = 0; i < count; i++) {
+                container.remove(0);
+            }
+        }
+
+        @Override
+        public int size() {
+            return container.size();
+        }
+    }
+
+    /**
+     * Коллекция.
+     */
+    @Param({"ARRAY_LIST", "LINKED_LIST", "CONTAINER", "INT_ARRAY_LIST", "INT_SEGMENT_LIST"})
+    public Implementation implementation;
+
+    /**
+     * Количество элементов, над которыми выполняется операция.
+     */
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Integer[] values;  // Заранее упакованные значения: упаковка не входит в замер
+    private Target filled;     // Заполненная коллекция для чтения
+
+    /**
+     * Количество коллекций, опустошаемых за один вызов {@link #remove(Removable)}.
+     */
+    static final int REMOVE_BATCH = 100;
+
+    /**
+     * Заполненные коллекции для удаления, пересоздаются перед каждым вызовом {@link #remove(Removable)}.
+     * Накладные расходы JMH на {@link Level#Invocation} (отметки времени и синхронизация вокруг каждого вызова)
+     * сопоставимы с удалением 100 или 1000 элементов и при одной коллекции на вызов составляли бы заметную
+     * часть результата. Поэтому вызов опустошает {@link #REMOVE_BATCH} коллекций, а результат делится
+     * на их количество через {@link OperationsPerInvocation}.
+     */
+    @State(Scope.Thread)
+    public static class Removable {
+        final Target[] targets = new Target[REMOVE_BATCH];
+
+        @Setup(Level.Invocation)
+        public void setUp(ListBenchmark benchmark) {
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = benchmark.fill(benchmark.implementation.create());
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        filled = fill(implementation.create());
+    }
+
+    Target fill(Target target) {
+        for (Integer value : values) {
+            target.add(value);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Target add() {
+        Target target = implementation.create();
+        for (Integer value : values) {
+            target.add(value);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        Target target = filled;
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(target.get(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REMOVE_BATCH)
+    public int remove(Removable removable) {
+        int remaining = 0;
+        for (Target target : removable.targets) {
+            target.removeFirst(size);
+            remaining += target.size();
+        }
+        return remaining;
+    }
+}
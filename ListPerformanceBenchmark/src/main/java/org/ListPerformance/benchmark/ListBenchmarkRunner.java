@@ -0,0 +1,67 @@
+package org.ListPerformance.benchmark;
+
+import org.ListPerformance.ListPerformance;
+import org.ListPerformance.ListPerformanceResult;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запуск {@link ListBenchmark} с выводом результатов в прежнем виде: для каждой коллекции — таблица
+ * {@link ListPerformance#displayResults()} со средним временем операций add, get и remove над {@code size} элементами.
+ * Вызывающий код, разбирающий эту таблицу или {@link ListPerformance#getResults()}, продолжает работать,
+ * но получает значения, измеренные JMH с прогревом, а не один замер {@link System#nanoTime()}.
+ */
+public class ListBenchmarkRunner {
+
+    /**
+     * Запускает бенчмарки и выводит таблицы результатов.
+     *
+     * @param args Необязательный аргумент — количество элементов (по умолчанию 1000).
+     * @throws RunnerException Если запуск JMH завершился ошибкой.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String size = args.length > 0 ? args[0] : "1000";
+        Options options = new OptionsBuilder()
+                .include(ListBenchmark.class.getName() + "\\.")
+                .param("size", size)
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+        Map<String, ListPerformance> tables = toTables(new Runner(options).run());
+
+        System.out.println("\nСравнение производительности коллекций (JMH), элементов: " + size);
+        System.out.println("=======================================");
+        for (Map.Entry<String, ListPerformance> entry : tables.entrySet()) {
+            System.out.println("\nРезультаты для " + entry.getKey() + ":");
+            entry.getValue().displayResults();
+        }
+    }
+
+    /**
+     * Раскладывает результаты JMH по коллекциям в порядке запуска.
+     *
+     * @param results Результаты запуска в режиме среднего времени с наносекундами.
+     * @return Карта названий коллекций и таблиц результатов.
+     */
+    static Map<String, ListPerformance> toTables(Collection<RunResult> results) {
+        Map<String, ListPerformance> tables = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            String implementation = result.getParams().getParam("implementation");
+            String benchmark = result.getParams().getBenchmark();
+            String operation = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            long duration = Math.round(result.getPrimaryResult().getScore());
+            tables.computeIfAbsent(implementation, key -> new ListPerformance())
+                    .addResult(new ListPerformanceResult(operation, duration));
+        }
+        return tables;
+    }
+}